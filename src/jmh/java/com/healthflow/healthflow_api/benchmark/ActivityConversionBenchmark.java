@@ -0,0 +1,45 @@
+package com.healthflow.healthflow_api.benchmark;
+
+import com.healthflow.healthflow_api.DTO.HealthActivityResponseDTO;
+import com.healthflow.healthflow_api.model.HealthActivity;
+import com.healthflow.healthflow_api.service.HealthActivityService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Conversão entidade -> DTO, isolada do banco
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ActivityConversionBenchmark {
+
+    @Param({"1000", "10000"})
+    private int size;
+
+    private HealthActivityService activityService;
+
+    private List<HealthActivity> activities;
+
+    @Setup
+    public void setUp() {
+        activityService = new HealthActivityService();
+        activities = SyntheticData.activities(size, 42);
+    }
+
+    @Benchmark
+    public HealthActivityResponseDTO convertSingle() {
+        return activityService.convertEntityToDTO(activities.get(0));
+    }
+
+    @Benchmark
+    public List<HealthActivityResponseDTO> convertList() {
+        return activities.stream()
+                .map(activityService::convertEntityToDTO)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,56 @@
+package com.healthflow.healthflow_api.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// Chamadas completas via MockMvc: roteamento, serviço, consulta e serialização
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ActivityEndpointBenchmark {
+
+    private static final int USERS = 10;
+
+    @Param({"100", "1000", "10000"})
+    private int activitiesPerUser;
+
+    private ConfigurableApplicationContext context;
+
+    private MockMvc mockMvc;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(WebApplicationType.SERVLET);
+        SyntheticData.load(context.getBean(JdbcTemplate.class), USERS, activitiesPerUser, 42);
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int listByUser() throws Exception {
+        return mockMvc.perform(get("/api/activities/user/{userId}", 5))
+                .andReturn().getResponse().getContentAsByteArray().length;
+    }
+
+    @Benchmark
+    public int firstPageByUser() throws Exception {
+        return mockMvc.perform(get("/api/activities/user/{userId}/page", 5).param("size", "100"))
+                .andReturn().getResponse().getContentAsByteArray().length;
+    }
+}
@@ -0,0 +1,122 @@
+package com.healthflow.healthflow_api.benchmark;
+
+import com.healthflow.healthflow_api.DTO.HealthActivityDTO;
+import com.healthflow.healthflow_api.service.ActivityFeedService;
+import com.healthflow.healthflow_api.service.HealthActivityService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Milhares de conexões SSE ociosas abertas contra o servidor real, mais um assinante ativo.
+// Mede a latência entre o commit de uma atividade e a chegada do evento ao assinante ativo, e
+// imprime a memória e as threads usadas pelas conexões ociosas (o heap inclui os objetos do
+// cliente, que roda na mesma JVM; cada conexão usa dois descritores de arquivo).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ActivityFeedLoadBenchmark {
+
+    private static final int USERS = 100;
+
+    @Param({"0", "5000", "9000"})
+    private int idleConnections;
+
+    private ConfigurableApplicationContext context;
+
+    private HealthActivityService activityService;
+
+    private final List<SocketChannel> idle = new ArrayList<>();
+
+    private SocketChannel active;
+
+    private final ByteBuffer readBuffer = ByteBuffer.allocate(64 * 1024);
+
+    private final StringBuilder received = new StringBuilder();
+
+    private HealthActivityDTO activity;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = BenchmarkApplication.start(WebApplicationType.SERVLET,
+                "healthflow.feed.max-subscribers=" + (idleConnections + 10));
+        SyntheticData.load(context.getBean(JdbcTemplate.class), USERS, 0, 42);
+        activityService = context.getBean(HealthActivityService.class);
+        InetSocketAddress address = new InetSocketAddress("localhost",
+                ((WebServerApplicationContext) context).getWebServer().getPort());
+
+        long heapBefore = usedHeap();
+        int threadsBefore = Thread.activeCount();
+        // Os assinantes ociosos ficam nos usuários 2..USERS, que não recebem gravações
+        for (int i = 0; i < idleConnections; i++) {
+            idle.add(subscribe(address, 2 + i % (USERS - 1)));
+        }
+        long heapPerConnection = idleConnections == 0 ? 0 : (usedHeap() - heapBefore) / idleConnections;
+        System.out.printf("%n%d conexões ociosas (%d assinantes): %d bytes de heap por conexão, %+d threads%n",
+                idleConnections, context.getBean(ActivityFeedService.class).getSubscriberCount(),
+                heapPerConnection, Thread.activeCount() - threadsBefore);
+
+        active = subscribe(address, 1);
+        activity = new HealthActivityDTO(1L, "WALKING", SyntheticData.FIRST_DAY, 72.0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        for (SocketChannel channel : idle) {
+            channel.close();
+        }
+        active.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int commitToDelivery() throws IOException {
+        activityService.save(activity);
+        return awaitEvent(active, "event:statistics-delta");
+    }
+
+    private SocketChannel subscribe(InetSocketAddress address, long userId) throws IOException {
+        SocketChannel channel = SocketChannel.open(address);
+        channel.write(StandardCharsets.US_ASCII.encode("GET /api/activities/user/" + userId + "/feed HTTP/1.1\r\n"
+                + "Host: localhost\r\nAccept: text/event-stream\r\n\r\n"));
+        awaitEvent(channel, ":conectado");
+        return channel;
+    }
+
+    // Lê do canal até encontrar o marcador; o que vier depois dele é descartado
+    private int awaitEvent(SocketChannel channel, String marker) throws IOException {
+        received.setLength(0);
+        int bytes = 0;
+        while (received.indexOf(marker) < 0) {
+            readBuffer.clear();
+            int read = channel.read(readBuffer);
+            if (read < 0) {
+                throw new IOException("Conexão encerrada pelo servidor");
+            }
+            bytes += read;
+            received.append(StandardCharsets.UTF_8.decode(readBuffer.flip()));
+        }
+        return bytes;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
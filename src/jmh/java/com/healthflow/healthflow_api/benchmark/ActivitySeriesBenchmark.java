@@ -0,0 +1,66 @@
+package com.healthflow.healthflow_api.benchmark;
+
+import com.healthflow.healthflow_api.DTO.ActivitySeriesDTO;
+import com.healthflow.healthflow_api.DTO.HealthActivityResponseDTO;
+import com.healthflow.healthflow_api.service.ActivitySeriesService;
+import com.healthflow.healthflow_api.service.HealthActivityService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Série temporal sobre intervalos de vários anos (5 anos de histórico, ~11 atividades por dia),
+// comparada à listagem completa que o cliente precisava baixar para agregar por conta própria
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ActivitySeriesBenchmark {
+
+    private static final int USERS = 4;
+    private static final int ACTIVITIES_PER_USER = 20_000;
+
+    @Param({"1", "5"})
+    private int years;
+
+    @Param({"DAY", "WEEK", "MONTH"})
+    private ActivitySeriesService.Bucket bucket;
+
+    private ConfigurableApplicationContext context;
+
+    private ActivitySeriesService seriesService;
+
+    private HealthActivityService activityService;
+
+    private LocalDate to;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(WebApplicationType.NONE);
+        SyntheticData.load(context.getBean(JdbcTemplate.class), USERS, ACTIVITIES_PER_USER, 42);
+        seriesService = context.getBean(ActivitySeriesService.class);
+        activityService = context.getBean(HealthActivityService.class);
+        to = SyntheticData.FIRST_DAY.plusYears(years).minusDays(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ActivitySeriesDTO> series() {
+        return seriesService.findSeries(2L, null, SyntheticData.FIRST_DAY, to, bucket);
+    }
+
+    @Benchmark
+    public List<HealthActivityResponseDTO> rawListing() {
+        return activityService.findAllByUserId(2L);
+    }
+}
@@ -0,0 +1,67 @@
+package com.healthflow.healthflow_api.benchmark;
+
+import com.healthflow.healthflow_api.DTO.BatchItemResultDTO;
+import com.healthflow.healthflow_api.DTO.HealthActivityDTO;
+import com.healthflow.healthflow_api.service.HealthActivityService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Gravação de um lote de atividades: uma chamada de save por atividade x saveBatch com INSERTs em lote JDBC
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchIngestionBenchmark {
+
+    @Param({"100", "1000"})
+    private int batchSize;
+
+    private ConfigurableApplicationContext context;
+
+    private HealthActivityService activityService;
+
+    private List<HealthActivityDTO> batch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(WebApplicationType.NONE);
+        SyntheticData.load(context.getBean(JdbcTemplate.class), 10, 0, 42);
+        activityService = context.getBean(HealthActivityService.class);
+
+        Random random = new Random(42);
+        batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            batch.add(new HealthActivityDTO(1L + random.nextInt(10),
+                    SyntheticData.TYPES[random.nextInt(SyntheticData.TYPES.length)],
+                    SyntheticData.FIRST_DAY.plusDays(random.nextInt(SyntheticData.DAYS)),
+                    random.nextDouble() * 100));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void singleInserts(Blackhole blackhole) {
+        for (HealthActivityDTO activityDTO : batch) {
+            blackhole.consume(activityService.save(activityDTO));
+        }
+    }
+
+    @Benchmark
+    public List<BatchItemResultDTO> batchInsert() {
+        return activityService.saveBatch(batch);
+    }
+}
@@ -0,0 +1,43 @@
+package com.healthflow.healthflow_api.benchmark;
+
+import com.healthflow.healthflow_api.HealthflowApiApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+// Sobe a aplicação com um banco H2 próprio e sem log de SQL, para medições isoladas
+public final class BenchmarkApplication {
+
+    private BenchmarkApplication() {}
+
+    public static ConfigurableApplicationContext start(WebApplicationType webApplicationType, String... properties) {
+        return start(webApplicationType, List.of(), properties);
+    }
+
+    // Os objetos em beans são registrados no contexto antes da inicialização (por exemplo, filtros
+    // de medição, que o servidor embutido só recolhe na partida)
+    public static ConfigurableApplicationContext start(WebApplicationType webApplicationType, List<Object> beans,
+                                                       String... properties) {
+        List<String> defaults = new ArrayList<>(List.of(
+                "spring.datasource.url=jdbc:h2:mem:benchmark-" + UUID.randomUUID(),
+                "spring.jpa.show-sql=false",
+                "spring.main.banner-mode=off",
+                "server.port=0",
+                "logging.level.root=WARN",
+                "logging.level.com.healthflow=WARN"
+        ));
+        defaults.addAll(Arrays.asList(properties));
+
+        // Passadas como argumentos de linha de comando para prevalecer sobre application.properties
+        return new SpringApplicationBuilder(HealthflowApiApplication.class)
+                .web(webApplicationType)
+                .initializers(context -> beans.forEach(bean ->
+                        context.getBeanFactory().registerSingleton(bean.getClass().getName(), bean)))
+                .run(defaults.stream().map(property -> "--" + property).toArray(String[]::new));
+    }
+}
@@ -0,0 +1,62 @@
+package com.healthflow.healthflow_api.benchmark;
+
+import com.healthflow.healthflow_api.DTO.CohortStatisticsDTO;
+import com.healthflow.healthflow_api.service.CohortAggregationService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Agregação da coorte (2 mil usuários, 500 mil atividades) com paralelismo crescente do pool fork-join.
+// O ganho esperado é próximo de linear até o número de núcleos da máquina
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CohortAggregationBenchmark {
+
+    private static final int USERS = 2_000;
+    private static final int ACTIVITIES_PER_USER = 250;
+
+    @Param({"1", "2", "4", "8"})
+    private int parallelism;
+
+    private ConfigurableApplicationContext context;
+
+    private CohortAggregationService cohortService;
+
+    private LocalDate lastDay;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Pool de conexões maior que o paralelismo, para que as folhas não esperem por conexão
+        context = BenchmarkApplication.start(WebApplicationType.NONE,
+                "healthflow.cohort.parallelism=" + parallelism,
+                "healthflow.cohort.users-per-task=100",
+                "spring.datasource.hikari.maximum-pool-size=" + (parallelism + 2));
+        SyntheticData.load(context.getBean(JdbcTemplate.class), USERS, ACTIVITIES_PER_USER, 42);
+        cohortService = context.getBean(CohortAggregationService.class);
+        lastDay = SyntheticData.FIRST_DAY.plusDays(SyntheticData.DAYS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<CohortStatisticsDTO> oneMonthOneType() {
+        return cohortService.aggregate("WALKING", SyntheticData.FIRST_DAY, SyntheticData.FIRST_DAY.plusMonths(1), 10);
+    }
+
+    @Benchmark
+    public List<CohortStatisticsDTO> fullHistoryAllTypes() {
+        return cohortService.aggregate(null, SyntheticData.FIRST_DAY, lastDay, 10);
+    }
+}
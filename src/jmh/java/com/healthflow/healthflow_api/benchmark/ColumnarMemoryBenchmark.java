@@ -0,0 +1,100 @@
+package com.healthflow.healthflow_api.benchmark;
+
+import com.healthflow.healthflow_api.analytics.ColumnarActivityStore;
+import com.healthflow.healthflow_api.model.HealthActivity;
+import com.healthflow.healthflow_api.repository.HealthActivityRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Memória retida por linha: entidades HealthActivity x segmentos colunares, para 200 mil atividades.
+// O contador bytesPerRow aparece como resultado secundário; o tempo medido é o da carga.
+// Uma única medição, pois o JMH soma contadores do tipo EVENTS entre as iterações.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ColumnarMemoryBenchmark {
+
+    private static final int USERS = 20;
+    private static final int ACTIVITIES_PER_USER = 10_000;
+    private static final long ROWS = (long) USERS * ACTIVITIES_PER_USER;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Footprint {
+        public long bytesPerRow;
+    }
+
+    private ConfigurableApplicationContext context;
+
+    private HealthActivityRepository activityRepository;
+
+    private ColumnarActivityStore columnarStore;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Object retained;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(WebApplicationType.NONE,
+                "healthflow.analytics.columnar-store.enabled=true");
+        SyntheticData.load(context.getBean(JdbcTemplate.class), USERS, ACTIVITIES_PER_USER, 42);
+        activityRepository = context.getBean(HealthActivityRepository.class);
+        columnarStore = context.getBean(ColumnarActivityStore.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        transactionTemplate.setReadOnly(true);
+    }
+
+    @TearDown(Level.Invocation)
+    public void release() {
+        retained = null;
+        columnarStore.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void jpaEntities(Footprint footprint) {
+        long before = usedHeap();
+        List<List<HealthActivity>> entities = new ArrayList<>(USERS);
+        for (long userId = 1; userId <= USERS; userId++) {
+            long id = userId;
+            entities.add(transactionTemplate.execute(status -> activityRepository.findByUserId(id)));
+        }
+        retained = entities;
+        footprint.bytesPerRow = (usedHeap() - before) / ROWS;
+    }
+
+    @Benchmark
+    public void columnarSegments(Footprint footprint) {
+        long before = usedHeap();
+        for (long userId = 1; userId <= USERS; userId++) {
+            columnarStore.statistics(userId, LocalDate.MIN);
+        }
+        retained = columnarStore;
+        footprint.bytesPerRow = (usedHeap() - before) / ROWS;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,89 @@
+package com.healthflow.healthflow_api.benchmark;
+
+import com.healthflow.healthflow_api.DTO.ActivitySeriesDTO;
+import com.healthflow.healthflow_api.model.HealthActivity;
+import com.healthflow.healthflow_api.repository.HealthActivityRepository;
+import com.healthflow.healthflow_api.service.ActivitySeriesService;
+import com.healthflow.healthflow_api.service.HealthActivityService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Varredura do histórico completo de um usuário (20 mil atividades em 5 anos):
+// caminho JPA (entidades ou projeções) x armazenamento colunar já carregado
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ColumnarScanBenchmark {
+
+    private static final int USERS = 4;
+    private static final int ACTIVITIES_PER_USER = 20_000;
+    private static final LocalDate LAST_DAY = SyntheticData.FIRST_DAY.plusDays(SyntheticData.DAYS);
+
+    @Param({"jpa", "columnar"})
+    private String source;
+
+    private ConfigurableApplicationContext context;
+
+    private HealthActivityRepository activityRepository;
+
+    private HealthActivityService activityService;
+
+    private ActivitySeriesService seriesService;
+
+    private TransactionTemplate transactionTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Sem cache de estatísticas, para medir a varredura em todas as chamadas
+        context = BenchmarkApplication.start(WebApplicationType.NONE,
+                "healthflow.analytics.columnar-store.enabled=" + source.equals("columnar"),
+                "healthflow.cache.statistics.max-size=0");
+        SyntheticData.load(context.getBean(JdbcTemplate.class), USERS, ACTIVITIES_PER_USER, 42);
+        activityRepository = context.getBean(HealthActivityRepository.class);
+        activityService = context.getBean(HealthActivityService.class);
+        seriesService = context.getBean(ActivitySeriesService.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        transactionTemplate.setReadOnly(true);
+
+        // Carrega o segmento antes da medição (no caminho JPA é apenas uma consulta a mais)
+        series();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ActivitySeriesDTO> series() {
+        return seriesService.findSeries(2L, null, SyntheticData.FIRST_DAY, LAST_DAY, ActivitySeriesService.Bucket.MONTH);
+    }
+
+    @Benchmark
+    public List<Object[]> statistics() {
+        return activityService.getStatistics(2L, SyntheticData.FIRST_DAY);
+    }
+
+    // Referência: soma por tipo hidratando as entidades, como os relatórios faziam
+    @Benchmark
+    public double entityScan() {
+        return transactionTemplate.execute(status -> {
+            double total = 0;
+            for (HealthActivity activity : activityRepository.findByUserId(2L)) {
+                total += activity.getActivityValue();
+            }
+            return total;
+        });
+    }
+}
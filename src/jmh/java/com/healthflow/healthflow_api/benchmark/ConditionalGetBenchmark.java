@@ -0,0 +1,86 @@
+package com.healthflow.healthflow_api.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// Releitura de dados inalterados: GET completo contra GET com If-None-Match (304).
+// Imprime o tamanho do corpo evitado em cada revalidação.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConditionalGetBenchmark {
+
+    private static final int USERS = 10;
+
+    @Param({"100", "1000", "10000"})
+    private int activitiesPerUser;
+
+    private ConfigurableApplicationContext context;
+
+    private MockMvc mockMvc;
+
+    private String listEtag;
+
+    private String statisticsEtag;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = BenchmarkApplication.start(WebApplicationType.SERVLET);
+        SyntheticData.load(context.getBean(JdbcTemplate.class), USERS, activitiesPerUser, 42);
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+
+        MvcResult list = mockMvc.perform(get("/api/activities/user/{userId}", 5)).andReturn();
+        MvcResult statistics = mockMvc.perform(get("/api/activities/user/{userId}/statistics", 5)
+                .param("startDate", SyntheticData.FIRST_DAY.toString())).andReturn();
+        listEtag = list.getResponse().getHeader("ETag");
+        statisticsEtag = statistics.getResponse().getHeader("ETag");
+        System.out.printf("%nCorpo evitado por revalidação: lista %d bytes, estatísticas %d bytes%n",
+                list.getResponse().getContentAsByteArray().length,
+                statistics.getResponse().getContentAsByteArray().length);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int listFull() throws Exception {
+        return mockMvc.perform(get("/api/activities/user/{userId}", 5))
+                .andReturn().getResponse().getContentAsByteArray().length;
+    }
+
+    @Benchmark
+    public int listNotModified() throws Exception {
+        return mockMvc.perform(get("/api/activities/user/{userId}", 5).header("If-None-Match", listEtag))
+                .andReturn().getResponse().getStatus();
+    }
+
+    @Benchmark
+    public int statisticsFull() throws Exception {
+        return mockMvc.perform(get("/api/activities/user/{userId}/statistics", 5)
+                        .param("startDate", SyntheticData.FIRST_DAY.toString()))
+                .andReturn().getResponse().getContentAsByteArray().length;
+    }
+
+    @Benchmark
+    public int statisticsNotModified() throws Exception {
+        return mockMvc.perform(get("/api/activities/user/{userId}/statistics", 5)
+                        .param("startDate", SyntheticData.FIRST_DAY.toString())
+                        .header("If-None-Match", statisticsEtag))
+                .andReturn().getResponse().getStatus();
+    }
+}
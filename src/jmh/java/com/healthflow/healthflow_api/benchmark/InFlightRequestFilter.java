@@ -0,0 +1,38 @@
+package com.healthflow.healthflow_api.benchmark;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Conta as requisições em processamento no servidor e guarda o maior valor observado. Requisições
+// ainda na fila de conexões do Tomcat (sem thread) não entram na conta
+public class InFlightRequestFilter implements Filter {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicInteger peak = new AtomicInteger();
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    public int getPeak() {
+        return peak.get();
+    }
+
+    public void resetPeak() {
+        peak.set(inFlight.get());
+    }
+}
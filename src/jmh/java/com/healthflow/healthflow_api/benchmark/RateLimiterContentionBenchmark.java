@@ -0,0 +1,62 @@
+package com.healthflow.healthflow_api.benchmark;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.healthflow.healthflow_api.ratelimit.RateLimit;
+import com.healthflow.healthflow_api.ratelimit.RateLimitBudget;
+import com.healthflow.healthflow_api.ratelimit.RateLimiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Custo de uma verificação do limitador com 32 threads, todas no mesmo usuário e cliente (users = 1)
+// ou espalhadas por muitos, com o balde global em uma faixa ou em 16. Os limites são altos o bastante
+// para nada ser recusado: mede-se só a disputa pelos AtomicLong e pelo cache de baldes
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(32)
+@Fork(1)
+public class RateLimiterContentionBenchmark {
+
+    @Param({"1", "16"})
+    private int globalStripes;
+
+    @Param({"1", "100000"})
+    private int users;
+
+    private RateLimiter rateLimiter;
+
+    private String[] clients;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        RateLimit unlimited = new RateLimit(1e8, 100_000_000);
+        Map<RateLimitBudget, Map<RateLimiter.Scope, RateLimit>> limits = new EnumMap<>(RateLimitBudget.class);
+        for (RateLimitBudget budget : RateLimitBudget.values()) {
+            Map<RateLimiter.Scope, RateLimit> scopes = new EnumMap<>(RateLimiter.Scope.class);
+            for (RateLimiter.Scope scope : RateLimiter.Scope.values()) {
+                scopes.put(scope, unlimited);
+            }
+            limits.put(budget, scopes);
+        }
+        rateLimiter = new RateLimiter(limits, globalStripes, Duration.ofMinutes(10), 1_000_000, Ticker.systemTicker());
+
+        clients = new String[Math.min(users, 1000)];
+        for (int i = 0; i < clients.length; i++) {
+            clients[i] = "10.0." + (i / 256) + "." + (i % 256);
+        }
+    }
+
+    @Benchmark
+    public long tryAcquire() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long userId = random.nextInt(users) + 1;
+        return rateLimiter.tryAcquire(RateLimitBudget.WRITES, clients[random.nextInt(clients.length)], userId);
+    }
+}
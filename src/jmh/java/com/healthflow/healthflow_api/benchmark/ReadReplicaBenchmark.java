@@ -0,0 +1,98 @@
+package com.healthflow.healthflow_api.benchmark;
+
+import com.healthflow.healthflow_api.DTO.HealthActivityDTO;
+import com.healthflow.healthflow_api.DTO.HealthActivityResponseDTO;
+import com.healthflow.healthflow_api.datasource.H2ReplicaReplicator;
+import com.healthflow.healthflow_api.datasource.ReplicaLagMonitor;
+import com.healthflow.healthflow_api.service.HealthActivityService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Leituras da listagem por usuário com gravações simultâneas (6 threads lendo, 2 gravando), sem e com
+// réplica. Os pools têm 4 conexões cada, para que a disputa pelo primário apareça; com a réplica, o
+// replicador de teste copia o primário a cada segundo (a cópia completa também consome CPU da máquina)
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class ReadReplicaBenchmark {
+
+    private static final int USERS = 10;
+
+    @Param({"false", "true"})
+    private boolean replica;
+
+    @Param({"200"})
+    private int activitiesPerUser;
+
+    private ConfigurableApplicationContext context;
+
+    private HealthActivityService activityService;
+
+    private ReplicaLagMonitor monitor;
+
+    private H2ReplicaReplicator replicator;
+
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        context = BenchmarkApplication.start(WebApplicationType.NONE,
+                "spring.datasource.hikari.maximum-pool-size=4",
+                "healthflow.datasource.replica.enabled=" + replica,
+                "healthflow.datasource.replica.url=jdbc:h2:mem:benchmark-replica-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "healthflow.datasource.replica.username=sa",
+                "healthflow.datasource.replica.hikari.maximum-pool-size=4",
+                "healthflow.datasource.replica.max-lag=5s",
+                "healthflow.datasource.replica.heartbeat-interval=200ms");
+        SyntheticData.load(context.getBean(JdbcTemplate.class), USERS, activitiesPerUser, 42);
+        activityService = context.getBean(HealthActivityService.class);
+
+        if (replica) {
+            monitor = context.getBean(ReplicaLagMonitor.class);
+            replicator = new H2ReplicaReplicator(context.getBean("primaryDataSource", DataSource.class),
+                    context.getBean("replicaDataSource", DataSource.class));
+            replicator.start(Duration.ofSeconds(1));
+            while (!monitor.isReplicaUsable()) {
+                Thread.sleep(50);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (replicator != null) {
+            replicator.close();
+            System.out.printf("%nleituras na réplica: %d, no primário: %d%n",
+                    monitor.getReplicaReads(), monitor.getPrimaryReads());
+        }
+        context.close();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(6)
+    public List<HealthActivityResponseDTO> read() {
+        return activityService.findAllByUserId(1L + ThreadLocalRandom.current().nextInt(USERS));
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(2)
+    public HealthActivityResponseDTO write() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return activityService.save(new HealthActivityDTO(1L + random.nextInt(USERS),
+                SyntheticData.TYPES[random.nextInt(SyntheticData.TYPES.length)],
+                SyntheticData.FIRST_DAY.plusDays(random.nextInt(SyntheticData.DAYS)),
+                random.nextDouble() * 100));
+    }
+}
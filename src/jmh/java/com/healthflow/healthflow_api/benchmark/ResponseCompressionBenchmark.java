@@ -0,0 +1,90 @@
+package com.healthflow.healthflow_api.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+// Listagem e estatísticas pelo servidor real, com e sem compressão gzip e com e sem o buffer
+// reaproveitado do JSON (json-buffer.max-size=0 escreve direto no socket). Imprime os bytes do
+// corpo recebidos em cada caso; use -prof gc para a alocação por requisição (inclui o cliente).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseCompressionBenchmark {
+
+    private static final int USERS = 10;
+
+    @Param({"100", "1000"})
+    private int activitiesPerUser;
+
+    @Param({"false", "true"})
+    private boolean compression;
+
+    @Param({"0", "4MB"})
+    private String jsonBufferMaxSize;
+
+    private ConfigurableApplicationContext context;
+
+    private HttpClient client;
+
+    private HttpRequest list;
+
+    private HttpRequest statistics;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = BenchmarkApplication.start(WebApplicationType.SERVLET,
+                "server.compression.enabled=" + compression,
+                "healthflow.http.json-buffer.max-size=" + jsonBufferMaxSize);
+        SyntheticData.load(context.getBean(JdbcTemplate.class), USERS, activitiesPerUser, 42);
+
+        String baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        list = request(baseUrl + "/api/activities/user/5");
+        statistics = request(baseUrl + "/api/activities/user/5/statistics?startDate=" + SyntheticData.FIRST_DAY);
+
+        HttpResponse<byte[]> listResponse = client.send(list, HttpResponse.BodyHandlers.ofByteArray());
+        HttpResponse<byte[]> statisticsResponse = client.send(statistics, HttpResponse.BodyHandlers.ofByteArray());
+        System.out.printf("%nlista: %d bytes (%s), estatísticas: %d bytes (%s)%n",
+                listResponse.body().length, describe(listResponse),
+                statisticsResponse.body().length, describe(statisticsResponse));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int listByUser() throws IOException, InterruptedException {
+        return client.send(list, HttpResponse.BodyHandlers.ofByteArray()).body().length;
+    }
+
+    @Benchmark
+    public int statistics() throws IOException, InterruptedException {
+        return client.send(statistics, HttpResponse.BodyHandlers.ofByteArray()).body().length;
+    }
+
+    private static HttpRequest request(String url) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Accept-Encoding", "gzip")
+                .build();
+    }
+
+    private static String describe(HttpResponse<?> response) {
+        return response.headers().firstValue("Content-Encoding").orElse("identity") + ", "
+                + response.headers().firstValue("Content-Length").map(length -> "Content-Length").orElse("chunked");
+    }
+}
@@ -0,0 +1,104 @@
+package com.healthflow.healthflow_api.benchmark;
+
+import com.healthflow.healthflow_api.DTO.HealthActivityDTO;
+import com.healthflow.healthflow_api.DTO.HealthActivityResponseDTO;
+import com.healthflow.healthflow_api.model.User;
+import com.healthflow.healthflow_api.service.HealthActivityService;
+import com.healthflow.healthflow_api.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+// Listagem por usuário e gravação de atividades em paralelo (6 threads lendo, 2 gravando) sem sharding
+// (shards = 0) e com 1, 2 e 4 shards H2 em memória no mesmo processo. Cada shard tem um pool de 4
+// conexões, então a capacidade de conexões cresce com o número de shards
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class ShardingThroughputBenchmark {
+
+    private static final int USERS = 40;
+
+    @Param({"0", "1", "2", "4"})
+    private int shards;
+
+    @Param({"200"})
+    private int activitiesPerUser;
+
+    private ConfigurableApplicationContext context;
+
+    private HealthActivityService activityService;
+
+    private Long[] userIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String run = UUID.randomUUID().toString();
+        String urls = IntStream.range(1, Math.max(1, shards))
+                .mapToObj(shard -> "jdbc:h2:mem:benchmark-shard-" + shard + "-" + run + ";DB_CLOSE_DELAY=-1")
+                .collect(Collectors.joining(","));
+        context = BenchmarkApplication.start(WebApplicationType.NONE,
+                "spring.datasource.hikari.maximum-pool-size=4",
+                "healthflow.sharding.enabled=" + (shards > 0),
+                "healthflow.sharding.urls=" + urls);
+        activityService = context.getBean(HealthActivityService.class);
+
+        UserService userService = context.getBean(UserService.class);
+        userIds = new Long[USERS];
+        for (int i = 0; i < USERS; i++) {
+            userIds[i] = userService.save(new User("Usuário " + i, "usuario" + i + "-" + run + "@email.com", "senha")).getId();
+        }
+
+        Random random = new Random(42);
+        List<HealthActivityDTO> batch = new ArrayList<>();
+        for (Long userId : userIds) {
+            for (int i = 0; i < activitiesPerUser; i++) {
+                batch.add(activity(userId, random));
+            }
+            if (batch.size() >= 1000) {
+                activityService.saveBatch(batch);
+                batch.clear();
+            }
+        }
+        activityService.saveBatch(batch);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(6)
+    public List<HealthActivityResponseDTO> read() {
+        return activityService.findAllByUserId(userIds[ThreadLocalRandom.current().nextInt(USERS)]);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(2)
+    public HealthActivityResponseDTO write() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return activityService.save(activity(userIds[random.nextInt(USERS)], random));
+    }
+
+    private static HealthActivityDTO activity(Long userId, Random random) {
+        return new HealthActivityDTO(userId,
+                SyntheticData.TYPES[random.nextInt(SyntheticData.TYPES.length)],
+                SyntheticData.FIRST_DAY.plusDays(random.nextInt(SyntheticData.DAYS)),
+                random.nextDouble() * 100);
+    }
+}
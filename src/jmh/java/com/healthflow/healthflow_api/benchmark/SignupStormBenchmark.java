@@ -0,0 +1,86 @@
+package com.healthflow.healthflow_api.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Rajada de cadastros (bcrypt custo 10) contra o servidor real, com leituras da listagem de atividades
+// ao mesmo tempo: 24 threads cadastrando e 4 lendo. Com hashing-threads = 64 (tantas quanto as
+// threads do Tomcat), o bcrypt disputa a CPU com as leituras como se rodasse na thread web; com um
+// pool pequeno, os cadastros esperam na fila e as leituras mantêm o p99 (SampleTime, p0.99 de read)
+@State(Scope.Group)
+@BenchmarkMode({Mode.SampleTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SignupStormBenchmark {
+
+    private static final int USERS = 100;
+
+    @Param({"1", "64"})
+    private int hashingThreads;
+
+    private ConfigurableApplicationContext context;
+
+    private HttpClient httpClient;
+
+    private String baseUrl;
+
+    private final AtomicLong signups = new AtomicLong();
+
+    private String run;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(WebApplicationType.SERVLET,
+                "server.tomcat.threads.max=64",
+                "healthflow.credentials.bcrypt-cost=10",
+                "healthflow.credentials.hashing-threads=" + hashingThreads,
+                "healthflow.credentials.queue-capacity=1000");
+        SyntheticData.load(context.getBean(JdbcTemplate.class), USERS, 200, 42);
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port;
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        run = UUID.randomUUID().toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @Group("storm")
+    @GroupThreads(24)
+    public int signup() throws Exception {
+        String email = "cadastro" + signups.incrementAndGet() + "-" + run + "@email.com";
+        String body = "{\"name\":\"Usuário\",\"email\":\"" + email + "\",\"password\":\"senha-forte-123\"}";
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/users"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Benchmark
+    @Group("storm")
+    @GroupThreads(4)
+    public int read() throws Exception {
+        long userId = 1 + ThreadLocalRandom.current().nextInt(USERS);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/activities/user/" + userId)).build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
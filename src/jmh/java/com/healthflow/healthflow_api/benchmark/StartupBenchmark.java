@@ -0,0 +1,70 @@
+package com.healthflow.healthflow_api.benchmark;
+
+import com.healthflow.healthflow_api.HealthflowApiApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// Tempo até a aplicação ficar pronta no perfil "prod", com o banco em arquivo já populado:
+// o Flyway e o Hibernate apenas validam o esquema, então o tempo não deve crescer com os dados
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StartupBenchmark {
+
+    @Param({"0", "1000000"})
+    private int activities;
+
+    private Path dataDir;
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void createDatabase() throws IOException {
+        dataDir = Files.createTempDirectory("healthflow-startup");
+        // O encerramento executa SHUTDOWN COMPACT, deixando o arquivo como em um restart real
+        try (ConfigurableApplicationContext seeding = start(true)) {
+            SyntheticData.load(seeding.getBean(JdbcTemplate.class), 1_000, activities / 1_000, 42);
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void stop() {
+        context.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteDatabase() throws IOException {
+        FileSystemUtils.deleteRecursively(dataDir);
+    }
+
+    @Benchmark
+    public ConfigurableApplicationContext startup() {
+        context = start(false);
+        return context;
+    }
+
+    // Argumentos de linha de comando, pois precisam prevalecer sobre application-prod.properties
+    private ConfigurableApplicationContext start(boolean compactOnShutdown) {
+        return new SpringApplicationBuilder(HealthflowApiApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .run("--spring.profiles.active=prod",
+                        "--healthflow.database.dir=" + dataDir,
+                        "--healthflow.database.compact-on-shutdown=" + compactOnShutdown,
+                        "--spring.main.banner-mode=off",
+                        "--server.port=0",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.healthflow=WARN");
+    }
+}
@@ -0,0 +1,56 @@
+package com.healthflow.healthflow_api.benchmark;
+
+import com.healthflow.healthflow_api.repository.HealthActivityRepository;
+import com.healthflow.healthflow_api.service.ActivityRollupService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Estatísticas por usuário: GROUP BY sobre as atividades brutas x leitura dos agregados diários.
+// Com os agregados, a latência depende dos dias do intervalo e fica estável conforme o histórico cresce
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatisticsQueryBenchmark {
+
+    private static final int USERS = 4;
+
+    @Param({"1000", "10000", "100000"})
+    private int historyPerUser;
+
+    private ConfigurableApplicationContext context;
+
+    private HealthActivityRepository activityRepository;
+
+    private ActivityRollupService rollupService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(WebApplicationType.NONE);
+        SyntheticData.load(context.getBean(JdbcTemplate.class), USERS, historyPerUser, 42);
+        activityRepository = context.getBean(HealthActivityRepository.class);
+        rollupService = context.getBean(ActivityRollupService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Object[]> rawGroupBy() {
+        return activityRepository.findStatisticsByUser(2L, SyntheticData.FIRST_DAY);
+    }
+
+    @Benchmark
+    public List<Object[]> dailyRollups() {
+        return rollupService.findStatistics(2L, SyntheticData.FIRST_DAY);
+    }
+}
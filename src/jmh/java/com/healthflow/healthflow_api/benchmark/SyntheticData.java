@@ -0,0 +1,100 @@
+package com.healthflow.healthflow_api.benchmark;
+
+import com.healthflow.healthflow_api.DTO.HealthActivityResponseDTO;
+import com.healthflow.healthflow_api.model.HealthActivity;
+import com.healthflow.healthflow_api.model.User;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Dados sintéticos determinísticos (semente fixa) para que os resultados sejam comparáveis entre versões
+public final class SyntheticData {
+
+    public static final String[] TYPES = {"EXERCISE", "WATER", "SLEEP", "MEDITATION", "WALKING"};
+    public static final LocalDate FIRST_DAY = LocalDate.of(2020, 1, 1);
+    public static final int DAYS = 5 * 365;
+
+    private static final int INSERT_CHUNK = 10_000;
+
+    private SyntheticData() {}
+
+    // Usuários com ids 1..users e atividades distribuídas uniformemente, além dos agregados diários
+    public static void load(JdbcTemplate jdbcTemplate, int users, int activitiesPerUser, long seed) {
+        List<Object[]> userRows = new ArrayList<>(users);
+        for (long id = 1; id <= users; id++) {
+            userRows.add(new Object[]{id, "Usuário " + id, "usuario" + id + "@email.com"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, name, email, created_at, updated_at)"
+                + " VALUES (?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", userRows);
+
+        Random random = new Random(seed);
+        List<Object[]> activityRows = new ArrayList<>(INSERT_CHUNK);
+        long activityId = 0;
+        for (long userId = 1; userId <= users; userId++) {
+            for (int i = 0; i < activitiesPerUser; i++) {
+                activityRows.add(new Object[]{
+                        ++activityId,
+                        userId,
+                        TYPES[random.nextInt(TYPES.length)],
+                        Date.valueOf(FIRST_DAY.plusDays(random.nextInt(DAYS))),
+                        random.nextDouble() * 100
+                });
+                if (activityRows.size() == INSERT_CHUNK) {
+                    insertActivities(jdbcTemplate, activityRows);
+                    activityRows.clear();
+                }
+            }
+        }
+        insertActivities(jdbcTemplate, activityRows);
+
+        jdbcTemplate.update("INSERT INTO daily_activity_rollups"
+                + " (user_id, activity_type, date, total_value, activity_count, min_value, max_value)"
+                + " SELECT user_id, activity_type, date, SUM(activity_value), COUNT(*), MIN(activity_value), MAX(activity_value)"
+                + " FROM health_activities GROUP BY user_id, activity_type, date");
+
+        // Reposiciona os geradores de id para que gravações feitas pela aplicação não colidam com a carga
+        jdbcTemplate.execute("ALTER TABLE users ALTER COLUMN id RESTART WITH " + (users + 1));
+        jdbcTemplate.execute("ALTER SEQUENCE health_activities_seq RESTART WITH " + (activityId + 1_000));
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    public static List<HealthActivity> activities(int count, long seed) {
+        User user = new User("Usuário Benchmark", "benchmark@email.com", "senha");
+        user.setId(1L);
+
+        Random random = new Random(seed);
+        List<HealthActivity> activities = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            HealthActivity activity = new HealthActivity(user, TYPES[random.nextInt(TYPES.length)],
+                    FIRST_DAY.plusDays(random.nextInt(DAYS)), random.nextDouble() * 100);
+            activity.setId((long) i + 1);
+            activities.add(activity);
+        }
+        return activities;
+    }
+
+    public static List<HealthActivityResponseDTO> responses(int count, long seed) {
+        Random random = new Random(seed);
+        LocalDateTime createdAt = LocalDateTime.of(2025, 11, 4, 21, 50);
+        List<HealthActivityResponseDTO> responses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            responses.add(new HealthActivityResponseDTO((long) i + 1, 1L, "Usuário Benchmark",
+                    TYPES[random.nextInt(TYPES.length)], FIRST_DAY.plusDays(random.nextInt(DAYS)),
+                    random.nextDouble() * 100, createdAt.plusSeconds(i)));
+        }
+        return responses;
+    }
+
+    private static void insertActivities(JdbcTemplate jdbcTemplate, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO health_activities (id, user_id, activity_type, date, activity_value, created_at)"
+                + " VALUES (?, ?, ?, ?, ?, CURRENT_TIMESTAMP)", rows);
+    }
+}
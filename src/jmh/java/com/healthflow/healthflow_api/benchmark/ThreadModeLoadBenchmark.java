@@ -0,0 +1,79 @@
+package com.healthflow.healthflow_api.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Carga concorrente contra o servidor real: threads de plataforma x threads virtuais com limite de conexões.
+// O modo SampleTime reporta os percentis (p0.99) da latência por requisição com 400 clientes simultâneos;
+// o pool do Tomcat fica pequeno de propósito para que a saturação do modo de plataforma apareça. Ao fim
+// de cada iteração, imprime o pico de requisições em processamento no servidor
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.SampleTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(400)
+@Fork(value = 1, jvmArgsAppend = "-Djdk.httpclient.connectionPoolSize=1000")
+public class ThreadModeLoadBenchmark {
+
+    private static final int USERS = 100;
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    private ConfigurableApplicationContext context;
+
+    private HttpClient httpClient;
+
+    private String baseUrl;
+
+    private final InFlightRequestFilter inFlight = new InFlightRequestFilter();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(WebApplicationType.SERVLET, List.of(inFlight),
+                "spring.threads.virtual.enabled=" + virtualThreads,
+                "server.tomcat.threads.max=50",
+                "server.tomcat.max-connections=2000",
+                "server.tomcat.accept-count=1000",
+                "healthflow.datasource.max-concurrency=10");
+        SyntheticData.load(context.getBean(JdbcTemplate.class), USERS, 500, 42);
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port;
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetPeak() {
+        inFlight.resetPeak();
+    }
+
+    @TearDown(Level.Iteration)
+    public void printPeak() {
+        System.out.printf("%npico de requisições em processamento: %d%n", inFlight.getPeak());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int listByUser() throws Exception {
+        long userId = 1 + ThreadLocalRandom.current().nextInt(USERS);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/activities/user/" + userId)).build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,80 @@
+package com.healthflow.healthflow_api.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthflow.healthflow_api.DTO.UserPageDTO;
+import com.healthflow.healthflow_api.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Listagem de usuários serializada em JSON com 10 mil, 100 mil e 1 milhão de usuários: a tabela
+// inteira como entidades (a listagem antiga) x uma página de 100 projetada no DTO, no início e no
+// meio da tabela, e a busca por prefixo do email. Rode com -prof gc: gc.alloc.rate.norm mostra os
+// bytes alocados por requisição, que na listagem completa crescem com a tabela
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class UserListingBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"10000", "100000", "1000000"})
+    private int users;
+
+    private ConfigurableApplicationContext context;
+
+    private UserService userService;
+
+    private ObjectMapper objectMapper;
+
+    private String middleCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(WebApplicationType.NONE);
+        SyntheticData.load(context.getBean(JdbcTemplate.class), users, 0, 42);
+        userService = context.getBean(UserService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+
+        // Cursor apontando para o meio da tabela (o último id da página anterior)
+        UserPageDTO beforeMiddle = userService.findPage(null, null, 1);
+        for (int skipped = 1; skipped < users / 2; skipped += 1000) {
+            beforeMiddle = userService.findPage(null, beforeMiddle.getNextCursor(), 1000);
+        }
+        middleCursor = beforeMiddle.getNextCursor();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] fullTableEntities() throws Exception {
+        return objectMapper.writeValueAsBytes(userService.findAll());
+    }
+
+    @Benchmark
+    public byte[] firstPage() throws Exception {
+        return objectMapper.writeValueAsBytes(userService.findPage(null, null, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public byte[] middlePage() throws Exception {
+        return objectMapper.writeValueAsBytes(userService.findPage(null, middleCursor, PAGE_SIZE));
+    }
+
+    // Prefixos de 3 dígitos ("usuario123"): de 11 usuários (10 mil) a 1.111 (1 milhão)
+    @Benchmark
+    public byte[] emailPrefix() throws Exception {
+        String prefix = "usuario" + (100 + ThreadLocalRandom.current().nextInt(900));
+        return objectMapper.writeValueAsBytes(userService.findPage(prefix, null, PAGE_SIZE));
+    }
+}
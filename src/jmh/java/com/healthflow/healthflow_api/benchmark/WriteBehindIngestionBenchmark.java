@@ -0,0 +1,89 @@
+package com.healthflow.healthflow_api.benchmark;
+
+import com.healthflow.healthflow_api.DTO.HealthActivityDTO;
+import com.healthflow.healthflow_api.service.ActivityWriteBehindService;
+import com.healthflow.healthflow_api.service.HealthActivityService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Atividades gravadas por segundo: save síncrono (um commit por atividade) x fila write-behind.
+// As amostras imitam um sensor: 10 usuários enviando várias leituras no mesmo dia, então cada commit
+// em grupo atualiza poucos agregados diários. O caminho assíncrono só conta uma invocação depois
+// que todas as atividades foram gravadas
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 3)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WriteBehindIngestionBenchmark {
+
+    private static final int ACTIVITIES_PER_INVOCATION = 2_000;
+
+    @Param({"100", "500"})
+    private int batchSize;
+
+    private ConfigurableApplicationContext context;
+
+    private HealthActivityService activityService;
+
+    private ActivityWriteBehindService writeBehindService;
+
+    private List<HealthActivityDTO> activities;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(WebApplicationType.NONE,
+                "healthflow.activities.write-behind.enabled=true",
+                "healthflow.activities.write-behind.batch-size=" + batchSize,
+                "healthflow.activities.write-behind.max-delay=50ms");
+        SyntheticData.load(context.getBean(JdbcTemplate.class), 10, 0, 42);
+        activityService = context.getBean(HealthActivityService.class);
+        writeBehindService = context.getBean(ActivityWriteBehindService.class);
+
+        Random random = new Random(42);
+        activities = new ArrayList<>(ACTIVITIES_PER_INVOCATION);
+        for (int i = 0; i < ACTIVITIES_PER_INVOCATION; i++) {
+            activities.add(new HealthActivityDTO(1L + random.nextInt(10),
+                    SyntheticData.TYPES[random.nextInt(SyntheticData.TYPES.length)],
+                    SyntheticData.FIRST_DAY,
+                    random.nextDouble() * 100));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ACTIVITIES_PER_INVOCATION)
+    public void synchronousSave(Blackhole blackhole) {
+        for (HealthActivityDTO activityDTO : activities) {
+            blackhole.consume(activityService.save(activityDTO));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ACTIVITIES_PER_INVOCATION)
+    public long writeBehind() {
+        long target = writeBehindService.getWrittenCount() + ACTIVITIES_PER_INVOCATION;
+        for (HealthActivityDTO activityDTO : activities) {
+            while (!writeBehindService.enqueue(activityDTO)) {
+                Thread.onSpinWait();
+            }
+        }
+        while (writeBehindService.getWrittenCount() < target) {
+            Thread.onSpinWait();
+        }
+        return target;
+    }
+}
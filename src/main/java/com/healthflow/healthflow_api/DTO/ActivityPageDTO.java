@@ -0,0 +1,35 @@
+package com.healthflow.healthflow_api.DTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Página de atividades paginada por cursor (data, id)")
+public class ActivityPageDTO {
+
+    @Schema(description = "Atividades da página, ordenadas por data e id")
+    private List<HealthActivityResponseDTO> items;
+
+    @Schema(description = "Cursor para a próxima página; nulo quando não há mais registros", example = "MjAyNS0xMS0wNHw0Mg")
+    private String nextCursor;
+
+    @Schema(description = "Tamanho de página utilizado", example = "100")
+    private int size;
+
+    public ActivityPageDTO() {}
+
+    public ActivityPageDTO(List<HealthActivityResponseDTO> items, String nextCursor, int size) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.size = size;
+    }
+
+    public List<HealthActivityResponseDTO> getItems() { return items; }
+    public void setItems(List<HealthActivityResponseDTO> items) { this.items = items; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+}
@@ -0,0 +1,28 @@
+package com.healthflow.healthflow_api.DTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Schema(description = "Série temporal de um tipo de atividade")
+public class ActivitySeriesDTO {
+
+    @Schema(description = "Tipo de atividade", example = "WALKING")
+    private String activityType;
+
+    @Schema(description = "Intervalos com atividade, em ordem cronológica (intervalos sem atividade são omitidos)")
+    private List<SeriesBucketDTO> buckets = new ArrayList<>();
+
+    public ActivitySeriesDTO() {}
+
+    public ActivitySeriesDTO(String activityType) {
+        this.activityType = activityType;
+    }
+
+    public String getActivityType() { return activityType; }
+    public void setActivityType(String activityType) { this.activityType = activityType; }
+
+    public List<SeriesBucketDTO> getBuckets() { return buckets; }
+    public void setBuckets(List<SeriesBucketDTO> buckets) { this.buckets = buckets; }
+}
@@ -0,0 +1,49 @@
+package com.healthflow.healthflow_api.DTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Resultado individual de um item do lote de atividades")
+public class BatchItemResultDTO {
+
+    @Schema(description = "Posição do item no lote enviado", example = "0")
+    private int index;
+
+    @Schema(description = "Indica se o item foi gravado", example = "true")
+    private boolean success;
+
+    @Schema(description = "Atividade gravada (quando o item foi aceito)")
+    private HealthActivityResponseDTO activity;
+
+    @Schema(description = "Motivo da rejeição (quando o item foi recusado)", example = "Usuário não encontrado")
+    private String error;
+
+    public BatchItemResultDTO() {}
+
+    public static BatchItemResultDTO success(int index, HealthActivityResponseDTO activity) {
+        BatchItemResultDTO result = new BatchItemResultDTO();
+        result.index = index;
+        result.success = true;
+        result.activity = activity;
+        return result;
+    }
+
+    public static BatchItemResultDTO failure(int index, String error) {
+        BatchItemResultDTO result = new BatchItemResultDTO();
+        result.index = index;
+        result.success = false;
+        result.error = error;
+        return result;
+    }
+
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+
+    public boolean isSuccess() { return success; }
+    public void setSuccess(boolean success) { this.success = success; }
+
+    public HealthActivityResponseDTO getActivity() { return activity; }
+    public void setActivity(HealthActivityResponseDTO activity) { this.activity = activity; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
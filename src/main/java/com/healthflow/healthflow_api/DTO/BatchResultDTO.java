@@ -0,0 +1,42 @@
+package com.healthflow.healthflow_api.DTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "DTO para resposta do envio de atividades em lote")
+public class BatchResultDTO {
+
+    @Schema(description = "Quantidade de itens recebidos", example = "100")
+    private int received;
+
+    @Schema(description = "Quantidade de itens gravados", example = "98")
+    private int saved;
+
+    @Schema(description = "Quantidade de itens rejeitados", example = "2")
+    private int rejected;
+
+    @Schema(description = "Resultado de cada item, na ordem de envio")
+    private List<BatchItemResultDTO> items;
+
+    public BatchResultDTO() {}
+
+    public BatchResultDTO(List<BatchItemResultDTO> items) {
+        this.items = items;
+        this.received = items.size();
+        this.saved = (int) items.stream().filter(BatchItemResultDTO::isSuccess).count();
+        this.rejected = this.received - this.saved;
+    }
+
+    public int getReceived() { return received; }
+    public void setReceived(int received) { this.received = received; }
+
+    public int getSaved() { return saved; }
+    public void setSaved(int saved) { this.saved = saved; }
+
+    public int getRejected() { return rejected; }
+    public void setRejected(int rejected) { this.rejected = rejected; }
+
+    public List<BatchItemResultDTO> getItems() { return items; }
+    public void setItems(List<BatchItemResultDTO> items) { this.items = items; }
+}
@@ -0,0 +1,54 @@
+package com.healthflow.healthflow_api.DTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Métricas de um cache da aplicação")
+public class CacheStatisticsDTO {
+
+    @Schema(description = "Nome do cache", example = "users")
+    private String name;
+
+    @Schema(description = "Quantidade aproximada de entradas", example = "120")
+    private long size;
+
+    @Schema(description = "Leituras atendidas pelo cache", example = "950")
+    private long hitCount;
+
+    @Schema(description = "Leituras que precisaram ir ao banco", example = "50")
+    private long missCount;
+
+    @Schema(description = "Proporção de acertos", example = "0.95")
+    private double hitRate;
+
+    @Schema(description = "Entradas removidas por tamanho ou expiração", example = "3")
+    private long evictionCount;
+
+    public CacheStatisticsDTO() {}
+
+    public CacheStatisticsDTO(String name, long size, long hitCount, long missCount, double hitRate, long evictionCount) {
+        this.name = name;
+        this.size = size;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.hitRate = hitRate;
+        this.evictionCount = evictionCount;
+    }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public long getSize() { return size; }
+    public void setSize(long size) { this.size = size; }
+
+    public long getHitCount() { return hitCount; }
+    public void setHitCount(long hitCount) { this.hitCount = hitCount; }
+
+    public long getMissCount() { return missCount; }
+    public void setMissCount(long missCount) { this.missCount = missCount; }
+
+    public double getHitRate() { return hitRate; }
+    public void setHitRate(double hitRate) { this.hitRate = hitRate; }
+
+    public long getEvictionCount() { return evictionCount; }
+    public void setEvictionCount(long evictionCount) { this.evictionCount = evictionCount; }
+}
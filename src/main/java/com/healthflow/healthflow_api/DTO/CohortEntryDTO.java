@@ -0,0 +1,33 @@
+package com.healthflow.healthflow_api.DTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Posição de um usuário no ranking da coorte")
+public class CohortEntryDTO {
+
+    @Schema(description = "ID do usuário", example = "1")
+    private long userId;
+
+    @Schema(description = "Soma dos valores do usuário no período", example = "320.5")
+    private double totalValue;
+
+    @Schema(description = "Quantidade de atividades do usuário no período", example = "12")
+    private long activityCount;
+
+    public CohortEntryDTO() {}
+
+    public CohortEntryDTO(long userId, double totalValue, long activityCount) {
+        this.userId = userId;
+        this.totalValue = totalValue;
+        this.activityCount = activityCount;
+    }
+
+    public long getUserId() { return userId; }
+    public void setUserId(long userId) { this.userId = userId; }
+
+    public double getTotalValue() { return totalValue; }
+    public void setTotalValue(double totalValue) { this.totalValue = totalValue; }
+
+    public long getActivityCount() { return activityCount; }
+    public void setActivityCount(long activityCount) { this.activityCount = activityCount; }
+}
@@ -0,0 +1,58 @@
+package com.healthflow.healthflow_api.DTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Schema(description = "Estatísticas de um tipo de atividade em toda a base de usuários")
+public class CohortStatisticsDTO {
+
+    @Schema(description = "Tipo de atividade", example = "WALKING")
+    private String activityType;
+
+    @Schema(description = "Usuários com ao menos uma atividade do tipo no período", example = "850")
+    private long users;
+
+    @Schema(description = "Quantidade total de atividades", example = "10200")
+    private long activityCount;
+
+    @Schema(description = "Soma dos valores de todos os usuários", example = "272400.0")
+    private double totalValue;
+
+    @Schema(description = "Média por usuário (soma / usuários)", example = "320.5")
+    private double averagePerUser;
+
+    @Schema(description = "Usuários com maior soma no período, em ordem decrescente")
+    private List<CohortEntryDTO> top = new ArrayList<>();
+
+    public CohortStatisticsDTO() {}
+
+    public CohortStatisticsDTO(String activityType, long users, long activityCount, double totalValue,
+                               List<CohortEntryDTO> top) {
+        this.activityType = activityType;
+        this.users = users;
+        this.activityCount = activityCount;
+        this.totalValue = totalValue;
+        this.averagePerUser = users == 0 ? 0 : totalValue / users;
+        this.top = top;
+    }
+
+    public String getActivityType() { return activityType; }
+    public void setActivityType(String activityType) { this.activityType = activityType; }
+
+    public long getUsers() { return users; }
+    public void setUsers(long users) { this.users = users; }
+
+    public long getActivityCount() { return activityCount; }
+    public void setActivityCount(long activityCount) { this.activityCount = activityCount; }
+
+    public double getTotalValue() { return totalValue; }
+    public void setTotalValue(double totalValue) { this.totalValue = totalValue; }
+
+    public double getAveragePerUser() { return averagePerUser; }
+    public void setAveragePerUser(double averagePerUser) { this.averagePerUser = averagePerUser; }
+
+    public List<CohortEntryDTO> getTop() { return top; }
+    public void setTop(List<CohortEntryDTO> top) { this.top = top; }
+}
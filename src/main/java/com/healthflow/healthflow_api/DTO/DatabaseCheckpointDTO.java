@@ -0,0 +1,33 @@
+package com.healthflow.healthflow_api.DTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Resultado de um checkpoint do banco de dados")
+public class DatabaseCheckpointDTO {
+
+    @Schema(description = "Tamanho do arquivo do banco antes do checkpoint, em bytes; nulo para banco em memória", example = "104857600")
+    private Long fileSizeBefore;
+
+    @Schema(description = "Tamanho do arquivo do banco após o checkpoint, em bytes; nulo para banco em memória", example = "98566144")
+    private Long fileSizeAfter;
+
+    @Schema(description = "Duração do checkpoint em milissegundos", example = "35")
+    private long durationMillis;
+
+    public DatabaseCheckpointDTO() {}
+
+    public DatabaseCheckpointDTO(Long fileSizeBefore, Long fileSizeAfter, long durationMillis) {
+        this.fileSizeBefore = fileSizeBefore;
+        this.fileSizeAfter = fileSizeAfter;
+        this.durationMillis = durationMillis;
+    }
+
+    public Long getFileSizeBefore() { return fileSizeBefore; }
+    public void setFileSizeBefore(Long fileSizeBefore) { this.fileSizeBefore = fileSizeBefore; }
+
+    public Long getFileSizeAfter() { return fileSizeAfter; }
+    public void setFileSizeAfter(Long fileSizeAfter) { this.fileSizeAfter = fileSizeAfter; }
+
+    public long getDurationMillis() { return durationMillis; }
+    public void setDurationMillis(long durationMillis) { this.durationMillis = durationMillis; }
+}
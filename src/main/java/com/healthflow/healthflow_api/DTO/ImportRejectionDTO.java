@@ -0,0 +1,26 @@
+package com.healthflow.healthflow_api.DTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Linha rejeitada durante a importação")
+public class ImportRejectionDTO {
+
+    @Schema(description = "Número da linha no arquivo enviado", example = "42")
+    private long line;
+
+    @Schema(description = "Motivo da rejeição", example = "Usuário não encontrado")
+    private String error;
+
+    public ImportRejectionDTO() {}
+
+    public ImportRejectionDTO(long line, String error) {
+        this.line = line;
+        this.error = error;
+    }
+
+    public long getLine() { return line; }
+    public void setLine(long line) { this.line = line; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
@@ -0,0 +1,60 @@
+package com.healthflow.healthflow_api.DTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Schema(description = "Relatório de uma importação de atividades")
+public class ImportReportDTO {
+
+    @Schema(description = "Indica se o arquivo foi processado até o fim", example = "true")
+    private boolean completed;
+
+    @Schema(description = "Linhas lidas nesta requisição (sem contar as puladas pelo offset)", example = "100000")
+    private long linesRead;
+
+    @Schema(description = "Atividades gravadas", example = "99990")
+    private long imported;
+
+    @Schema(description = "Linhas rejeitadas", example = "10")
+    private long rejected;
+
+    @Schema(description = "Taxa de gravação em linhas por segundo", example = "25000.0")
+    private double rowsPerSecond;
+
+    @Schema(description = "Offset para retomar a importação (linhas já processadas e confirmadas)", example = "100000")
+    private long resumeOffset;
+
+    @Schema(description = "Erro que interrompeu a importação, se houver")
+    private String error;
+
+    @Schema(description = "Primeiras linhas rejeitadas, com o motivo")
+    private List<ImportRejectionDTO> rejections = new ArrayList<>();
+
+    public ImportReportDTO() {}
+
+    public boolean isCompleted() { return completed; }
+    public void setCompleted(boolean completed) { this.completed = completed; }
+
+    public long getLinesRead() { return linesRead; }
+    public void setLinesRead(long linesRead) { this.linesRead = linesRead; }
+
+    public long getImported() { return imported; }
+    public void setImported(long imported) { this.imported = imported; }
+
+    public long getRejected() { return rejected; }
+    public void setRejected(long rejected) { this.rejected = rejected; }
+
+    public double getRowsPerSecond() { return rowsPerSecond; }
+    public void setRowsPerSecond(double rowsPerSecond) { this.rowsPerSecond = rowsPerSecond; }
+
+    public long getResumeOffset() { return resumeOffset; }
+    public void setResumeOffset(long resumeOffset) { this.resumeOffset = resumeOffset; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public List<ImportRejectionDTO> getRejections() { return rejections; }
+    public void setRejections(List<ImportRejectionDTO> rejections) { this.rejections = rejections; }
+}
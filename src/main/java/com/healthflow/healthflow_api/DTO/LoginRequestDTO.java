@@ -0,0 +1,29 @@
+package com.healthflow.healthflow_api.DTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+
+@Schema(description = "Credenciais para login")
+public class LoginRequestDTO {
+
+    @Schema(description = "Email do usuário", example = "joao@email.com")
+    @NotBlank(message = "Email é obrigatório")
+    private String email;
+
+    @Schema(description = "Senha do usuário", example = "senha123")
+    @NotBlank(message = "Senha é obrigatória")
+    private String password;
+
+    public LoginRequestDTO() {}
+
+    public LoginRequestDTO(String email, String password) {
+        this.email = email;
+        this.password = password;
+    }
+
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+
+    public String getPassword() { return password; }
+    public void setPassword(String password) { this.password = password; }
+}
@@ -0,0 +1,70 @@
+package com.healthflow.healthflow_api.DTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+
+@Schema(description = "Agregado de um intervalo (dia, semana ou mês) da série temporal")
+public class SeriesBucketDTO {
+
+    @Schema(description = "Primeiro dia do intervalo", example = "2025-11-03")
+    private LocalDate start;
+
+    @Schema(description = "Quantidade de atividades", example = "7")
+    private long count;
+
+    @Schema(description = "Soma dos valores", example = "210.0")
+    private double sum;
+
+    @Schema(description = "Média dos valores", example = "30.0")
+    private double avg;
+
+    @Schema(description = "Menor valor", example = "15.0")
+    private double min;
+
+    @Schema(description = "Maior valor", example = "45.0")
+    private double max;
+
+    @Schema(description = "Mediana aproximada (P²)", example = "30.0")
+    private double p50;
+
+    @Schema(description = "Percentil 95 aproximado (P²)", example = "44.0")
+    private double p95;
+
+    public SeriesBucketDTO() {}
+
+    public SeriesBucketDTO(LocalDate start, long count, double sum, double min, double max, double p50, double p95) {
+        this.start = start;
+        this.count = count;
+        this.sum = sum;
+        this.avg = sum / count;
+        this.min = min;
+        this.max = max;
+        this.p50 = p50;
+        this.p95 = p95;
+    }
+
+    public LocalDate getStart() { return start; }
+    public void setStart(LocalDate start) { this.start = start; }
+
+    public long getCount() { return count; }
+    public void setCount(long count) { this.count = count; }
+
+    public double getSum() { return sum; }
+    public void setSum(double sum) { this.sum = sum; }
+
+    public double getAvg() { return avg; }
+    public void setAvg(double avg) { this.avg = avg; }
+
+    public double getMin() { return min; }
+    public void setMin(double min) { this.min = min; }
+
+    public double getMax() { return max; }
+    public void setMax(double max) { this.max = max; }
+
+    public double getP50() { return p50; }
+    public void setP50(double p50) { this.p50 = p50; }
+
+    public double getP95() { return p95; }
+    public void setP95(double p95) { this.p95 = p95; }
+}
@@ -0,0 +1,33 @@
+package com.healthflow.healthflow_api.DTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Quantidade de dados em um shard")
+public class ShardStatusDTO {
+
+    @Schema(description = "Índice do shard (0 é o banco de spring.datasource.url)", example = "1")
+    private int shard;
+
+    @Schema(description = "Usuários gravados no shard", example = "5000")
+    private long users;
+
+    @Schema(description = "Atividades gravadas no shard", example = "1200000")
+    private long activities;
+
+    public ShardStatusDTO() {}
+
+    public ShardStatusDTO(int shard, long users, long activities) {
+        this.shard = shard;
+        this.users = users;
+        this.activities = activities;
+    }
+
+    public int getShard() { return shard; }
+    public void setShard(int shard) { this.shard = shard; }
+
+    public long getUsers() { return users; }
+    public void setUsers(long users) { this.users = users; }
+
+    public long getActivities() { return activities; }
+    public void setActivities(long activities) { this.activities = activities; }
+}
@@ -0,0 +1,49 @@
+package com.healthflow.healthflow_api.DTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+
+@Schema(description = "Variação das estatísticas de um usuário causada por uma gravação ou exclusão")
+public class StatisticsDeltaDTO {
+
+    @Schema(description = "ID do usuário", example = "1")
+    private long userId;
+
+    @Schema(description = "Tipo de atividade", example = "WALKING")
+    private String activityType;
+
+    @Schema(description = "Dia afetado", example = "2025-11-04")
+    private LocalDate date;
+
+    @Schema(description = "Variação na quantidade de atividades (negativa em exclusões)", example = "1")
+    private long activityCount;
+
+    @Schema(description = "Variação na soma dos valores (negativa em exclusões)", example = "30.0")
+    private double totalValue;
+
+    public StatisticsDeltaDTO() {}
+
+    public StatisticsDeltaDTO(long userId, String activityType, LocalDate date, long activityCount, double totalValue) {
+        this.userId = userId;
+        this.activityType = activityType;
+        this.date = date;
+        this.activityCount = activityCount;
+        this.totalValue = totalValue;
+    }
+
+    public long getUserId() { return userId; }
+    public void setUserId(long userId) { this.userId = userId; }
+
+    public String getActivityType() { return activityType; }
+    public void setActivityType(String activityType) { this.activityType = activityType; }
+
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+
+    public long getActivityCount() { return activityCount; }
+    public void setActivityCount(long activityCount) { this.activityCount = activityCount; }
+
+    public double getTotalValue() { return totalValue; }
+    public void setTotalValue(double totalValue) { this.totalValue = totalValue; }
+}
@@ -0,0 +1,35 @@
+package com.healthflow.healthflow_api.DTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Página de usuários paginada por cursor (id, ou email na busca por prefixo)")
+public class UserPageDTO {
+
+    @Schema(description = "Usuários da página, ordenados por id (ou por email na busca por prefixo)")
+    private List<UserResponseDTO> items;
+
+    @Schema(description = "Cursor para a próxima página; nulo quando não há mais registros", example = "NDI")
+    private String nextCursor;
+
+    @Schema(description = "Tamanho de página utilizado", example = "100")
+    private int size;
+
+    public UserPageDTO() {}
+
+    public UserPageDTO(List<UserResponseDTO> items, String nextCursor, int size) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.size = size;
+    }
+
+    public List<UserResponseDTO> getItems() { return items; }
+    public void setItems(List<UserResponseDTO> items) { this.items = items; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+}
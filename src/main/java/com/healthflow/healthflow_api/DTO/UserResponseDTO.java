@@ -0,0 +1,33 @@
+package com.healthflow.healthflow_api.DTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Usuário retornado pela API (sem senha e sem datas de controle)")
+public class UserResponseDTO {
+
+    @Schema(description = "ID do usuário", example = "1")
+    private Long id;
+
+    @Schema(description = "Nome do usuário", example = "João Silva")
+    private String name;
+
+    @Schema(description = "Email do usuário", example = "joao@email.com")
+    private String email;
+
+    public UserResponseDTO() {}
+
+    public UserResponseDTO(Long id, String name, String email) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+}
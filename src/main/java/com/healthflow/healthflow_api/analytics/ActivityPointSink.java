@@ -0,0 +1,8 @@
+package com.healthflow.healthflow_api.analytics;
+
+// Recebe as atividades de uma varredura, uma a uma, sem objetos intermediários por linha
+@FunctionalInterface
+public interface ActivityPointSink {
+
+    void accept(String activityType, int epochDay, double activityValue);
+}
@@ -0,0 +1,47 @@
+package com.healthflow.healthflow_api.analytics;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Codifica cada tipo de atividade como um short; as colunas guardam só o código
+final class ActivityTypeDictionary {
+
+    private final ConcurrentHashMap<String, Short> codes = new ConcurrentHashMap<>();
+    private volatile String[] names = new String[0];
+
+    short encode(String activityType) {
+        Short code = codes.get(activityType);
+        return code != null ? code : register(activityType);
+    }
+
+    String decode(short code) {
+        return names[code];
+    }
+
+    // Código do tipo, ou -1 se ele nunca foi visto (nenhuma linha pode ter esse tipo)
+    int find(String activityType) {
+        Short code = codes.get(activityType);
+        return code != null ? code : -1;
+    }
+
+    int size() {
+        return names.length;
+    }
+
+    private synchronized short register(String activityType) {
+        Short existing = codes.get(activityType);
+        if (existing != null) {
+            return existing;
+        }
+        if (names.length > Short.MAX_VALUE) {
+            throw new IllegalStateException("Limite de tipos de atividade excedido");
+        }
+
+        short code = (short) names.length;
+        String[] grown = Arrays.copyOf(names, names.length + 1);
+        grown[code] = activityType;
+        names = grown;
+        codes.put(activityType, code);
+        return code;
+    }
+}
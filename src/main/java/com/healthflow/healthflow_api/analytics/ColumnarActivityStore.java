@@ -0,0 +1,161 @@
+package com.healthflow.healthflow_api.analytics;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.healthflow.healthflow_api.DTO.HealthActivityResponseDTO;
+import com.healthflow.healthflow_api.event.ActivityChangeEvent;
+import com.healthflow.healthflow_api.repository.ActivityPoint;
+import com.healthflow.healthflow_api.repository.HealthActivityRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Espelho opcional de health_activities em colunas primitivas por usuário, carregado sob
+// demanda e mantido em sincronia pelos eventos de gravação e exclusão
+@Component
+@ConditionalOnProperty(name = "healthflow.analytics.columnar-store.enabled", havingValue = "true")
+public class ColumnarActivityStore {
+
+    private final ActivityTypeDictionary dictionary = new ActivityTypeDictionary();
+
+    private final Cache<Long, UserActivityColumns> segments;
+
+    @Autowired
+    private HealthActivityRepository activityRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // O limite é em linhas; cada segmento é pesado novamente a cada alteração
+    public ColumnarActivityStore(@Value("${healthflow.analytics.columnar-store.max-rows:20000000}") long maxRows,
+                                 MeterRegistry registry) {
+        this.segments = Caffeine.newBuilder()
+                .maximumWeight(maxRows)
+                .<Long, UserActivityColumns>weigher((userId, columns) -> Math.max(columns.size(), 1))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, segments, "columnarActivityStore");
+        Gauge.builder("healthflow.columnar.rows", this, ColumnarActivityStore::rowCount)
+                .description("Linhas mantidas no armazenamento colunar")
+                .register(registry);
+    }
+
+    // Soma e média por tipo a partir de startDate, no mesmo formato de findStatisticsByUser
+    public List<Object[]> statistics(Long userId, LocalDate startDate) {
+        UserActivityColumns columns = segment(userId);
+        int types = dictionary.size();
+        double[] sums = new double[types];
+        long[] counts = new long[types];
+
+        for (int i = columns.lowerBound((int) startDate.toEpochDay()); i < columns.size(); i++) {
+            short code = columns.typeCodes[i];
+            sums[code] += columns.values[i];
+            counts[code]++;
+        }
+
+        List<Object[]> statistics = new ArrayList<>();
+        for (short code = 0; code < types; code++) {
+            if (counts[code] > 0) {
+                statistics.add(new Object[]{dictionary.decode(code), sums[code], sums[code] / counts[code]});
+            }
+        }
+        return statistics;
+    }
+
+    // Entrega as linhas de [from, to] em ordem de dia; type nulo inclui todos os tipos
+    public void scan(Long userId, String type, LocalDate from, LocalDate to, ActivityPointSink sink) {
+        int typeFilter = type == null ? -1 : dictionary.find(type);
+        if (type != null && typeFilter < 0) {
+            return;
+        }
+
+        UserActivityColumns columns = segment(userId);
+        int lastDay = (int) to.toEpochDay();
+        for (int i = columns.lowerBound((int) from.toEpochDay()); i < columns.size() && columns.epochDays[i] <= lastDay; i++) {
+            short code = columns.typeCodes[i];
+            if (typeFilter < 0 || code == typeFilter) {
+                sink.accept(dictionary.decode(code), columns.epochDays[i], columns.values[i]);
+            }
+        }
+    }
+
+    public long rowCount() {
+        return segments.asMap().values().stream().mapToLong(UserActivityColumns::size).sum();
+    }
+
+    public long estimatedBytes() {
+        return rowCount() * UserActivityColumns.BYTES_PER_ROW;
+    }
+
+    // Descarta os segmentos carregados; serão relidos do banco no próximo acesso
+    public void clear() {
+        segments.invalidateAll();
+    }
+
+    // Só altera segmentos já carregados; os demais serão lidos do banco, já com a alteração.
+    // computeIfPresent espera uma carga em andamento do mesmo usuário terminar.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onActivityChange(ActivityChangeEvent event) {
+        Map<Long, List<HealthActivityResponseDTO>> byUser = event.activities().stream()
+                .collect(Collectors.groupingBy(HealthActivityResponseDTO::getUserId));
+
+        byUser.forEach((userId, activities) -> segments.asMap().computeIfPresent(userId, (id, columns) ->
+                event.kind() == ActivityChangeEvent.Kind.CREATED
+                        ? columns.withInserted(toRows(activities))
+                        : columns.withRemoved(ids(activities))));
+    }
+
+    private UserActivityColumns segment(Long userId) {
+        return segments.get(userId, this::load);
+    }
+
+    // Lido do primário mesmo com réplica de leitura (transação de escrita própria, fora de uma
+    // eventual transação somente leitura de quem chamou): o segmento passa a ser mantido pelos
+    // eventos, e uma escrita ainda não replicada ficaria fora dele
+    private UserActivityColumns load(Long userId) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return transactionTemplate.execute(status -> {
+            UserActivityColumns.Builder builder = new UserActivityColumns.Builder(256);
+            try (Stream<ActivityPoint> points = activityRepository.streamPointsByUser(userId)) {
+                points.forEach(point -> builder.add(point.id(), (int) point.date().toEpochDay(),
+                        dictionary.encode(point.activityType()), point.activityValue()));
+            }
+            return builder.build();
+        });
+    }
+
+    private UserActivityColumns.Builder toRows(List<HealthActivityResponseDTO> activities) {
+        UserActivityColumns.Builder rows = new UserActivityColumns.Builder(activities.size());
+        for (HealthActivityResponseDTO activity : activities) {
+            rows.add(activity.getId(), (int) activity.getDate().toEpochDay(),
+                    dictionary.encode(activity.getActivityType()), activity.getActivityValue());
+        }
+        return rows.sorted();
+    }
+
+    private Set<Long> ids(List<HealthActivityResponseDTO> activities) {
+        Set<Long> ids = new HashSet<>(activities.size());
+        for (HealthActivityResponseDTO activity : activities) {
+            ids.add(activity.getId());
+        }
+        return ids;
+    }
+}
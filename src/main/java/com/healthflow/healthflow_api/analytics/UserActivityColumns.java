@@ -0,0 +1,139 @@
+package com.healthflow.healthflow_api.analytics;
+
+import java.util.Arrays;
+import java.util.Set;
+
+// Segmento imutável com as atividades de um usuário em colunas primitivas, ordenadas por
+// (dia, id). Alterações geram um novo segmento, então as leituras não precisam de trava.
+final class UserActivityColumns {
+
+    // Bytes por linha: id (8) + dia (4) + código do tipo (2) + valor (8)
+    static final int BYTES_PER_ROW = 22;
+
+    final long[] ids;
+    final int[] epochDays;
+    final short[] typeCodes;
+    final double[] values;
+
+    UserActivityColumns(long[] ids, int[] epochDays, short[] typeCodes, double[] values) {
+        this.ids = ids;
+        this.epochDays = epochDays;
+        this.typeCodes = typeCodes;
+        this.values = values;
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    // Primeira posição com dia >= epochDay
+    int lowerBound(int epochDay) {
+        int low = 0;
+        int high = epochDays.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (epochDays[mid] < epochDay) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    boolean contains(long id, int epochDay) {
+        for (int i = lowerBound(epochDay); i < epochDays.length && epochDays[i] == epochDay; i++) {
+            if (ids[i] == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Intercala as linhas novas (já ordenadas por dia e id) com as existentes;
+    // ids já presentes são ignorados, o que torna a sincronização idempotente
+    UserActivityColumns withInserted(Builder rows) {
+        Builder merged = new Builder(size() + rows.size);
+        int i = 0;
+        int j = 0;
+        while (i < size() || j < rows.size) {
+            boolean takeExisting = j == rows.size
+                    || (i < size() && (epochDays[i] < rows.epochDays[j]
+                    || (epochDays[i] == rows.epochDays[j] && ids[i] <= rows.ids[j])));
+            if (takeExisting) {
+                merged.add(ids[i], epochDays[i], typeCodes[i], values[i]);
+                i++;
+            } else {
+                if (!contains(rows.ids[j], rows.epochDays[j])) {
+                    merged.add(rows.ids[j], rows.epochDays[j], rows.typeCodes[j], rows.values[j]);
+                }
+                j++;
+            }
+        }
+        return merged.build();
+    }
+
+    UserActivityColumns withRemoved(Set<Long> removedIds) {
+        Builder kept = new Builder(size());
+        for (int i = 0; i < size(); i++) {
+            if (!removedIds.contains(ids[i])) {
+                kept.add(ids[i], epochDays[i], typeCodes[i], values[i]);
+            }
+        }
+        return kept.size == size() ? this : kept.build();
+    }
+
+    // Acumula as linhas em arrays que crescem conforme necessário
+    static final class Builder {
+        private long[] ids;
+        private int[] epochDays;
+        private short[] typeCodes;
+        private double[] values;
+        private int size;
+
+        Builder(int capacity) {
+            int initial = Math.max(capacity, 16);
+            ids = new long[initial];
+            epochDays = new int[initial];
+            typeCodes = new short[initial];
+            values = new double[initial];
+        }
+
+        void add(long id, int epochDay, short typeCode, double value) {
+            if (size == ids.length) {
+                int grown = size + (size >> 1);
+                ids = Arrays.copyOf(ids, grown);
+                epochDays = Arrays.copyOf(epochDays, grown);
+                typeCodes = Arrays.copyOf(typeCodes, grown);
+                values = Arrays.copyOf(values, grown);
+            }
+            ids[size] = id;
+            epochDays[size] = epochDay;
+            typeCodes[size] = typeCode;
+            values[size] = value;
+            size++;
+        }
+
+        // Ordena por (dia, id) linhas recebidas fora de ordem, como as de um lote
+        Builder sorted() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> epochDays[a] != epochDays[b]
+                    ? Integer.compare(epochDays[a], epochDays[b])
+                    : Long.compare(ids[a], ids[b]));
+
+            Builder sorted = new Builder(size);
+            for (int index : order) {
+                sorted.add(ids[index], epochDays[index], typeCodes[index], values[index]);
+            }
+            return sorted;
+        }
+
+        UserActivityColumns build() {
+            return new UserActivityColumns(Arrays.copyOf(ids, size), Arrays.copyOf(epochDays, size),
+                    Arrays.copyOf(typeCodes, size), Arrays.copyOf(values, size));
+        }
+    }
+}
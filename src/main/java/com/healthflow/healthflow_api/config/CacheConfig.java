@@ -0,0 +1,63 @@
+package com.healthflow.healthflow_api.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String USERS = "users";
+    public static final String USERS_BY_EMAIL = "usersByEmail";
+    public static final String ACTIVITY_STATISTICS = "activityStatistics";
+    public static final String IDEMPOTENCY_KEYS = "idempotencyKeys";
+    public static final String USER_VERSIONS = "userVersions";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${healthflow.cache.users.max-size:10000}") long usersMaxSize,
+            @Value("${healthflow.cache.users.ttl:10m}") Duration usersTtl,
+            @Value("${healthflow.cache.statistics.max-size:10000}") long statisticsMaxSize,
+            @Value("${healthflow.cache.statistics.ttl:5m}") Duration statisticsTtl,
+            @Value("${healthflow.cache.idempotency-keys.max-size:50000}") long idempotencyKeysMaxSize,
+            @Value("${healthflow.cache.idempotency-keys.ttl:1h}") Duration idempotencyKeysTtl,
+            @Value("${healthflow.cache.user-versions.max-size:100000}") long userVersionsMaxSize) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(USERS, Caffeine.newBuilder()
+                .maximumSize(usersMaxSize)
+                .expireAfterWrite(usersTtl)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(USERS_BY_EMAIL, Caffeine.newBuilder()
+                .maximumSize(usersMaxSize)
+                .expireAfterWrite(usersTtl)
+                .recordStats()
+                .build());
+        // Uma entrada por usuário, com as estatísticas de cada startDate consultada
+        cacheManager.registerCustomCache(ACTIVITY_STATISTICS, Caffeine.newBuilder()
+                .maximumSize(statisticsMaxSize)
+                .expireAfterWrite(statisticsTtl)
+                .recordStats()
+                .build());
+        // Respostas das últimas escritas com Idempotency-Key; o banco continua sendo a fonte de verdade
+        cacheManager.registerCustomCache(IDEMPOTENCY_KEYS, Caffeine.newBuilder()
+                .maximumSize(idempotencyKeysMaxSize)
+                .expireAfterWrite(idempotencyKeysTtl)
+                .recordStats()
+                .build());
+        // Versão atual de cada usuário para os ETags; sem expiração, pois uma entrada removida
+        // só custa uma resposta 200 a mais
+        cacheManager.registerCustomCache(USER_VERSIONS, Caffeine.newBuilder()
+                .maximumSize(userVersionsMaxSize)
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+}
@@ -0,0 +1,36 @@
+package com.healthflow.healthflow_api.config;
+
+import com.healthflow.healthflow_api.datasource.BoundedDataSource;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class MetricsConfig {
+
+    // Habilita @Timed nos serviços (métrica healthflow.service, com as tags class e method)
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    // Ocupação do limitador de conexões, quando ativo (o pool Hikari já publica hikaricp.connections.*)
+    @Bean
+    public MeterBinder boundedDataSourceMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof BoundedDataSource bounded) {
+                Gauge.builder("healthflow.datasource.permits.available", bounded, BoundedDataSource::getAvailablePermits)
+                        .description("Conexões ainda disponíveis no limitador")
+                        .register(registry);
+                Gauge.builder("healthflow.datasource.permits.waiting", bounded, BoundedDataSource::getQueueLength)
+                        .description("Threads aguardando uma conexão no limitador")
+                        .register(registry);
+            }
+        };
+    }
+}
@@ -0,0 +1,100 @@
+package com.healthflow.healthflow_api.config;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.healthflow.healthflow_api.ratelimit.RateLimit;
+import com.healthflow.healthflow_api.ratelimit.RateLimitBudget;
+import com.healthflow.healthflow_api.ratelimit.RateLimitInterceptor;
+import com.healthflow.healthflow_api.ratelimit.RateLimited;
+import com.healthflow.healthflow_api.ratelimit.RateLimiter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+import org.springdoc.core.customizers.OperationCustomizer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Limite de taxa em processo nas rotas de atividades e usuários. Cada orçamento (writes e
+// expensive-reads) tem limites próprios por usuário, por cliente e global, lidos de
+// healthflow.rate-limit.<orçamento>.<escopo>.per-second e .burst
+@Configuration
+@ConditionalOnProperty(name = "healthflow.rate-limit.enabled", havingValue = "true")
+public class RateLimitConfig implements WebMvcConfigurer {
+
+    @Value("${healthflow.rate-limit.client-header:}")
+    private String clientHeader;
+
+    private final RateLimiter rateLimiter;
+
+    public RateLimitConfig(Environment environment,
+                           @Value("${healthflow.rate-limit.global-stripes:16}") int globalStripes,
+                           @Value("${healthflow.rate-limit.idle-timeout:10m}") Duration idleTimeout,
+                           @Value("${healthflow.rate-limit.max-buckets:1000000}") long maxBuckets) {
+        Map<RateLimitBudget, Map<RateLimiter.Scope, RateLimit>> limits = new EnumMap<>(RateLimitBudget.class);
+        for (RateLimitBudget budget : RateLimitBudget.values()) {
+            Map<RateLimiter.Scope, RateLimit> scopes = new EnumMap<>(RateLimiter.Scope.class);
+            for (RateLimiter.Scope scope : RateLimiter.Scope.values()) {
+                String prefix = "healthflow.rate-limit." + propertyName(budget) + "." + scope.name().toLowerCase(Locale.ROOT);
+                scopes.put(scope, new RateLimit(
+                        environment.getRequiredProperty(prefix + ".per-second", Double.class),
+                        environment.getRequiredProperty(prefix + ".burst", Integer.class)));
+            }
+            limits.put(budget, scopes);
+        }
+        this.rateLimiter = new RateLimiter(limits, globalStripes, idleTimeout, maxBuckets, Ticker.systemTicker());
+    }
+
+    @Bean
+    public RateLimiter rateLimiter() {
+        return rateLimiter;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RateLimitInterceptor(rateLimiter, clientHeader))
+                .addPathPatterns("/api/activities/**", "/api/users/**");
+    }
+
+    @Bean
+    public OperationCustomizer rateLimitResponse() {
+        return (operation, handlerMethod) -> {
+            if (handlerMethod.hasMethodAnnotation(RateLimited.class)) {
+                operation.getResponses().addApiResponse("429",
+                        new ApiResponse().description("Limite de requisições excedido (ver Retry-After)"));
+            }
+            return operation;
+        };
+    }
+
+    @Bean
+    public MeterBinder rateLimitMetrics() {
+        return registry -> {
+            for (RateLimitBudget budget : RateLimitBudget.values()) {
+                for (RateLimiter.Scope scope : RateLimiter.Scope.values()) {
+                    FunctionCounter.builder("healthflow.ratelimit.rejected", rateLimiter, limiter -> limiter.getRejections(budget, scope))
+                            .tag("budget", propertyName(budget))
+                            .tag("scope", scope.name().toLowerCase(Locale.ROOT))
+                            .description("Requisições recusadas pelo limite de taxa, por orçamento e escopo")
+                            .register(registry);
+                }
+            }
+            Gauge.builder("healthflow.ratelimit.buckets", rateLimiter, RateLimiter::getBucketCount)
+                    .description("Baldes por usuário e por cliente em memória")
+                    .register(registry);
+        };
+    }
+
+    private static String propertyName(RateLimitBudget budget) {
+        return budget.name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+}
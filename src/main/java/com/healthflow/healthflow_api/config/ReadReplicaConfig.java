@@ -0,0 +1,95 @@
+package com.healthflow.healthflow_api.config;
+
+import com.healthflow.healthflow_api.datasource.ReplicaFallbackDataSource;
+import com.healthflow.healthflow_api.datasource.ReplicaLagMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.TaskScheduler;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// Réplica de leitura: o DataSource da aplicação só obtém a conexão física no primeiro comando, e
+// transações @Transactional(readOnly = true) (inclusive as leituras do Spring Data fora de transação)
+// recebem uma conexão da réplica enquanto o atraso estiver abaixo de max-lag. Escritas, e leituras
+// dentro de uma transação de escrita, continuam no primário
+@Configuration
+@ConditionalOnProperty(name = "healthflow.datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    // Pool do primário com as propriedades spring.datasource.* e spring.datasource.hikari.*
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("healthflow.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(@Value("${healthflow.datasource.replica.url}") String url,
+                                              @Value("${healthflow.datasource.replica.username:}") String username,
+                                              @Value("${healthflow.datasource.replica.password:}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("primaryDataSource") DataSource primary,
+                                               @Qualifier("replicaDataSource") DataSource replica,
+                                               TaskScheduler taskScheduler,
+                                               @Value("${healthflow.datasource.replica.max-lag:5s}") Duration maxLag,
+                                               @Value("${healthflow.datasource.replica.heartbeat-interval:1s}") Duration heartbeatInterval) {
+        return new ReplicaLagMonitor(primary, replica, taskScheduler, maxLag, heartbeatInterval);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaLagMonitor monitor) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(new ReplicaFallbackDataSource(replica, primary, monitor));
+        return dataSource;
+    }
+
+    // Atraso medido e conexões somente leitura por destino (os pools publicam hikaricp.connections.*
+    // com as tags pool=primary e pool=replica)
+    @Bean
+    public MeterBinder replicaMetrics(ReplicaLagMonitor monitor) {
+        return registry -> {
+            TimeGauge.builder("healthflow.datasource.replica.lag", monitor, TimeUnit.MILLISECONDS, ReplicaLagMonitor::getLagMillis)
+                    .description("Atraso da réplica medido pelo heartbeat (-1 sem heartbeat replicado)")
+                    .register(registry);
+            FunctionCounter.builder("healthflow.datasource.reads", monitor, ReplicaLagMonitor::getReplicaReads)
+                    .tag("target", "replica")
+                    .description("Conexões de transações somente leitura, por destino")
+                    .register(registry);
+            FunctionCounter.builder("healthflow.datasource.reads", monitor, ReplicaLagMonitor::getPrimaryReads)
+                    .tag("target", "primary")
+                    .description("Conexões de transações somente leitura, por destino")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,90 @@
+package com.healthflow.healthflow_api.config;
+
+import com.healthflow.healthflow_api.sharding.ShardDirectory;
+import com.healthflow.healthflow_api.sharding.ShardRebalancer;
+import com.healthflow.healthflow_api.sharding.ShardRouter;
+import com.healthflow.healthflow_api.sharding.ShardRoutingAspect;
+import com.healthflow.healthflow_api.sharding.ShardRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Sharding por usuário: o shard 0 é o banco de spring.datasource.* (com os dados anteriores ao
+// sharding) e os demais vêm de healthflow.sharding.urls, com as mesmas credenciais e as propriedades
+// spring.datasource.hikari.*. Cada shard recebe as migrações do Flyway e um bloco próprio de ids, e o
+// Hibernate só valida o esquema. O DataSource da aplicação só obtém a conexão física no primeiro
+// comando, quando a chamada ao repositório já escolheu o shard. Não combina com a réplica de leitura
+@Configuration
+@ConditionalOnProperty(name = "healthflow.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean
+    public ShardDirectory shardDirectory(DataSourceProperties properties, Environment environment, MeterRegistry registry,
+                                         @Value("${healthflow.sharding.urls:}") List<String> urls) {
+        List<String> shardUrls = new ArrayList<>();
+        shardUrls.add(properties.determineUrl());
+        urls.stream().map(String::trim).filter(url -> !url.isEmpty()).forEach(shardUrls::add);
+
+        List<DataSource> shards = new ArrayList<>();
+        for (int shard = 0; shard < shardUrls.size(); shard++) {
+            HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(shardUrls.get(shard))
+                    .build();
+            Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+            dataSource.setPoolName("shard-" + shard);
+            dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+
+            Flyway.configure().dataSource(dataSource).load().migrate();
+            ShardDirectory.reserveIdBlock(dataSource, shard);
+            shards.add(dataSource);
+        }
+        return new ShardDirectory(shards);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ShardRouter shardRouter(ShardDirectory directory, PlatformTransactionManager transactionManager) {
+        return new ShardRouter(directory, transactionManager);
+    }
+
+    @Bean
+    public ShardRoutingAspect shardRoutingAspect(ShardRouter router,
+                                                 @Value("${healthflow.sharding.move-lock-timeout:30s}") Duration lockTimeout) {
+        return new ShardRoutingAspect(router, lockTimeout.toMillis());
+    }
+
+    @Bean
+    public ShardRebalancer shardRebalancer(ShardDirectory directory, ShardRouter router,
+                                           @Value("${healthflow.sharding.move-lock-timeout:30s}") Duration lockTimeout) {
+        return new ShardRebalancer(directory, router, lockTimeout);
+    }
+
+    @Bean
+    public DataSource dataSource(ShardDirectory directory) {
+        return new LazyConnectionDataSourceProxy(new ShardRoutingDataSource(directory));
+    }
+
+    // O esquema de cada shard vem das migrações; create-drop só alcançaria o shard 0
+    @Bean
+    public HibernatePropertiesCustomizer shardSchemaValidation() {
+        return properties -> properties.put(AvailableSettings.HBM2DDL_AUTO, "validate");
+    }
+}
@@ -0,0 +1,90 @@
+package com.healthflow.healthflow_api.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.healthflow.healthflow_api.http.PooledBufferJsonHttpMessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.util.unit.DataSize;
+
+import java.util.Comparator;
+import java.util.List;
+
+// Formatos binários escolhidos pelo cabeçalho Accept (application/cbor e application/x-jackson-smile).
+// Os conversores usam o mesmo ObjectMapperBuilder do JSON, com as mesmas configurações de datas,
+// e substituem os padrões do Spring na mesma posição, depois do JSON: JSON continua sendo o
+// formato de Accept: */* e de requisições sem Accept.
+@Configuration
+public class WireFormatConfig {
+
+    public static final MediaType APPLICATION_SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    // Substitui o conversor JSON do Spring Boot (mesmo ObjectMapper), escrevendo em buffers reaproveitados
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(
+            ObjectMapper objectMapper,
+            @Value("${healthflow.http.json-buffer.pool-size:16}") int poolSize,
+            @Value("${healthflow.http.json-buffer.bytes-per-item:192}") int bytesPerItem,
+            @Value("${healthflow.http.json-buffer.max-size:4MB}") DataSize maxSize,
+            @Value("${healthflow.http.json-buffer.max-pooled-size:512KB}") DataSize maxPooledSize) {
+        return new PooledBufferJsonHttpMessageConverter(objectMapper, poolSize, bytesPerItem,
+                (int) maxSize.toBytes(), (int) maxPooledSize.toBytes());
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    // Valores de texto repetidos (tipo de atividade, nome do usuário) viram referências a ocorrências
+    // anteriores, além dos nomes de campo que o Smile já compartilha por padrão
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        SmileFactory factory = new SmileFactory().enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES);
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(factory).build());
+    }
+
+    // Sufixo do ETag para o formato pedido (null para JSON). A resposta varia com Accept (Vary: Accept),
+    // e o ETag precisa distinguir as representações escolhidas para o mesmo recurso: sem o sufixo, um
+    // cache que guardou a versão CBOR validaria o ETag da versão JSON. Segue a escolha do Spring nos
+    // casos comuns: maior qualidade primeiro e, em caso de empate, a ordem do cabeçalho; curingas
+    // resolvem para JSON.
+    public static String variantOf(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return null;
+        }
+
+        List<MediaType> acceptable;
+        try {
+            acceptable = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+        acceptable.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+
+        for (MediaType mediaType : acceptable) {
+            if (mediaType.getQualityValue() == 0) {
+                break;
+            }
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return null;
+            }
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+                return "cbor";
+            }
+            if (mediaType.isCompatibleWith(APPLICATION_SMILE)) {
+                return "smile";
+            }
+        }
+        return null;
+    }
+}
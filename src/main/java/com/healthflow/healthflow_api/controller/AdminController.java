@@ -0,0 +1,135 @@
+package com.healthflow.healthflow_api.controller;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.healthflow.healthflow_api.DTO.CacheStatisticsDTO;
+import com.healthflow.healthflow_api.DTO.DatabaseCheckpointDTO;
+import com.healthflow.healthflow_api.DTO.ShardStatusDTO;
+import com.healthflow.healthflow_api.service.ActivityRollupService;
+import com.healthflow.healthflow_api.service.DatabaseMaintenanceService;
+import com.healthflow.healthflow_api.sharding.ShardRebalancer;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/api/admin")
+@Tag(name = "Administração", description = "Operações de manutenção do HealthFlow")
+public class AdminController {
+
+    @Autowired
+    private ActivityRollupService rollupService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private DatabaseMaintenanceService databaseMaintenanceService;
+
+    // Presente apenas com healthflow.sharding.enabled=true
+    @Autowired(required = false)
+    private ShardRebalancer shardRebalancer;
+
+    @Operation(summary = "Reconstruir agregados diários", description = "Recalcula todos os agregados diários a partir das atividades brutas")
+    @ApiResponse(responseCode = "200", description = "Agregados reconstruídos com sucesso")
+    @PostMapping("/rollups/rebuild")
+    public CompletableFuture<ResponseEntity<Map<String, Integer>>> rebuildRollups() {
+        return rollupService.rebuildAllAsync()
+                .thenApply(rows -> ResponseEntity.ok(Map.of("rollups", rows)));
+    }
+
+    @Operation(summary = "Reconstruir agregados de um usuário", description = "Recalcula os agregados diários de um único usuário")
+    @ApiResponse(responseCode = "200", description = "Agregados do usuário reconstruídos com sucesso")
+    @PostMapping("/rollups/rebuild/{userId}")
+    public ResponseEntity<Map<String, Integer>> rebuildUserRollups(
+            @Parameter(description = "ID do usuário", example = "1")
+            @PathVariable Long userId) {
+        int rows = rollupService.rebuildUser(userId);
+        return ResponseEntity.ok(Map.of("rollups", rows));
+    }
+
+    @Operation(summary = "Métricas dos caches", description = "Retorna acertos, falhas e remoções de cada cache")
+    @ApiResponse(responseCode = "200", description = "Métricas retornadas com sucesso")
+    @GetMapping("/caches")
+    public ResponseEntity<List<CacheStatisticsDTO>> getCacheStatistics() {
+        List<CacheStatisticsDTO> caches = cacheManager.getCacheNames().stream()
+                .sorted()
+                .map(name -> {
+                    CaffeineCache cache = (CaffeineCache) cacheManager.getCache(name);
+                    CacheStats stats = cache.getNativeCache().stats();
+                    return new CacheStatisticsDTO(name, cache.getNativeCache().estimatedSize(),
+                            stats.hitCount(), stats.missCount(), stats.hitRate(), stats.evictionCount());
+                })
+                .toList();
+        return ResponseEntity.ok(caches);
+    }
+
+    @Operation(summary = "Checkpoint do banco de dados", description = "Grava em disco as alterações pendentes e retorna o tamanho do arquivo do banco")
+    @ApiResponse(responseCode = "200", description = "Checkpoint executado com sucesso")
+    @PostMapping("/database/checkpoint")
+    public ResponseEntity<DatabaseCheckpointDTO> checkpointDatabase() {
+        return ResponseEntity.ok(databaseMaintenanceService.checkpoint());
+    }
+
+    @Operation(summary = "Situação dos shards", description = "Retorna a quantidade de usuários e de atividades em cada shard")
+    @ApiResponse(responseCode = "200", description = "Situação retornada com sucesso")
+    @ApiResponse(responseCode = "404", description = "Sharding desativado")
+    @GetMapping("/shards")
+    public ResponseEntity<?> getShards() {
+        if (shardRebalancer == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Sharding desativado");
+        }
+        List<ShardStatusDTO> shards = shardRebalancer.status();
+        return ResponseEntity.ok(shards);
+    }
+
+    @Operation(summary = "Migrar usuário de shard", description = "Copia o usuário e suas atividades para o shard indicado e os remove do shard anterior, sem parar a aplicação")
+    @ApiResponse(responseCode = "200", description = "Usuário migrado com sucesso")
+    @ApiResponse(responseCode = "404", description = "Sharding desativado ou usuário não encontrado")
+    @ApiResponse(responseCode = "400", description = "Shard inexistente")
+    @ApiResponse(responseCode = "409", description = "Usuário em uso por outra operação")
+    @PostMapping("/shards/users/{userId}/move")
+    public ResponseEntity<?> moveUser(
+            @Parameter(description = "ID do usuário", example = "1")
+            @PathVariable Long userId,
+            @Parameter(description = "Shard de destino", example = "1")
+            @RequestParam int shard) {
+        if (shardRebalancer == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Sharding desativado");
+        }
+        if (shard < 0 || shard >= shardRebalancer.getShardCount()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Shard inexistente: " + shard);
+        }
+        try {
+            shardRebalancer.moveUser(userId, shard);
+            return ResponseEntity.ok(Map.of("userId", userId, "shard", shard));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Rebalancear shards", description = "Migra até maxUsers usuários que não estão no shard definido pelo hash do email (por exemplo, depois de acrescentar um shard)")
+    @ApiResponse(responseCode = "200", description = "Rebalanceamento executado")
+    @ApiResponse(responseCode = "404", description = "Sharding desativado")
+    @PostMapping("/shards/rebalance")
+    public ResponseEntity<?> rebalanceShards(
+            @Parameter(description = "Máximo de usuários migrados nesta chamada", example = "1000")
+            @RequestParam(defaultValue = "1000") int maxUsers) {
+        if (shardRebalancer == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Sharding desativado");
+        }
+        return ResponseEntity.ok(Map.of("moved", shardRebalancer.rebalance(maxUsers)));
+    }
+}
@@ -2,8 +2,19 @@ package com.healthflow.healthflow_api.controller;
 
 
 import com.healthflow.healthflow_api.DTO.*;
-import com.healthflow.healthflow_api.model.HealthActivity;
+import com.healthflow.healthflow_api.config.WireFormatConfig;
+import com.healthflow.healthflow_api.ratelimit.RateLimitBudget;
+import com.healthflow.healthflow_api.ratelimit.RateLimited;
+import com.healthflow.healthflow_api.service.ActivityFeedService;
+import com.healthflow.healthflow_api.service.ActivityIdempotencyService;
+import com.healthflow.healthflow_api.service.ActivityImportService;
+import com.healthflow.healthflow_api.service.ActivitySeriesService;
+import com.healthflow.healthflow_api.service.ActivityWriteBehindService;
+import com.healthflow.healthflow_api.service.CohortAggregationService;
 import com.healthflow.healthflow_api.service.HealthActivityService;
+import com.healthflow.healthflow_api.service.IdempotencyKeyConflictException;
+import com.healthflow.healthflow_api.service.UserVersionService;
+import com.healthflow.healthflow_api.sharding.UserMigrationInProgressException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,11 +24,18 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
@@ -31,14 +49,120 @@ public class HealthActivityController {
     @Autowired
     private HealthActivityService activityService;
 
-    @Operation(summary = "Listar atividades do usuário", description = "Retorna todas as atividades de saúde de um usuário específico")
-    @ApiResponse(responseCode = "200", description = "Lista de atividades retornada com sucesso")
+    @Autowired
+    private ActivityImportService importService;
+
+    @Autowired
+    private ActivitySeriesService seriesService;
+
+    @Autowired
+    private CohortAggregationService cohortService;
+
+    @Autowired
+    private ActivityIdempotencyService idempotencyService;
+
+    @Autowired
+    private ActivityFeedService feedService;
+
+    @Autowired
+    private UserVersionService versionService;
+
+    // Presente apenas com healthflow.activities.write-behind.enabled=true
+    @Autowired(required = false)
+    private ActivityWriteBehindService writeBehindService;
+
+    @Value("${healthflow.activities.batch.max-size:1000}")
+    private int maxBatchSize;
+
+    // A requisição já esperou move-lock-timeout pelo bloqueio; a migração de um usuário costuma ser curta
+    private static final String MIGRATION_RETRY_AFTER_SECONDS = "1";
+
+    @Operation(summary = "Listar atividades do usuário", description = "Retorna todas as atividades de saúde de um usuário específico; com If-None-Match igual ao ETag atual, retorna 304 sem consultar o banco")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lista de atividades retornada com sucesso"),
+            @ApiResponse(responseCode = "304", description = "Atividades inalteradas desde o ETag informado", content = @Content)
+    })
+    @RateLimited(RateLimitBudget.EXPENSIVE_READS)
     @GetMapping("/user/{userId}")
     public ResponseEntity<List<HealthActivityResponseDTO>> getActivitiesByUser(
             @Parameter(description = "ID do usuário", example = "1")
-            @PathVariable Long userId) {
+            @PathVariable Long userId,
+            WebRequest webRequest) {
+        // A versão é lida antes da consulta: uma escrita no meio do caminho gera um ETag novo
+        String etag = versionService.etag(userId, WireFormatConfig.variantOf(webRequest.getHeader(HttpHeaders.ACCEPT)));
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).varyBy(HttpHeaders.ACCEPT).build();
+        }
+
         List<HealthActivityResponseDTO> activities = activityService.findAllByUserId(userId);
-        return ResponseEntity.ok(activities);
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(activities);
+    }
+
+    @Operation(summary = "Listar atividades do usuário por página", description = "Retorna uma página de atividades ordenadas por data e id, usando paginação por cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página retornada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido", content = @Content)
+    })
+    @RateLimited(RateLimitBudget.EXPENSIVE_READS)
+    @GetMapping("/user/{userId}/page")
+    public ResponseEntity<?> getActivitiesPageByUser(
+            @Parameter(description = "ID do usuário", example = "1")
+            @PathVariable Long userId,
+            @Parameter(description = "Tipo de atividade (opcional)", example = "WALKING")
+            @RequestParam(required = false) String type,
+            @Parameter(description = "Cursor retornado pela página anterior")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamanho da página", example = "100")
+            @RequestParam(required = false) Integer size) {
+        try {
+            ActivityPageDTO page = activityService.findPageByUserId(userId, type, cursor, size);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Transmitir atividades do usuário", description = "Transmite todas as atividades do usuário como um array JSON, escrito à medida que as linhas são lidas do banco")
+    @ApiResponse(responseCode = "200", description = "Atividades transmitidas com sucesso")
+    @RateLimited(RateLimitBudget.EXPENSIVE_READS)
+    @GetMapping(value = "/user/{userId}/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamActivitiesByUser(
+            @Parameter(description = "ID do usuário", example = "1")
+            @PathVariable Long userId,
+            @Parameter(description = "Tipo de atividade (opcional)", example = "WALKING")
+            @RequestParam(required = false) String type) {
+        StreamingResponseBody body = outputStream -> activityService.streamByUserId(userId, type, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    @Operation(summary = "Acompanhar atividades do usuário (SSE)", description = "Mantém uma conexão Server-Sent Events aberta e envia os eventos activity-created, activity-deleted e statistics-delta a cada gravação ou exclusão do usuário")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Conexão aberta; eventos enviados em text/event-stream"),
+            @ApiResponse(responseCode = "404", description = "Usuário não encontrado", content = @Content),
+            @ApiResponse(responseCode = "503", description = "Limite de conexões atingido ou usuário em migração entre shards; tente novamente após Retry-After segundos", content = @Content)
+    })
+    @GetMapping(value = "/user/{userId}/feed", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribeToActivities(
+            @Parameter(description = "ID do usuário", example = "1")
+            @PathVariable Long userId) {
+        try {
+            SseEmitter emitter = feedService.subscribe(userId);
+            if (emitter == null) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "30")
+                        .build();
+            }
+            return ResponseEntity.ok(emitter);
+        } catch (UserMigrationInProgressException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, MIGRATION_RETRY_AFTER_SECONDS)
+                    .build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
     }
 
     @Operation(summary = "Buscar atividade por ID", description = "Retorna uma atividade específica baseada no ID")
@@ -50,39 +174,142 @@ public class HealthActivityController {
     public ResponseEntity<HealthActivityResponseDTO> getActivityById(
             @Parameter(description = "ID da atividade", example = "1")
             @PathVariable Long id) {
-        Optional<HealthActivity> activity = activityService.findById(id);
-        if (activity.isEmpty()) {
-            return ResponseEntity.notFound().build();
-        }
-
-        HealthActivityResponseDTO dto = activityService.convertEntityToDTO(activity.get());
-        return ResponseEntity.ok(dto);
+        Optional<HealthActivityResponseDTO> activity = activityService.findResponseById(id);
+        return activity.map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
     @Operation(summary = "Criar nova atividade", description = "Registra uma nova atividade de saúde para um usuário")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Atividade criada com sucesso",
                     content = @Content(schema = @Schema(implementation = HealthActivityResponseDTO.class))),
-            @ApiResponse(responseCode = "400", description = "Dados inválidos ou usuário não encontrado", content = @Content)
+            @ApiResponse(responseCode = "200", description = "Repetição de uma requisição com a mesma Idempotency-Key; retorna a atividade original",
+                    content = @Content(schema = @Schema(implementation = HealthActivityResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos ou usuário não encontrado", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Idempotency-Key já utilizada com outros dados", content = @Content),
+            @ApiResponse(responseCode = "503", description = "Usuário em migração entre shards; tente novamente após Retry-After segundos", content = @Content)
     })
+    @RateLimited(RateLimitBudget.WRITES)
     @PostMapping
     public ResponseEntity<?> createActivity(
+            @Parameter(description = "Chave única da requisição, gerada pelo cliente, para que repetições não dupliquem a atividade", example = "3f2c9a1e-7b4d-4c1a-9e0f-5d8b2a6c4e71")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @Parameter(description = "Dados da atividade para criação")
+            @Valid @RequestBody HealthActivityDTO activityDTO) {
+        try {
+            if (idempotencyKey == null) {
+                HealthActivityResponseDTO savedActivity = activityService.save(activityDTO);
+                return ResponseEntity.status(HttpStatus.CREATED).body(savedActivity);
+            }
+
+            ActivityIdempotencyService.Result result = idempotencyService.save(activityDTO, idempotencyKey);
+            return ResponseEntity.status(result.replayed() ? HttpStatus.OK : HttpStatus.CREATED)
+                    .header("Idempotent-Replayed", String.valueOf(result.replayed()))
+                    .body(result.activity());
+        } catch (IdempotencyKeyConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(e.getMessage());
+        } catch (UserMigrationInProgressException e) {
+            return userMigrating(e);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Criar atividades em lote", description = "Registra várias atividades de saúde em uma única requisição, com resultado individual por item")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Todas as atividades foram criadas",
+                    content = @Content(schema = @Schema(implementation = BatchResultDTO.class))),
+            @ApiResponse(responseCode = "207", description = "Parte das atividades foi rejeitada",
+                    content = @Content(schema = @Schema(implementation = BatchResultDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Lote vazio ou acima do tamanho máximo", content = @Content),
+            @ApiResponse(responseCode = "503", description = "Usuário em migração entre shards; tente novamente após Retry-After segundos", content = @Content)
+    })
+    @RateLimited(RateLimitBudget.WRITES)
+    @PostMapping("/batch")
+    public ResponseEntity<?> createActivitiesBatch(
+            @Parameter(description = "Lista de atividades para criação")
+            @RequestBody List<HealthActivityDTO> activityDTOs) {
+        if (activityDTOs == null || activityDTOs.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Lote de atividades vazio");
+        }
+        if (activityDTOs.size() > maxBatchSize) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Lote excede o tamanho máximo de " + maxBatchSize + " atividades");
+        }
+
+        try {
+            BatchResultDTO result = new BatchResultDTO(activityService.saveBatch(activityDTOs));
+            HttpStatus status = result.getRejected() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+            return ResponseEntity.status(status).body(result);
+        } catch (UserMigrationInProgressException e) {
+            return userMigrating(e);
+        }
+    }
+
+    @Operation(summary = "Enfileirar atividade", description = "Aceita a atividade para gravação assíncrona em commits agrupados (requer healthflow.activities.write-behind.enabled=true)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Atividade aceita; será gravada em até healthflow.activities.write-behind.max-delay", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos ou usuário não encontrado", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Ingestão assíncrona desabilitada", content = @Content),
+            @ApiResponse(responseCode = "503", description = "Fila cheia ou usuário em migração entre shards; tente novamente após Retry-After segundos", content = @Content)
+    })
+    @RateLimited(RateLimitBudget.WRITES)
+    @PostMapping("/async")
+    public ResponseEntity<?> enqueueActivity(
             @Parameter(description = "Dados da atividade para criação")
             @Valid @RequestBody HealthActivityDTO activityDTO) {
+        if (writeBehindService == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body("Ingestão assíncrona desabilitada");
+        }
+
         try {
-            HealthActivityResponseDTO savedActivity = activityService.save(activityDTO);
-            return ResponseEntity.status(HttpStatus.CREATED).body(savedActivity);
+            if (!writeBehindService.enqueue(activityDTO)) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, String.valueOf(writeBehindService.getRetryAfterSeconds()))
+                        .body("Fila de ingestão cheia");
+            }
+            return ResponseEntity.accepted().build();
+        } catch (UserMigrationInProgressException e) {
+            return userMigrating(e);
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(e.getMessage());
         }
     }
 
+    @Operation(summary = "Importar histórico de atividades", description = "Importa atividades em NDJSON ou CSV (userId,activityType,date,activityValue) lendo o corpo de forma incremental e gravando em blocos transacionais")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Importação concluída",
+                    content = @Content(schema = @Schema(implementation = ImportReportDTO.class))),
+            @ApiResponse(responseCode = "500", description = "Importação interrompida; use resumeOffset para continuar",
+                    content = @Content(schema = @Schema(implementation = ImportReportDTO.class)))
+    })
+    @RateLimited(RateLimitBudget.WRITES)
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<ImportReportDTO> importActivities(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            @Parameter(description = "Quantidade de linhas já processadas a pular (retomada)", example = "0")
+            @RequestParam(defaultValue = "0") long offset,
+            InputStream body) {
+        ActivityImportService.Format format = contentType.isCompatibleWith(MediaType.parseMediaType("text/csv"))
+                ? ActivityImportService.Format.CSV
+                : ActivityImportService.Format.NDJSON;
+
+        ImportReportDTO report = importService.importActivities(body, format, Math.max(offset, 0));
+        HttpStatus status = report.isCompleted() ? HttpStatus.OK : HttpStatus.INTERNAL_SERVER_ERROR;
+        return ResponseEntity.status(status).body(report);
+    }
+
     @Operation(summary = "Excluir atividade", description = "Remove uma atividade de saúde do sistema")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Atividade excluída com sucesso"),
             @ApiResponse(responseCode = "404", description = "Atividade não encontrada", content = @Content)
     })
+    @RateLimited(RateLimitBudget.WRITES)
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteActivity(
             @Parameter(description = "ID da atividade", example = "1")
@@ -95,21 +322,85 @@ public class HealthActivityController {
         return ResponseEntity.noContent().build();
     }
 
-    @Operation(summary = "Obter estatísticas", description = "Retorna estatísticas das atividades do usuário a partir de uma data específica")
-    @ApiResponse(responseCode = "200", description = "Estatísticas calculadas com sucesso")
+    @Operation(summary = "Obter estatísticas", description = "Retorna estatísticas das atividades do usuário a partir de uma data específica; com If-None-Match igual ao ETag atual, retorna 304 sem calcular")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Estatísticas calculadas com sucesso"),
+            @ApiResponse(responseCode = "304", description = "Estatísticas inalteradas desde o ETag informado", content = @Content)
+    })
+    @RateLimited(RateLimitBudget.EXPENSIVE_READS)
     @GetMapping("/user/{userId}/statistics")
     public ResponseEntity<List<Object[]>> getStatistics(
             @Parameter(description = "ID do usuário", example = "1")
             @PathVariable Long userId,
             @Parameter(description = "Data de início para cálculo das estatísticas", example = "2025-11-01")
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            WebRequest webRequest) {
+        String etag = versionService.etag(userId, WireFormatConfig.variantOf(webRequest.getHeader(HttpHeaders.ACCEPT)));
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).varyBy(HttpHeaders.ACCEPT).build();
+        }
 
         List<Object[]> statistics = activityService.getStatistics(userId, startDate);
-        return ResponseEntity.ok(statistics);
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(statistics);
+    }
+
+    @Operation(summary = "Obter série temporal", description = "Retorna, por tipo de atividade, agregados diários, semanais ou mensais (quantidade, soma, média, mínimo, máximo, p50 e p95) no intervalo informado")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Série calculada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Intervalo inválido", content = @Content)
+    })
+    @RateLimited(RateLimitBudget.EXPENSIVE_READS)
+    @GetMapping("/user/{userId}/series")
+    public ResponseEntity<?> getSeries(
+            @Parameter(description = "ID do usuário", example = "1")
+            @PathVariable Long userId,
+            @Parameter(description = "Data inicial (inclusiva)", example = "2025-01-01")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Data final (inclusiva); padrão: hoje", example = "2025-12-31")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Tamanho do intervalo: DAY, WEEK (a partir de segunda-feira) ou MONTH", example = "WEEK")
+            @RequestParam(defaultValue = "DAY") ActivitySeriesService.Bucket bucket,
+            @Parameter(description = "Tipo de atividade (opcional)", example = "WALKING")
+            @RequestParam(required = false) String type) {
+        try {
+            List<ActivitySeriesDTO> series = seriesService.findSeries(userId, type, from,
+                    to == null ? LocalDate.now() : to, bucket);
+            return ResponseEntity.ok(series);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Estatísticas da coorte", description = "Soma, média por usuário e ranking dos usuários com maior soma, por tipo de atividade, considerando todos os usuários no intervalo informado")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Estatísticas calculadas com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Intervalo inválido", content = @Content)
+    })
+    @RateLimited(RateLimitBudget.EXPENSIVE_READS)
+    @GetMapping("/cohort")
+    public ResponseEntity<?> getCohortStatistics(
+            @Parameter(description = "Tipo de atividade (opcional)", example = "WALKING")
+            @RequestParam(required = false) String type,
+            @Parameter(description = "Data inicial (inclusiva)", example = "2025-11-01")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Data final (inclusiva); padrão: hoje", example = "2025-11-30")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Tamanho do ranking por tipo", example = "10")
+            @RequestParam(defaultValue = "10") int top) {
+        try {
+            List<CohortStatisticsDTO> statistics = cohortService.aggregate(type, from,
+                    to == null ? LocalDate.now() : to, top);
+            return ResponseEntity.ok(statistics);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(e.getMessage());
+        }
     }
 
     @Operation(summary = "Listar atividades por tipo", description = "Retorna atividades de saúde de um usuário filtradas por tipo")
     @ApiResponse(responseCode = "200", description = "Lista de atividades filtradas retornada com sucesso")
+    @RateLimited(RateLimitBudget.EXPENSIVE_READS)
     @GetMapping("/user/{userId}/type/{type}")
     public ResponseEntity<List<HealthActivityResponseDTO>> getActivitiesByType(
             @Parameter(description = "ID do usuário", example = "1")
@@ -126,4 +417,10 @@ public class HealthActivityController {
         List<HealthActivityResponseDTO> activities = activityService.findByUserIdAndType(userId, type);
         return ResponseEntity.ok(activities);
     }
-}
\ No newline at end of file
+
+    private static ResponseEntity<?> userMigrating(UserMigrationInProgressException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, MIGRATION_RETRY_AFTER_SECONDS)
+                .body(e.getMessage());
+    }
+}
@@ -1,7 +1,15 @@
 package com.healthflow.healthflow_api.controller;
 
+import com.healthflow.healthflow_api.DTO.LoginRequestDTO;
+import com.healthflow.healthflow_api.DTO.UserPageDTO;
+import com.healthflow.healthflow_api.DTO.UserResponseDTO;
+import com.healthflow.healthflow_api.config.WireFormatConfig;
 import com.healthflow.healthflow_api.model.User;
+import com.healthflow.healthflow_api.ratelimit.RateLimitBudget;
+import com.healthflow.healthflow_api.ratelimit.RateLimited;
+import com.healthflow.healthflow_api.service.CredentialService;
 import com.healthflow.healthflow_api.service.UserService;
+import com.healthflow.healthflow_api.service.UserVersionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,13 +18,20 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.groups.Default;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/users")
@@ -27,25 +42,53 @@ public class UserController {
     @Autowired
     private UserService userService;
 
-    @Operation(summary = "Listar todos os usuários", description = "Retorna uma lista com todos os usuários cadastrados")
-    @ApiResponse(responseCode = "200", description = "Lista de usuários retornada com sucesso")
+    @Autowired
+    private UserVersionService versionService;
+
+    @Autowired
+    private CredentialService credentialService;
+
+    @Operation(summary = "Listar usuários", description = "Retorna uma página de usuários ordenados por id, usando paginação por cursor; com emailPrefix, busca por prefixo do email, ordenada por email")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página retornada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido", content = @Content)
+    })
+    @RateLimited(RateLimitBudget.EXPENSIVE_READS)
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userService.findAll();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<?> getUsers(
+            @Parameter(description = "Prefixo do email (opcional)", example = "joao")
+            @RequestParam(required = false) String emailPrefix,
+            @Parameter(description = "Cursor retornado pela página anterior")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamanho da página", example = "100")
+            @RequestParam(required = false) Integer size) {
+        try {
+            UserPageDTO page = userService.findPage(emailPrefix, cursor, size);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(e.getMessage());
+        }
     }
 
-    @Operation(summary = "Buscar usuário por ID", description = "Retorna um usuário específico baseado no ID")
+    @Operation(summary = "Buscar usuário por ID", description = "Retorna um usuário específico baseado no ID; com If-None-Match igual ao ETag atual, retorna 304")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Usuário encontrado"),
+            @ApiResponse(responseCode = "304", description = "Usuário inalterado desde o ETag informado", content = @Content),
             @ApiResponse(responseCode = "404", description = "Usuário não encontrado", content = @Content)
     })
     @GetMapping("/{id}")
-    public ResponseEntity<User> getUserById(
+    public ResponseEntity<UserResponseDTO> getUserById(
             @Parameter(description = "ID do usuário", example = "1")
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            WebRequest webRequest) {
+        String etag = versionService.etag(id, WireFormatConfig.variantOf(webRequest.getHeader(HttpHeaders.ACCEPT)));
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).varyBy(HttpHeaders.ACCEPT).build();
+        }
+
         Optional<User> user = userService.findById(id);
-        return user.map(ResponseEntity::ok)
+        return user.map(found -> ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(userService.convertEntityToDTO(found)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -55,54 +98,88 @@ public class UserController {
             @ApiResponse(responseCode = "404", description = "Usuário não encontrado", content = @Content)
     })
     @GetMapping("/email/{email}")
-    public ResponseEntity<User> getUserByEmail(
+    public ResponseEntity<UserResponseDTO> getUserByEmail(
             @Parameter(description = "Email do usuário", example = "joao@email.com")
             @PathVariable String email) {
         Optional<User> user = userService.findByEmail(email);
-        return user.map(ResponseEntity::ok)
+        return user.map(found -> ResponseEntity.ok(userService.convertEntityToDTO(found)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
-    @Operation(summary = "Criar novo usuário", description = "Cadastra um novo usuário no sistema")
+    // O hash da senha é calculado fora da thread web; a resposta sai quando ele e a gravação terminam
+    @Operation(summary = "Criar novo usuário", description = "Cadastra um novo usuário no sistema; a senha é gravada apenas como hash bcrypt")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Usuário criado com sucesso"),
-            @ApiResponse(responseCode = "409", description = "Email já cadastrado", content = @Content)
+            @ApiResponse(responseCode = "409", description = "Email já cadastrado", content = @Content),
+            @ApiResponse(responseCode = "503", description = "Fila de cálculo de senhas cheia; tente novamente após Retry-After segundos", content = @Content)
     })
+    @RateLimited(RateLimitBudget.WRITES)
     @PostMapping
-    public ResponseEntity<?> createUser(
+    public CompletableFuture<ResponseEntity<?>> createUser(
             @Parameter(description = "Dados do usuário para criação")
-            @Valid @RequestBody User user) {
+            @Validated({Default.class, User.Registration.class}) @RequestBody User user) {
         if (userService.existsByEmail(user.getEmail())) {
-            return ResponseEntity.status(HttpStatus.CONFLICT)
-                    .body("Email já cadastrado");
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("Email já cadastrado"));
+        }
+
+        try {
+            return credentialService.register(user)
+                    .<ResponseEntity<?>>thenApply(savedUser -> ResponseEntity.status(HttpStatus.CREATED).body(userService.convertEntityToDTO(savedUser)))
+                    // Outro cadastro com o mesmo email pode ter sido gravado enquanto o hash era calculado
+                    .exceptionally(failure -> {
+                        Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+                        if (cause instanceof DataIntegrityViolationException) {
+                            return ResponseEntity.status(HttpStatus.CONFLICT).body("Email já cadastrado");
+                        }
+                        throw failure instanceof CompletionException completion ? completion : new CompletionException(failure);
+                    });
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(hashingBusy());
         }
+    }
 
-        User savedUser = userService.save(user);
-        return ResponseEntity.status(HttpStatus.CREATED).body(savedUser);
+    @Operation(summary = "Login", description = "Confere email e senha e retorna o usuário; um hash com custo desatualizado é recalculado")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Credenciais válidas"),
+            @ApiResponse(responseCode = "401", description = "Email ou senha inválidos", content = @Content),
+            @ApiResponse(responseCode = "503", description = "Fila de cálculo de senhas cheia; tente novamente após Retry-After segundos", content = @Content)
+    })
+    @RateLimited(RateLimitBudget.WRITES)
+    @PostMapping("/login")
+    public CompletableFuture<ResponseEntity<?>> login(
+            @Parameter(description = "Email e senha")
+            @Valid @RequestBody LoginRequestDTO login) {
+        try {
+            return credentialService.authenticate(login.getEmail(), login.getPassword())
+                    .thenApply(user -> user.<ResponseEntity<?>>map(found -> ResponseEntity.ok(userService.convertEntityToDTO(found)))
+                            .orElse(ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Email ou senha inválidos")));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(hashingBusy());
+        }
     }
 
     @Operation(summary = "Atualizar usuário", description = "Atualiza os dados de um usuário existente")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Usuário atualizado com sucesso"),
-            @ApiResponse(responseCode = "404", description = "Usuário não encontrado", content = @Content)
+            @ApiResponse(responseCode = "404", description = "Usuário não encontrado", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Email já cadastrado", content = @Content)
     })
+    @RateLimited(value = RateLimitBudget.WRITES, userIdVariable = "id")
     @PutMapping("/{id}")
-    public ResponseEntity<User> updateUser(
+    public ResponseEntity<?> updateUser(
             @Parameter(description = "ID do usuário", example = "1")
             @PathVariable Long id,
             @Parameter(description = "Dados atualizados do usuário")
             @Valid @RequestBody User userDetails) {
-        Optional<User> user = userService.findById(id);
-        if (user.isEmpty()) {
-            return ResponseEntity.notFound().build();
+        try {
+            return userService.update(id, userDetails.getName(), userDetails.getEmail())
+                    .<ResponseEntity<?>>map(updatedUser -> ResponseEntity.ok(userService.convertEntityToDTO(updatedUser)))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("Email já cadastrado");
         }
-
-        User existingUser = user.get();
-        existingUser.setName(userDetails.getName());
-        existingUser.setEmail(userDetails.getEmail());
-
-        User updatedUser = userService.save(existingUser);
-        return ResponseEntity.ok(updatedUser);
     }
 
     @Operation(summary = "Excluir usuário", description = "Remove um usuário do sistema")
@@ -110,6 +187,7 @@ public class UserController {
             @ApiResponse(responseCode = "204", description = "Usuário excluído com sucesso"),
             @ApiResponse(responseCode = "404", description = "Usuário não encontrado", content = @Content)
     })
+    @RateLimited(value = RateLimitBudget.WRITES, userIdVariable = "id")
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteUser(
             @Parameter(description = "ID do usuário", example = "1")
@@ -121,4 +199,10 @@ public class UserController {
         userService.deleteById(id);
         return ResponseEntity.noContent().build();
     }
+
+    private static ResponseEntity<?> hashingBusy() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Fila de cálculo de senhas cheia");
+    }
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.healthflow.healthflow_api.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+// Destino das transações somente leitura: a réplica enquanto o atraso estiver dentro do limite,
+// senão o primário. Uma falha ao obter conexão da réplica também cai para o primário
+public class ReplicaFallbackDataSource extends DelegatingDataSource {
+
+    private final DataSource primary;
+
+    private final ReplicaLagMonitor monitor;
+
+    public ReplicaFallbackDataSource(DataSource replica, DataSource primary, ReplicaLagMonitor monitor) {
+        super(replica);
+        this.primary = primary;
+        this.monitor = monitor;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (monitor.isReplicaUsable()) {
+            try {
+                Connection connection = super.getConnection();
+                monitor.recordRead(true);
+                return connection;
+            } catch (SQLException e) {
+                monitor.markUnavailable();
+            }
+        }
+        monitor.recordRead(false);
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (monitor.isReplicaUsable()) {
+            try {
+                Connection connection = super.getConnection(username, password);
+                monitor.recordRead(true);
+                return connection;
+            } catch (SQLException e) {
+                monitor.markUnavailable();
+            }
+        }
+        monitor.recordRead(false);
+        return primary.getConnection(username, password);
+    }
+}
@@ -0,0 +1,114 @@
+package com.healthflow.healthflow_api.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.LongAdder;
+
+// Mede o atraso da réplica por um heartbeat: a cada intervalo, o último horário replicado é lido da
+// réplica e o horário atual é gravado no primário. A réplica só atende leituras enquanto o heartbeat
+// que ela contém tiver no máximo maxLag de idade. A idade é recalculada a cada conexão, então uma
+// replicação parada (ou um heartbeat que falhou) tira a réplica de uso sem esperar a próxima leitura.
+// O valor medido inclui até um intervalo de heartbeat além do atraso real
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private static final long NO_BEAT = Long.MIN_VALUE;
+
+    private final JdbcTemplate primary;
+
+    private final JdbcTemplate replica;
+
+    private final TaskScheduler taskScheduler;
+
+    private final long maxLagMillis;
+
+    private final long heartbeatIntervalMillis;
+
+    private final LongAdder replicaReads = new LongAdder();
+
+    private final LongAdder primaryReads = new LongAdder();
+
+    // Horário (do primário) contido no último heartbeat lido da réplica
+    private volatile long replicatedBeatMillis = NO_BEAT;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, TaskScheduler taskScheduler,
+                             Duration maxLag, Duration heartbeatInterval) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.taskScheduler = taskScheduler;
+        this.maxLagMillis = maxLag.toMillis();
+        this.heartbeatIntervalMillis = heartbeatInterval.toMillis();
+    }
+
+    @Scheduled(fixedDelayString = "${healthflow.datasource.replica.heartbeat-interval:1s}")
+    public void heartbeat() {
+        try {
+            replicatedBeatMillis = replica.queryForObject(
+                    "SELECT beat_millis FROM replication_heartbeat WHERE id = 1", Long.class);
+        } catch (DataAccessException e) {
+            replicatedBeatMillis = NO_BEAT;
+            log.debug("Heartbeat indisponível na réplica: {}", e.getMessage());
+        }
+        primary.update("MERGE INTO replication_heartbeat (id, beat_millis) KEY (id) VALUES (1, ?)",
+                System.currentTimeMillis());
+    }
+
+    public boolean isReplicaUsable() {
+        long beat = replicatedBeatMillis;
+        return beat != NO_BEAT && System.currentTimeMillis() - beat <= maxLagMillis;
+    }
+
+    // Atraso medido em milissegundos, ou -1 antes do primeiro heartbeat replicado
+    public long getLagMillis() {
+        long beat = replicatedBeatMillis;
+        return beat == NO_BEAT ? -1 : Math.max(0, System.currentTimeMillis() - beat);
+    }
+
+    // Chamado quando a réplica recusa conexões; volta a valer no próximo heartbeat lido com sucesso
+    public void markUnavailable() {
+        replicatedBeatMillis = NO_BEAT;
+    }
+
+    public void recordRead(boolean fromReplica) {
+        (fromReplica ? replicaReads : primaryReads).increment();
+    }
+
+    public long getReplicaReads() {
+        return replicaReads.sum();
+    }
+
+    public long getPrimaryReads() {
+        return primaryReads.sum();
+    }
+
+    // Repete a tarefa quando qualquer leitura na réplica já reflete a escrita atual: após o commit,
+    // depois de maxLag mais um intervalo de heartbeat. Usado para invalidar de novo caches e ETags
+    // que uma leitura concorrente possa ter preenchido com dados ainda não replicados
+    public void afterCatchUp(Runnable task) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            schedule(task);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                schedule(task);
+            }
+        });
+    }
+
+    private void schedule(Runnable task) {
+        taskScheduler.schedule(task, Instant.now().plusMillis(maxLagMillis + heartbeatIntervalMillis));
+    }
+}
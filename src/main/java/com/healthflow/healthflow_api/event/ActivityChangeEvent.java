@@ -0,0 +1,20 @@
+package com.healthflow.healthflow_api.event;
+
+import com.healthflow.healthflow_api.DTO.HealthActivityResponseDTO;
+
+import java.util.List;
+
+// Publicado pelo HealthActivityService a cada gravação ou exclusão; os ouvintes usam
+// @TransactionalEventListener para só reagir depois do commit
+public record ActivityChangeEvent(Kind kind, List<HealthActivityResponseDTO> activities) {
+
+    public enum Kind { CREATED, DELETED }
+
+    public static ActivityChangeEvent created(List<HealthActivityResponseDTO> activities) {
+        return new ActivityChangeEvent(Kind.CREATED, activities);
+    }
+
+    public static ActivityChangeEvent deleted(HealthActivityResponseDTO activity) {
+        return new ActivityChangeEvent(Kind.DELETED, List.of(activity));
+    }
+}
@@ -0,0 +1,142 @@
+package com.healthflow.healthflow_api.http;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.ArrayBlockingQueue;
+
+// Serializa o JSON em um buffer reaproveitado, dimensionado pelo número de itens da resposta, e
+// envia o corpo com Content-Length em uma única escrita. Com o tamanho conhecido, a compressão do
+// Tomcat respeita server.compression.min-response-size, e um erro na serialização vira um 500
+// em vez de uma resposta 200 truncada. Corpos estimados acima de maxBufferedBytes continuam sendo
+// escritos diretamente no socket.
+public class PooledBufferJsonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private static final int MIN_BUFFER_BYTES = 1024;
+
+    private final ArrayBlockingQueue<ResponseBuffer> pool;
+
+    private final int bytesPerItem;
+
+    private final int maxBufferedBytes;
+
+    private final int maxPooledBytes;
+
+    public PooledBufferJsonHttpMessageConverter(ObjectMapper objectMapper, int poolSize, int bytesPerItem,
+                                                int maxBufferedBytes, int maxPooledBytes) {
+        super(objectMapper);
+        this.pool = new ArrayBlockingQueue<>(Math.max(poolSize, 1));
+        this.bytesPerItem = bytesPerItem;
+        this.maxBufferedBytes = maxBufferedBytes;
+        this.maxPooledBytes = maxPooledBytes;
+    }
+
+    @Override
+    protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        long estimate = estimateSize(object);
+        if (estimate > maxBufferedBytes) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+
+        ResponseBuffer buffer = pool.poll();
+        if (buffer == null) {
+            buffer = new ResponseBuffer();
+        }
+        try {
+            buffer.reset((int) estimate);
+            super.writeInternal(object, type, new BufferedOutputMessage(outputMessage.getHeaders(), buffer));
+
+            // Os cabeçalhos só são enviados na primeira escrita do corpo
+            outputMessage.getHeaders().setContentLength(buffer.size());
+            buffer.writeTo(outputMessage.getBody());
+        } finally {
+            if (buffer.capacity() <= maxPooledBytes) {
+                pool.offer(buffer);
+            }
+        }
+    }
+
+    private long estimateSize(Object object) {
+        Object value = object instanceof MappingJacksonValue wrapper
+                ? wrapper.getValue()
+                : object;
+        if (value instanceof Collection<?> collection) {
+            return Math.max(MIN_BUFFER_BYTES, (long) collection.size() * bytesPerItem);
+        }
+        if (value instanceof Object[] array) {
+            return Math.max(MIN_BUFFER_BYTES, (long) array.length * bytesPerItem);
+        }
+        return MIN_BUFFER_BYTES;
+    }
+
+    private record BufferedOutputMessage(HttpHeaders headers, OutputStream body) implements HttpOutputMessage {
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+
+    // ByteArrayOutputStream sem sincronização e sem cópia do conteúdo na saída
+    private static final class ResponseBuffer extends OutputStream {
+
+        private byte[] bytes = new byte[0];
+
+        private int count;
+
+        private void reset(int expectedSize) {
+            count = 0;
+            if (bytes.length < expectedSize) {
+                bytes = new byte[expectedSize];
+            }
+        }
+
+        private int size() {
+            return count;
+        }
+
+        private int capacity() {
+            return bytes.length;
+        }
+
+        private void writeTo(OutputStream outputStream) throws IOException {
+            outputStream.write(bytes, 0, count);
+        }
+
+        @Override
+        public void write(int b) {
+            ensureCapacity(count + 1);
+            bytes[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] source, int offset, int length) {
+            ensureCapacity(count + length);
+            System.arraycopy(source, offset, bytes, count, length);
+            count += length;
+        }
+
+        private void ensureCapacity(int required) {
+            if (required > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(required, bytes.length * 2));
+            }
+        }
+    }
+}
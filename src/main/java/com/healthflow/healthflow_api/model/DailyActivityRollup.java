@@ -0,0 +1,75 @@
+package com.healthflow.healthflow_api.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "daily_activity_rollups",
+        uniqueConstraints = @UniqueConstraint(name = "uk_rollup_user_type_date",
+                columnNames = {"user_id", "activity_type", "date"}))
+public class DailyActivityRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "activity_type", nullable = false, length = 20)
+    private String activityType;
+
+    @Column(nullable = false)
+    private LocalDate date;
+
+    @Column(name = "total_value", nullable = false)
+    private Double totalValue;
+
+    @Column(name = "activity_count", nullable = false)
+    private Long activityCount;
+
+    @Column(name = "min_value", nullable = false)
+    private Double minValue;
+
+    @Column(name = "max_value", nullable = false)
+    private Double maxValue;
+
+    // Construtores
+    public DailyActivityRollup() {}
+
+    public DailyActivityRollup(Long userId, String activityType, LocalDate date,
+                               Double totalValue, Long activityCount, Double minValue, Double maxValue) {
+        this.userId = userId;
+        this.activityType = activityType;
+        this.date = date;
+        this.totalValue = totalValue;
+        this.activityCount = activityCount;
+        this.minValue = minValue;
+        this.maxValue = maxValue;
+    }
+
+    // Getters e Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public String getActivityType() { return activityType; }
+    public void setActivityType(String activityType) { this.activityType = activityType; }
+
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+
+    public Double getTotalValue() { return totalValue; }
+    public void setTotalValue(Double totalValue) { this.totalValue = totalValue; }
+
+    public Long getActivityCount() { return activityCount; }
+    public void setActivityCount(Long activityCount) { this.activityCount = activityCount; }
+
+    public Double getMinValue() { return minValue; }
+    public void setMinValue(Double minValue) { this.minValue = minValue; }
+
+    public Double getMaxValue() { return maxValue; }
+    public void setMaxValue(Double maxValue) { this.maxValue = maxValue; }
+}
@@ -7,15 +7,23 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "health_activities")
+@Table(name = "health_activities", indexes = {
+        @Index(name = "idx_activity_user_date", columnList = "user_id, date"),
+        @Index(name = "idx_activity_user_type_date", columnList = "user_id, activity_type, date")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_activity_user_idempotency_key", columnNames = {"user_id", "idempotency_key"})
+})
 public class HealthActivity {
 
+    // Sequência com pool permite que o Hibernate agrupe os INSERTs em lotes JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "health_activities_seq")
+    @SequenceGenerator(name = "health_activities_seq", sequenceName = "health_activities_seq", allocationSize = 50)
     private Long id;
 
+    // Mesmo nome da chave estrangeira da migração V1, também no esquema gerado pelo Hibernate
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "user_id", nullable = false)
+    @JoinColumn(name = "user_id", nullable = false, foreignKey = @ForeignKey(name = "fk_activity_user"))
     private User user;
 
     @NotNull(message = "Tipo de atividade é obrigatório")
@@ -33,6 +41,10 @@ public class HealthActivity {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    // Chave enviada pelo cliente no cabeçalho Idempotency-Key; nula quando não informada
+    @Column(name = "idempotency_key", length = 64)
+    private String idempotencyKey;
+
     // Construtores
     public HealthActivity() {
         this.createdAt = LocalDateTime.now();
@@ -64,4 +76,7 @@ public class HealthActivity {
 
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public String getIdempotencyKey() { return idempotencyKey; }
+    public void setIdempotencyKey(String idempotencyKey) { this.idempotencyKey = idempotencyKey; }
 }
\ No newline at end of file
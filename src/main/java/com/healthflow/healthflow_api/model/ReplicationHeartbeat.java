@@ -0,0 +1,40 @@
+package com.healthflow.healthflow_api.model;
+
+import jakarta.persistence.*;
+
+// Linha única gravada no primário pelo ReplicaLagMonitor; o valor lido na réplica mede o atraso
+@Entity
+@Table(name = "replication_heartbeat")
+public class ReplicationHeartbeat {
+
+    @Id
+    private Long id;
+
+    @Column(name = "beat_millis", nullable = false)
+    private Long beatMillis;
+
+    // Construtores
+    public ReplicationHeartbeat() {}
+
+    public ReplicationHeartbeat(Long id, Long beatMillis) {
+        this.id = id;
+        this.beatMillis = beatMillis;
+    }
+
+    // Getters e Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getBeatMillis() {
+        return beatMillis;
+    }
+
+    public void setBeatMillis(Long beatMillis) {
+        this.beatMillis = beatMillis;
+    }
+}
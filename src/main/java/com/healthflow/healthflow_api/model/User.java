@@ -1,12 +1,15 @@
 package com.healthflow.healthflow_api.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import java.time.LocalDateTime;
 
+// Índice único nomeado como na migração V1: atende a busca por prefixo do email (faixa no índice)
 @Entity
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = @UniqueConstraint(name = "uk_users_email", columnNames = "email"))
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -17,11 +20,15 @@ public class User {
     private String name;
 
     @Email(message = "Email deve ser válido")
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String email;
 
-    @NotBlank(message = "Senha é obrigatória")
-    @Column(nullable = false)
+    // Só chega no corpo do cadastro; o hash fica em user_credentials (ver CredentialService). Validada
+    // apenas no grupo Registration: a entidade persistida não tem senha
+    @NotBlank(message = "Senha é obrigatória", groups = Registration.class)
+    @Transient
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    @Schema(accessMode = Schema.AccessMode.WRITE_ONLY)
     private String password;
 
     @Column(name = "created_at")
@@ -30,6 +37,9 @@ public class User {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Grupo de validação do cadastro (POST /api/users)
+    public interface Registration {}
+
     // Construtores
     public User() {
         this.createdAt = LocalDateTime.now();
@@ -0,0 +1,39 @@
+package com.healthflow.healthflow_api.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Hash da senha, fora de users: listagens e respostas de usuários nunca carregam esta tabela
+@Entity
+@Table(name = "user_credentials")
+public class UserCredential {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "password_hash", nullable = false)
+    private String passwordHash;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Construtores
+    public UserCredential() {}
+
+    public UserCredential(Long userId, String passwordHash) {
+        this.userId = userId;
+        this.passwordHash = passwordHash;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // Getters e Setters
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public String getPasswordHash() { return passwordHash; }
+    public void setPasswordHash(String passwordHash) { this.passwordHash = passwordHash; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
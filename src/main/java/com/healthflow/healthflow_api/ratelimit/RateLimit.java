@@ -0,0 +1,20 @@
+package com.healthflow.healthflow_api.ratelimit;
+
+// Vazão sustentada (requisições por segundo) e rajada máxima de um balde
+public record RateLimit(double perSecond, int burst) {
+
+    public RateLimit {
+        if (perSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Limite inválido: " + perSecond + "/s, rajada " + burst);
+        }
+    }
+
+    long intervalNanos() {
+        return Math.max(1, Math.round(1_000_000_000 / perSecond));
+    }
+
+    // Divide o limite entre faixas; cada faixa recebe ao menos uma requisição de rajada
+    RateLimit split(int stripes) {
+        return new RateLimit(perSecond / stripes, Math.max(1, burst / stripes));
+    }
+}
@@ -0,0 +1,92 @@
+package com.healthflow.healthflow_api.ratelimit;
+
+import com.healthflow.healthflow_api.DTO.HealthActivityDTO;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+// Limite por usuário dos endpoints @RateLimited que recebem atividades no corpo (POST /api/activities,
+// /batch e /async), aplicado logo depois da leitura do corpo e antes do controller. Um lote consome
+// um token de cada usuário distinto e é recusado por inteiro se algum deles estiver acima do limite.
+// A importação lê o corpo como stream e fica só com os limites por cliente e global
+@ControllerAdvice
+@ConditionalOnProperty(name = "healthflow.rate-limit.enabled", havingValue = "true")
+public class RateLimitBodyAdvice extends RequestBodyAdviceAdapter {
+
+    private final RateLimiter rateLimiter;
+
+    public RateLimitBodyAdvice(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        return methodParameter.hasMethodAnnotation(RateLimited.class);
+    }
+
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter,
+                                Type targetType, Class<? extends HttpMessageConverter<?>> converterType) {
+        RateLimited rateLimited = parameter.getMethodAnnotation(RateLimited.class);
+        for (Long userId : userIdsOf(body)) {
+            long waitNanos = rateLimiter.tryAcquireUser(rateLimited.value(), userId);
+            if (waitNanos > 0) {
+                throw new RateLimitExceededException(RateLimitInterceptor.retryAfterSeconds(waitNanos));
+            }
+        }
+        return body;
+    }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<String> rateLimitExceeded(RateLimitExceededException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.retryAfterSeconds))
+                .contentType(MediaType.TEXT_PLAIN)
+                .body(RateLimitInterceptor.rejectionMessage(e.retryAfterSeconds));
+    }
+
+    // Atividades sem userId ficam para a validação do controller
+    private static Set<Long> userIdsOf(Object body) {
+        Set<Long> userIds = new LinkedHashSet<>();
+        if (body instanceof HealthActivityDTO activity) {
+            addUserId(userIds, activity);
+        } else if (body instanceof Collection<?> items) {
+            for (Object item : items) {
+                if (item instanceof HealthActivityDTO activity) {
+                    addUserId(userIds, activity);
+                }
+            }
+        }
+        return userIds;
+    }
+
+    private static void addUserId(Set<Long> userIds, HealthActivityDTO activity) {
+        if (activity.getUserId() != null) {
+            userIds.add(activity.getUserId());
+        }
+    }
+
+    static class RateLimitExceededException extends RuntimeException {
+
+        private final long retryAfterSeconds;
+
+        RateLimitExceededException(long retryAfterSeconds) {
+            super("Limite de requisições por usuário excedido");
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.healthflow.healthflow_api.ratelimit;
+
+// Orçamentos independentes: gravações e leituras caras não consomem os limites uma da outra
+public enum RateLimitBudget {
+    WRITES,
+    EXPENSIVE_READS
+}
@@ -0,0 +1,91 @@
+package com.healthflow.healthflow_api.ratelimit;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Aplica o limitador aos métodos anotados com @RateLimited, antes da leitura do corpo (o usuário
+// que vem no corpo é verificado depois, por RateLimitBodyAdvice). O cliente é
+// identificado pelo cabeçalho client-header (quando configurado e presente) ou pelo endereço remoto.
+// Uma requisição recusada recebe 429 com Retry-After em segundos inteiros, arredondados para cima
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final RateLimiter rateLimiter;
+
+    private final String clientHeader;
+
+    public RateLimitInterceptor(RateLimiter rateLimiter, String clientHeader) {
+        this.rateLimiter = rateLimiter;
+        this.clientHeader = clientHeader == null || clientHeader.isBlank() ? null : clientHeader;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        // O despacho que conclui uma resposta assíncrona passa de novo pelos interceptors
+        if (request.getDispatcherType() == DispatcherType.ASYNC || !(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        RateLimited rateLimited = handlerMethod.getMethodAnnotation(RateLimited.class);
+        if (rateLimited == null) {
+            return true;
+        }
+
+        long waitNanos = rateLimiter.tryAcquire(rateLimited.value(), clientOf(request),
+                userIdOf(request, rateLimited.userIdVariable()));
+        if (waitNanos == 0) {
+            return true;
+        }
+
+        long retryAfterSeconds = retryAfterSeconds(waitNanos);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write(rejectionMessage(retryAfterSeconds));
+        return false;
+    }
+
+    static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999));
+    }
+
+    static String rejectionMessage(long retryAfterSeconds) {
+        return "Limite de requisições excedido; tente novamente em " + retryAfterSeconds + " s";
+    }
+
+    private String clientOf(HttpServletRequest request) {
+        if (clientHeader != null) {
+            String client = request.getHeader(clientHeader);
+            if (client != null && !client.isBlank()) {
+                return client;
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    // Variável de caminho ausente ou não numérica: sem limite por usuário (o controller responde 400)
+    @SuppressWarnings("unchecked")
+    private static Long userIdOf(HttpServletRequest request, String variable) {
+        Map<String, String> variables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String value = variables == null ? null : variables.get(variable);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
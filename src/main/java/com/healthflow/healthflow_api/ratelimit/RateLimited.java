@@ -0,0 +1,18 @@
+package com.healthflow.healthflow_api.ratelimit;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Endpoint sujeito ao limitador de requisições. O limite por usuário usa a variável de caminho
+// userIdVariable, quando o endpoint tem uma, ou o userId das atividades do corpo; os limites por
+// cliente e global valem sempre
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RateLimited {
+
+    RateLimitBudget value();
+
+    String userIdVariable() default "userId";
+}
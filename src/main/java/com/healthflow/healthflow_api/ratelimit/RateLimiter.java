@@ -0,0 +1,130 @@
+package com.healthflow.healthflow_api.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Baldes de tokens sem bloqueio, no formato GCRA: cada balde é um único AtomicLong com o instante
+// teórico de chegada (TAT) da próxima requisição. Uma requisição é aceita se o TAT, avançado de um
+// intervalo, não passa de rajada × intervalo à frente do relógio; a atualização é um compareAndSet.
+// Os baldes por usuário e por cliente ficam em um cache Caffeine (segmentado internamente) e são
+// descartados após idle-timeout sem uso ou quando o total passa de max-buckets. O balde global de
+// cada orçamento é dividido em faixas, cada uma com uma fração do limite, escolhidas ao acaso por
+// requisição, para que as threads não disputem o mesmo AtomicLong
+public class RateLimiter {
+
+    public enum Scope { USER, CLIENT, GLOBAL }
+
+    private final Map<RateLimitBudget, Map<Scope, RateLimit>> limits;
+
+    private final Map<RateLimitBudget, AtomicLong[]> globalBuckets = new EnumMap<>(RateLimitBudget.class);
+
+    private final Map<RateLimitBudget, RateLimit> globalStripeLimits = new EnumMap<>(RateLimitBudget.class);
+
+    private final Map<RateLimitBudget, Map<Scope, LongAdder>> rejections = new EnumMap<>(RateLimitBudget.class);
+
+    private final Cache<BucketKey, AtomicLong> buckets;
+
+    private final Ticker ticker;
+
+    public RateLimiter(Map<RateLimitBudget, Map<Scope, RateLimit>> limits, int globalStripes,
+                       Duration idleTimeout, long maxBuckets, Ticker ticker) {
+        this.limits = limits;
+        this.ticker = ticker;
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(idleTimeout)
+                .maximumSize(maxBuckets)
+                .ticker(ticker)
+                .build();
+
+        for (RateLimitBudget budget : RateLimitBudget.values()) {
+            AtomicLong[] stripes = new AtomicLong[globalStripes];
+            for (int i = 0; i < globalStripes; i++) {
+                stripes[i] = new AtomicLong(Long.MIN_VALUE);
+            }
+            globalBuckets.put(budget, stripes);
+            globalStripeLimits.put(budget, limits.get(budget).get(Scope.GLOBAL).split(globalStripes));
+
+            Map<Scope, LongAdder> counters = new EnumMap<>(Scope.class);
+            for (Scope scope : Scope.values()) {
+                counters.put(scope, new LongAdder());
+            }
+            rejections.put(budget, counters);
+        }
+    }
+
+    // Nanossegundos até a requisição poder ser aceita, ou 0 quando ela foi aceita. Os baldes são
+    // verificados na ordem usuário, cliente e global; uma recusa em um balde posterior não devolve
+    // o token já consumido nos anteriores
+    public long tryAcquire(RateLimitBudget budget, String client, Long userId) {
+        Map<Scope, RateLimit> budgetLimits = limits.get(budget);
+        long now = ticker.read();
+
+        if (userId != null) {
+            long wait = acquire(bucket(budget, userId), budgetLimits.get(Scope.USER), now);
+            if (wait > 0) {
+                return reject(budget, Scope.USER, wait);
+            }
+        }
+
+        long wait = acquire(bucket(budget, client), budgetLimits.get(Scope.CLIENT), now);
+        if (wait > 0) {
+            return reject(budget, Scope.CLIENT, wait);
+        }
+
+        AtomicLong[] stripes = globalBuckets.get(budget);
+        AtomicLong stripe = stripes.length == 1 ? stripes[0] : stripes[ThreadLocalRandom.current().nextInt(stripes.length)];
+        wait = acquire(stripe, globalStripeLimits.get(budget), now);
+        return wait > 0 ? reject(budget, Scope.GLOBAL, wait) : 0;
+    }
+
+    // Só o balde do usuário, para endpoints em que o usuário vem no corpo e só é conhecido depois
+    // que os baldes do cliente e global já foram verificados pelo interceptor
+    public long tryAcquireUser(RateLimitBudget budget, Long userId) {
+        long wait = acquire(bucket(budget, userId), limits.get(budget).get(Scope.USER), ticker.read());
+        return wait > 0 ? reject(budget, Scope.USER, wait) : 0;
+    }
+
+    public long getRejections(RateLimitBudget budget, Scope scope) {
+        return rejections.get(budget).get(scope).sum();
+    }
+
+    public long getBucketCount() {
+        return buckets.estimatedSize();
+    }
+
+    private AtomicLong bucket(RateLimitBudget budget, Object id) {
+        return buckets.get(new BucketKey(budget, id), key -> new AtomicLong(Long.MIN_VALUE));
+    }
+
+    private long reject(RateLimitBudget budget, Scope scope, long wait) {
+        rejections.get(budget).get(scope).increment();
+        return wait;
+    }
+
+    private static long acquire(AtomicLong bucket, RateLimit limit, long now) {
+        long interval = limit.intervalNanos();
+        long capacity = interval * limit.burst();
+        while (true) {
+            long arrival = bucket.get();
+            long next = Math.max(arrival, now) + interval;
+            long ahead = next - now;
+            if (ahead > capacity) {
+                return ahead - capacity;
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // Usuários (Long) e clientes (String) nunca colidem, pois os tipos do id diferem
+    private record BucketKey(RateLimitBudget budget, Object id) {}
+}
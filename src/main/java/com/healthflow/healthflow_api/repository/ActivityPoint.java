@@ -0,0 +1,6 @@
+package com.healthflow.healthflow_api.repository;
+
+import java.time.LocalDate;
+
+// Projeção mínima (id, tipo, data, valor) para agregações que percorrem um intervalo de atividades
+public record ActivityPoint(long id, String activityType, LocalDate date, double activityValue) {}
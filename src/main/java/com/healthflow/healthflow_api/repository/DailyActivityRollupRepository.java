@@ -0,0 +1,91 @@
+package com.healthflow.healthflow_api.repository;
+
+
+import com.healthflow.healthflow_api.model.DailyActivityRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyActivityRollupRepository extends JpaRepository<DailyActivityRollup, Long>,
+        DailyActivityRollupRepositoryCustom {
+
+    @Modifying
+    @Query("DELETE FROM DailyActivityRollup r " +
+            "WHERE r.userId = :userId AND r.activityType = :activityType AND r.date = :date")
+    int deleteDay(@Param("userId") Long userId,
+                  @Param("activityType") String activityType,
+                  @Param("date") LocalDate date);
+
+    @Modifying
+    @Query("INSERT INTO DailyActivityRollup (userId, activityType, date, totalValue, activityCount, minValue, maxValue) " +
+            "SELECT ha.user.id, ha.activityType, ha.date, SUM(ha.activityValue), COUNT(ha), MIN(ha.activityValue), MAX(ha.activityValue) " +
+            "FROM HealthActivity ha " +
+            "WHERE ha.user.id = :userId AND ha.activityType = :activityType AND ha.date = :date " +
+            "GROUP BY ha.user.id, ha.activityType, ha.date")
+    int rebuildDay(@Param("userId") Long userId,
+                   @Param("activityType") String activityType,
+                   @Param("date") LocalDate date);
+
+    @Modifying
+    @Query("DELETE FROM DailyActivityRollup r WHERE r.userId = :userId")
+    int deleteByUser(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("INSERT INTO DailyActivityRollup (userId, activityType, date, totalValue, activityCount, minValue, maxValue) " +
+            "SELECT ha.user.id, ha.activityType, ha.date, SUM(ha.activityValue), COUNT(ha), MIN(ha.activityValue), MAX(ha.activityValue) " +
+            "FROM HealthActivity ha " +
+            "WHERE ha.user.id = :userId " +
+            "GROUP BY ha.user.id, ha.activityType, ha.date")
+    int rebuildUser(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM DailyActivityRollup r")
+    int deleteAllRollups();
+
+    @Modifying
+    @Query("INSERT INTO DailyActivityRollup (userId, activityType, date, totalValue, activityCount, minValue, maxValue) " +
+            "SELECT ha.user.id, ha.activityType, ha.date, SUM(ha.activityValue), COUNT(ha), MIN(ha.activityValue), MAX(ha.activityValue) " +
+            "FROM HealthActivity ha " +
+            "GROUP BY ha.user.id, ha.activityType, ha.date")
+    int rebuildAll();
+
+    @Query("SELECT r.activityType, SUM(r.totalValue), SUM(r.totalValue) / SUM(r.activityCount) " +
+            "FROM DailyActivityRollup r " +
+            "WHERE r.userId = :userId AND r.date >= :startDate " +
+            "GROUP BY r.activityType")
+    List<Object[]> findStatisticsByUser(@Param("userId") Long userId,
+                                        @Param("startDate") LocalDate startDate);
+
+    // Faixas de ids de usuários com agregados, uma por bloco de ids, usadas para particionar as
+    // consultas de coorte (com sharding, os usuários de cada shard de origem ocupam um bloco próprio)
+    @Query("SELECT new com.healthflow.healthflow_api.repository.UserIdRange(MIN(r.userId), MAX(r.userId)) " +
+            "FROM DailyActivityRollup r " +
+            "GROUP BY r.userId / :blockSize")
+    List<UserIdRange> findUserIdRanges(@Param("blockSize") long blockSize);
+
+    @Query("SELECT new com.healthflow.healthflow_api.repository.UserTypeTotal(r.userId, r.activityType, SUM(r.totalValue), SUM(r.activityCount)) " +
+            "FROM DailyActivityRollup r " +
+            "WHERE r.userId BETWEEN :firstUserId AND :lastUserId AND r.date BETWEEN :from AND :to " +
+            "GROUP BY r.userId, r.activityType")
+    List<UserTypeTotal> findTotalsByUserRange(@Param("firstUserId") Long firstUserId,
+                                              @Param("lastUserId") Long lastUserId,
+                                              @Param("from") LocalDate from,
+                                              @Param("to") LocalDate to);
+
+    @Query("SELECT new com.healthflow.healthflow_api.repository.UserTypeTotal(r.userId, r.activityType, SUM(r.totalValue), SUM(r.activityCount)) " +
+            "FROM DailyActivityRollup r " +
+            "WHERE r.userId BETWEEN :firstUserId AND :lastUserId AND r.activityType = :activityType " +
+            "AND r.date BETWEEN :from AND :to " +
+            "GROUP BY r.userId, r.activityType")
+    List<UserTypeTotal> findTotalsByUserRangeAndType(@Param("firstUserId") Long firstUserId,
+                                                     @Param("lastUserId") Long lastUserId,
+                                                     @Param("activityType") String activityType,
+                                                     @Param("from") LocalDate from,
+                                                     @Param("to") LocalDate to);
+}
@@ -0,0 +1,10 @@
+package com.healthflow.healthflow_api.repository;
+
+
+import java.time.LocalDate;
+
+public interface DailyActivityRollupRepositoryCustom {
+
+    int increment(Long userId, String activityType, LocalDate date,
+                  Double total, Long count, Double min, Double max);
+}
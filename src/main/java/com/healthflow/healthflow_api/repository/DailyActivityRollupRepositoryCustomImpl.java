@@ -0,0 +1,47 @@
+package com.healthflow.healthflow_api.repository;
+
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+
+// O incremento passa pelo JdbcTemplate, na mesma conexão da transação JPA em curso. Uma falha
+// vinda de uma consulta nativa do Hibernate marca a transação inteira para rollback; pelo JDBC,
+// o H2 desfaz só o comando que falhou, e a transação segue válida para a nova tentativa.
+// Sem flush do contexto de persistência: o incremento não lê entidades, e o flush antes de cada
+// chamada verificava todas as atividades do lote ainda no contexto (custo quadrático no saveBatch)
+public class DailyActivityRollupRepositoryCustomImpl implements DailyActivityRollupRepositoryCustom {
+
+    private static final String INCREMENT = "MERGE INTO daily_activity_rollups r " +
+            "USING (VALUES (CAST(? AS BIGINT), CAST(? AS VARCHAR), CAST(? AS DATE), " +
+            "CAST(? AS DOUBLE PRECISION), CAST(? AS BIGINT), CAST(? AS DOUBLE PRECISION), CAST(? AS DOUBLE PRECISION))) " +
+            "d (user_id, activity_type, date, total_value, activity_count, min_value, max_value) " +
+            "ON r.user_id = d.user_id AND r.activity_type = d.activity_type AND r.date = d.date " +
+            "WHEN MATCHED THEN UPDATE SET " +
+            "total_value = r.total_value + d.total_value, " +
+            "activity_count = r.activity_count + d.activity_count, " +
+            "min_value = LEAST(r.min_value, d.min_value), " +
+            "max_value = GREATEST(r.max_value, d.max_value) " +
+            "WHEN NOT MATCHED THEN INSERT (user_id, activity_type, date, total_value, activity_count, min_value, max_value) " +
+            "VALUES (d.user_id, d.activity_type, d.date, d.total_value, d.activity_count, d.min_value, d.max_value)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // O MERGE não é atômico: duas transações que gravam o primeiro valor da mesma chave não veem
+    // a linha uma da outra, e a segunda a inserir viola uk_rollup_user_type_date ao esperar o
+    // commit da primeira. Nesse ponto a linha já existe, e a nova tentativa cai no ramo MATCHED
+    @Override
+    public int increment(Long userId, String activityType, LocalDate date,
+                         Double total, Long count, Double min, Double max) {
+        Object[] args = {userId, activityType, Date.valueOf(date), total, count, min, max};
+        try {
+            return jdbcTemplate.update(INCREMENT, args);
+        } catch (DuplicateKeyException e) {
+            return jdbcTemplate.update(INCREMENT, args);
+        }
+    }
+}
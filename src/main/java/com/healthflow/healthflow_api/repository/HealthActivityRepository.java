@@ -1,24 +1,39 @@
 package com.healthflow.healthflow_api.repository;
 
 
+import com.healthflow.healthflow_api.DTO.HealthActivityResponseDTO;
 import com.healthflow.healthflow_api.model.HealthActivity;
 import com.healthflow.healthflow_api.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface HealthActivityRepository extends JpaRepository<HealthActivity, Long> {
 
-    List<HealthActivity> findByUserId(Long userId);
+    // Consultas escritas sobre ha.user.id: derivadas do nome do método, filtravam por users.id
+    // através de um LEFT JOIN, e o banco lia health_activities inteira
+    @Query("SELECT ha FROM HealthActivity ha WHERE ha.user.id = :userId")
+    List<HealthActivity> findByUserId(@Param("userId") Long userId);
 
-    List<HealthActivity> findByUserIdAndActivityType(Long userId, String activityType);
+    @Query("SELECT ha FROM HealthActivity ha WHERE ha.user.id = :userId AND ha.activityType = :activityType")
+    List<HealthActivity> findByUserIdAndActivityType(@Param("userId") Long userId,
+                                                     @Param("activityType") String activityType);
 
-    List<HealthActivity> findByUserIdAndDateBetween(Long userId, LocalDate startDate, LocalDate endDate);
+    @Query("SELECT ha FROM HealthActivity ha WHERE ha.user.id = :userId AND ha.date BETWEEN :startDate AND :endDate")
+    List<HealthActivity> findByUserIdAndDateBetween(@Param("userId") Long userId,
+                                                    @Param("startDate") LocalDate startDate,
+                                                    @Param("endDate") LocalDate endDate);
 
     @Query("SELECT ha FROM HealthActivity ha WHERE ha.user.id = :userId AND ha.date >= :startDate")
     List<HealthActivity> findRecentActivitiesByUser(@Param("userId") Long userId,
@@ -30,5 +45,121 @@ public interface HealthActivityRepository extends JpaRepository<HealthActivity,
             "GROUP BY ha.activityType")
     List<Object[]> findStatisticsByUser(@Param("userId") Long userId,
                                         @Param("startDate") LocalDate startDate);
-}
 
+    // Projeções direto para o DTO de resposta: uma única consulta com JOIN, sem carregar a entidade User.
+    // O filtro usa ha.user.id (coluna user_id) para que os índices compostos de health_activities sejam escolhidos
+    String RESPONSE_PROJECTION = "SELECT new com.healthflow.healthflow_api.DTO.HealthActivityResponseDTO(" +
+            "ha.id, u.id, u.name, ha.activityType, ha.date, ha.activityValue, ha.createdAt) " +
+            "FROM HealthActivity ha JOIN ha.user u ";
+
+    @Query(RESPONSE_PROJECTION + "WHERE ha.id = :id")
+    Optional<HealthActivityResponseDTO> findResponseById(@Param("id") Long id);
+
+    // Atendida pela restrição única (user_id, idempotency_key)
+    @Query(RESPONSE_PROJECTION + "WHERE ha.user.id = :userId AND ha.idempotencyKey = :idempotencyKey")
+    Optional<HealthActivityResponseDTO> findResponseByUserIdAndIdempotencyKey(@Param("userId") Long userId,
+                                                                              @Param("idempotencyKey") String idempotencyKey);
+
+    @Query(RESPONSE_PROJECTION + "WHERE ha.user.id = :userId")
+    List<HealthActivityResponseDTO> findResponsesByUserId(@Param("userId") Long userId);
+
+    @Query(RESPONSE_PROJECTION + "WHERE ha.user.id = :userId AND ha.activityType = :activityType")
+    List<HealthActivityResponseDTO> findResponsesByUserIdAndActivityType(@Param("userId") Long userId,
+                                                                         @Param("activityType") String activityType);
+
+    // Limite inferior das leituras do histórico completo em ordem de data. Só com "user_id = ?", o H2
+    // escolhe o índice da chave estrangeira (user_id) e ordena todo o histórico antes da primeira
+    // linha; com a faixa em date, usa (user_id, date), que já entrega as linhas na ordem pedida.
+    // Ano 1, e não LocalDate.MIN, que não chega ao banco como uma data válida
+    LocalDate EARLIEST_DATE = LocalDate.of(1, 1, 1);
+
+    // Paginação por cursor (keyset) sobre (date, id). A condição "date >= :date" isolada permite
+    // que o banco use a faixa do índice (user_id, date) em vez de filtrar todas as linhas do usuário.
+    // O ORDER BY começa pelas colunas de igualdade do índice para que o H2 reconheça a ordem dele
+    // e pare de ler ao completar a página
+    default List<HealthActivityResponseDTO> findFirstPageByUser(Long userId, Limit limit) {
+        return findFirstPageByUserFrom(userId, EARLIEST_DATE, limit);
+    }
+
+    @Query(RESPONSE_PROJECTION +
+            "WHERE ha.user.id = :userId AND ha.date >= :from " +
+            "ORDER BY ha.user.id, ha.date, ha.id")
+    List<HealthActivityResponseDTO> findFirstPageByUserFrom(@Param("userId") Long userId,
+                                                            @Param("from") LocalDate from,
+                                                            Limit limit);
+
+    @Query(RESPONSE_PROJECTION +
+            "WHERE ha.user.id = :userId AND ha.date >= :date AND (ha.date > :date OR ha.id > :id) " +
+            "ORDER BY ha.user.id, ha.date, ha.id")
+    List<HealthActivityResponseDTO> findPageByUserAfter(@Param("userId") Long userId,
+                                                        @Param("date") LocalDate date,
+                                                        @Param("id") Long id,
+                                                        Limit limit);
+
+    @Query(RESPONSE_PROJECTION +
+            "WHERE ha.user.id = :userId AND ha.activityType = :activityType " +
+            "ORDER BY ha.user.id, ha.activityType, ha.date, ha.id")
+    List<HealthActivityResponseDTO> findFirstPageByUserAndType(@Param("userId") Long userId,
+                                                               @Param("activityType") String activityType,
+                                                               Limit limit);
+
+    @Query(RESPONSE_PROJECTION +
+            "WHERE ha.user.id = :userId AND ha.activityType = :activityType " +
+            "AND ha.date >= :date AND (ha.date > :date OR ha.id > :id) " +
+            "ORDER BY ha.user.id, ha.activityType, ha.date, ha.id")
+    List<HealthActivityResponseDTO> findPageByUserAndTypeAfter(@Param("userId") Long userId,
+                                                               @Param("activityType") String activityType,
+                                                               @Param("date") LocalDate date,
+                                                               @Param("id") Long id,
+                                                               Limit limit);
+
+    // Leitura incremental via cursor JDBC para a listagem em streaming
+    default Stream<HealthActivityResponseDTO> streamByUser(Long userId) {
+        return streamByUserFrom(userId, EARLIEST_DATE);
+    }
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(RESPONSE_PROJECTION +
+            "WHERE ha.user.id = :userId AND ha.date >= :from " +
+            "ORDER BY ha.user.id, ha.date, ha.id")
+    Stream<HealthActivityResponseDTO> streamByUserFrom(@Param("userId") Long userId, @Param("from") LocalDate from);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(RESPONSE_PROJECTION +
+            "WHERE ha.user.id = :userId AND ha.activityType = :activityType " +
+            "ORDER BY ha.user.id, ha.activityType, ha.date, ha.id")
+    Stream<HealthActivityResponseDTO> streamByUserAndType(@Param("userId") Long userId,
+                                                          @Param("activityType") String activityType);
+
+    // Pontos de um intervalo em ordem de data, para a série temporal calculada em uma única passada
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.healthflow.healthflow_api.repository.ActivityPoint(ha.id, ha.activityType, ha.date, ha.activityValue) " +
+            "FROM HealthActivity ha " +
+            "WHERE ha.user.id = :userId AND ha.date BETWEEN :from AND :to " +
+            "ORDER BY ha.user.id, ha.date")
+    Stream<ActivityPoint> streamPointsByUser(@Param("userId") Long userId,
+                                             @Param("from") LocalDate from,
+                                             @Param("to") LocalDate to);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.healthflow.healthflow_api.repository.ActivityPoint(ha.id, ha.activityType, ha.date, ha.activityValue) " +
+            "FROM HealthActivity ha " +
+            "WHERE ha.user.id = :userId AND ha.activityType = :activityType AND ha.date BETWEEN :from AND :to " +
+            "ORDER BY ha.user.id, ha.activityType, ha.date")
+    Stream<ActivityPoint> streamPointsByUserAndType(@Param("userId") Long userId,
+                                                    @Param("activityType") String activityType,
+                                                    @Param("from") LocalDate from,
+                                                    @Param("to") LocalDate to);
+
+    // Histórico completo do usuário em ordem (data, id), para carregar o armazenamento colunar
+    default Stream<ActivityPoint> streamPointsByUser(Long userId) {
+        return streamPointsByUserFrom(userId, EARLIEST_DATE);
+    }
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.healthflow.healthflow_api.repository.ActivityPoint(ha.id, ha.activityType, ha.date, ha.activityValue) " +
+            "FROM HealthActivity ha " +
+            "WHERE ha.user.id = :userId AND ha.date >= :from " +
+            "ORDER BY ha.user.id, ha.date, ha.id")
+    Stream<ActivityPoint> streamPointsByUserFrom(@Param("userId") Long userId, @Param("from") LocalDate from);
+}
@@ -0,0 +1,24 @@
+package com.healthflow.healthflow_api.repository;
+
+import com.healthflow.healthflow_api.model.UserCredential;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface UserCredentialRepository extends JpaRepository<UserCredential, Long> {
+
+    @Query("SELECT c.passwordHash FROM UserCredential c WHERE c.userId = :userId")
+    Optional<String> findPasswordHash(@Param("userId") Long userId);
+
+    // Troca o hash só se ele ainda for o lido na verificação (uma troca de senha concorrente prevalece)
+    @Modifying
+    @Query("UPDATE UserCredential c SET c.passwordHash = :replacement, c.updatedAt = CURRENT_TIMESTAMP "
+            + "WHERE c.userId = :userId AND c.passwordHash = :expected")
+    int replacePasswordHash(@Param("userId") Long userId, @Param("expected") String expected,
+                            @Param("replacement") String replacement);
+}
@@ -0,0 +1,4 @@
+package com.healthflow.healthflow_api.repository;
+
+// Menor e maior id de usuário com agregados dentro de um bloco de ids
+public record UserIdRange(long firstUserId, long lastUserId) {}
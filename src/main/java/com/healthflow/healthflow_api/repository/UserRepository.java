@@ -1,13 +1,41 @@
 package com.healthflow.healthflow_api.repository;
 
+import com.healthflow.healthflow_api.DTO.UserResponseDTO;
 import com.healthflow.healthflow_api.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
-}
\ No newline at end of file
+
+    // Projeção direto no DTO: a listagem não hidrata entidades nem as coloca no contexto de persistência
+    String RESPONSE_PROJECTION = "SELECT new com.healthflow.healthflow_api.DTO.UserResponseDTO(u.id, u.name, u.email) " +
+            "FROM User u ";
+
+    // Paginação por cursor (keyset) sobre o id, pela chave primária
+    @Query(RESPONSE_PROJECTION + "ORDER BY u.id")
+    List<UserResponseDTO> findFirstPage(Limit limit);
+
+    @Query(RESPONSE_PROJECTION + "WHERE u.id > :afterId ORDER BY u.id")
+    List<UserResponseDTO> findPageAfter(@Param("afterId") Long afterId, Limit limit);
+
+    // Busca por prefixo do email como faixa [prefix, prefixEnd), que o banco resolve no índice único
+    // uk_users_email (um LIKE com parâmetro nem sempre vira faixa de índice)
+    @Query(RESPONSE_PROJECTION + "WHERE u.email >= :prefix AND u.email < :prefixEnd ORDER BY u.email")
+    List<UserResponseDTO> findFirstPageByEmailPrefix(@Param("prefix") String prefix,
+                                                     @Param("prefixEnd") String prefixEnd,
+                                                     Limit limit);
+
+    @Query(RESPONSE_PROJECTION + "WHERE u.email > :afterEmail AND u.email < :prefixEnd ORDER BY u.email")
+    List<UserResponseDTO> findPageByEmailPrefixAfter(@Param("afterEmail") String afterEmail,
+                                                     @Param("prefixEnd") String prefixEnd,
+                                                     Limit limit);
+}
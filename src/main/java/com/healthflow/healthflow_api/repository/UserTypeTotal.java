@@ -0,0 +1,4 @@
+package com.healthflow.healthflow_api.repository;
+
+// Total de um usuário em um tipo de atividade, somado a partir dos agregados diários
+public record UserTypeTotal(long userId, String activityType, double totalValue, long activityCount) {}
@@ -0,0 +1,260 @@
+package com.healthflow.healthflow_api.service;
+
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthflow.healthflow_api.DTO.HealthActivityResponseDTO;
+import com.healthflow.healthflow_api.DTO.StatisticsDeltaDTO;
+import com.healthflow.healthflow_api.event.ActivityChangeEvent;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+// Feed SSE por usuário. Uma conexão ociosa é só um SseEmitter registrado (nenhuma thread presa);
+// cada assinante tem um buffer limitado, esvaziado por um pool pequeno de threads de envio.
+// Quem não acompanha o ritmo e enche o buffer é desconectado e reconecta pelo EventSource.
+@Service
+@Timed("healthflow.service")
+public class ActivityFeedService {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserService userService;
+
+    private final ConcurrentHashMap<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    private final int maxSubscribers;
+
+    private final int bufferSize;
+
+    private final Duration timeout;
+
+    private final ExecutorService sender;
+
+    private final Counter evicted;
+
+    public ActivityFeedService(@Value("${healthflow.feed.max-subscribers:20000}") int maxSubscribers,
+                               @Value("${healthflow.feed.buffer-size:64}") int bufferSize,
+                               @Value("${healthflow.feed.timeout:30m}") Duration timeout,
+                               @Value("${healthflow.feed.sender-threads:4}") int senderThreads,
+                               MeterRegistry registry) {
+        this.maxSubscribers = maxSubscribers;
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "activity-feed-sender-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("healthflow.feed.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Conexões SSE abertas")
+                .register(registry);
+        this.evicted = Counter.builder("healthflow.feed.evicted")
+                .description("Assinantes desconectados por buffer cheio")
+                .register(registry);
+    }
+
+    // Retorna null quando o limite de assinantes foi atingido. Um usuário fora do cache e da
+    // réplica ainda é procurado no primário antes de a assinatura ser recusada
+    public SseEmitter subscribe(Long userId) {
+        if (userService.findById(userId).isEmpty() && !userService.existsById(userId)) {
+            throw new RuntimeException("Usuário não encontrado");
+        }
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            return null;
+        }
+
+        Subscriber subscriber = new Subscriber(userId, new SseEmitter(timeout.toMillis()));
+        subscriber.emitter.onCompletion(() -> remove(subscriber));
+        subscriber.emitter.onTimeout(() -> remove(subscriber));
+        subscriber.emitter.onError(error -> remove(subscriber));
+        subscribers.compute(userId, (id, set) -> {
+            Set<Subscriber> userSubscribers = set != null ? set : ConcurrentHashMap.newKeySet();
+            userSubscribers.add(subscriber);
+            return userSubscribers;
+        });
+
+        // Primeira escrita envia os cabeçalhos da resposta ao cliente
+        subscriber.offer(SseEmitter.event().comment("conectado").build());
+        return subscriber.emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    // Após o commit, para que o assinante nunca veja uma atividade revertida. Cada evento é
+    // serializado uma única vez, independente do número de assinantes do usuário.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onActivityChange(ActivityChangeEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+
+        String eventName = event.kind() == ActivityChangeEvent.Kind.CREATED ? "activity-created" : "activity-deleted";
+        Map<Long, List<HealthActivityResponseDTO>> byUser = event.activities().stream()
+                .filter(activity -> subscribers.containsKey(activity.getUserId()))
+                .collect(Collectors.groupingBy(HealthActivityResponseDTO::getUserId));
+
+        // Um evento por alteração (com todas as atividades do lote), para que um lote grande
+        // não ocupe o buffer inteiro do assinante
+        byUser.forEach((userId, activities) -> broadcast(userId, List.of(
+                jsonEvent(eventName, activities),
+                jsonEvent("statistics-delta", statisticsDeltas(userId, activities, event.kind())))));
+    }
+
+    // Mantém as conexões ociosas vivas em proxies e detecta clientes que já se desconectaram
+    @Scheduled(fixedDelayString = "${healthflow.feed.heartbeat-interval:30s}")
+    public void sendHeartbeats() {
+        Set<ResponseBodyEmitter.DataWithMediaType> heartbeat = SseEmitter.event().comment("heartbeat").build();
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(subscriber -> subscriber.offer(heartbeat)));
+    }
+
+    // Encerra as conexões antes do desligamento gracioso do Tomcat, que esperaria por elas
+    @EventListener(ContextClosedEvent.class)
+    public void completeAll() {
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+    }
+
+    private void broadcast(Long userId, List<Set<ResponseBodyEmitter.DataWithMediaType>> events) {
+        Set<Subscriber> userSubscribers = subscribers.get(userId);
+        if (userSubscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : userSubscribers) {
+            events.forEach(subscriber::offer);
+        }
+    }
+
+    private List<StatisticsDeltaDTO> statisticsDeltas(Long userId, List<HealthActivityResponseDTO> activities,
+                                                      ActivityChangeEvent.Kind kind) {
+        int sign = kind == ActivityChangeEvent.Kind.CREATED ? 1 : -1;
+        Map<DeltaKey, StatisticsDeltaDTO> deltas = new LinkedHashMap<>();
+        for (HealthActivityResponseDTO activity : activities) {
+            StatisticsDeltaDTO delta = deltas.computeIfAbsent(new DeltaKey(activity.getActivityType(), activity.getDate()),
+                    key -> new StatisticsDeltaDTO(userId, key.activityType(), key.date(), 0, 0));
+            delta.setActivityCount(delta.getActivityCount() + sign);
+            delta.setTotalValue(delta.getTotalValue() + sign * activity.getActivityValue());
+        }
+        return new ArrayList<>(deltas.values());
+    }
+
+    private Set<ResponseBodyEmitter.DataWithMediaType> jsonEvent(String name, Object data) {
+        try {
+            return SseEmitter.event()
+                    .name(name)
+                    .data(objectMapper.writeValueAsString(data), MediaType.APPLICATION_JSON)
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return;
+        }
+        subscribers.computeIfPresent(subscriber.userId, (id, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+        subscriberCount.decrementAndGet();
+    }
+
+    private void evict(Subscriber subscriber) {
+        if (!subscriber.closed.get()) {
+            evicted.increment();
+            remove(subscriber);
+            subscriber.emitter.complete();
+        }
+    }
+
+    private record DeltaKey(String activityType, LocalDate date) {}
+
+    private final class Subscriber {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final ConcurrentLinkedQueue<Set<ResponseBodyEmitter.DataWithMediaType>> buffer = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger buffered = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        private void offer(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+            if (closed.get()) {
+                return;
+            }
+            if (buffered.incrementAndGet() > bufferSize) {
+                evict(this);
+                return;
+            }
+
+            buffer.offer(event);
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        // Um único envio por assinante por vez; quem enfileirar durante o envio é atendido na mesma execução
+        private void drain() {
+            try {
+                do {
+                    Set<ResponseBodyEmitter.DataWithMediaType> event;
+                    while (!closed.get() && (event = buffer.poll()) != null) {
+                        buffered.decrementAndGet();
+                        emitter.send(event);
+                    }
+                    draining.set(false);
+                } while (!closed.get() && !buffer.isEmpty() && draining.compareAndSet(false, true));
+            } catch (IOException | IllegalStateException e) {
+                // Cliente desconectado ou emitter já encerrado
+                remove(this);
+            }
+        }
+    }
+}
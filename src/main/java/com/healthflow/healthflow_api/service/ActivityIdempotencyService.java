@@ -0,0 +1,124 @@
+package com.healthflow.healthflow_api.service;
+
+
+import com.healthflow.healthflow_api.DTO.HealthActivityDTO;
+import com.healthflow.healthflow_api.DTO.HealthActivityResponseDTO;
+import com.healthflow.healthflow_api.config.CacheConfig;
+import com.healthflow.healthflow_api.repository.HealthActivityRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@Timed("healthflow.service")
+public class ActivityIdempotencyService {
+
+    // Mesmo tamanho da coluna idempotency_key
+    public static final int MAX_KEY_LENGTH = 64;
+
+    public record Result(HealthActivityResponseDTO activity, boolean replayed) {}
+
+    @Autowired
+    private HealthActivityService activityService;
+
+    @Autowired
+    private HealthActivityRepository activityRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Gravações em andamento por (usuário, chave): as repetições simultâneas aguardam a primeira
+    private final ConcurrentHashMap<String, CompletableFuture<HealthActivityResponseDTO>> inFlight = new ConcurrentHashMap<>();
+
+    // Grava a atividade uma única vez por (usuário, chave). Uma repetição devolve a resposta original,
+    // vinda do cache de chaves recentes, da gravação em andamento ou do banco, sem novo INSERT
+    public Result save(HealthActivityDTO activityDTO, String idempotencyKey) {
+        validateKey(idempotencyKey);
+        String key = activityDTO.getUserId() + ":" + idempotencyKey;
+        Cache recentKeys = cacheManager.getCache(CacheConfig.IDEMPOTENCY_KEYS);
+
+        HealthActivityResponseDTO recent = recentKeys.get(key, HealthActivityResponseDTO.class);
+        if (recent != null) {
+            return replay(activityDTO, recent);
+        }
+
+        CompletableFuture<HealthActivityResponseDTO> saving = new CompletableFuture<>();
+        CompletableFuture<HealthActivityResponseDTO> running = inFlight.putIfAbsent(key, saving);
+        if (running != null) {
+            return replay(activityDTO, await(running));
+        }
+
+        try {
+            Result result = saveOnce(activityDTO, idempotencyKey);
+            recentKeys.put(key, result.activity());
+            saving.complete(result.activity());
+            return result.replayed() ? replay(activityDTO, result.activity()) : result;
+        } catch (RuntimeException e) {
+            saving.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, saving);
+        }
+    }
+
+    private Result saveOnce(HealthActivityDTO activityDTO, String idempotencyKey) {
+        Optional<HealthActivityResponseDTO> existing =
+                activityRepository.findResponseByUserIdAndIdempotencyKey(activityDTO.getUserId(), idempotencyKey);
+        if (existing.isPresent()) {
+            return new Result(existing.get(), true);
+        }
+
+        try {
+            return new Result(activityService.save(activityDTO, idempotencyKey), false);
+        } catch (DataIntegrityViolationException e) {
+            // Outra instância gravou a mesma chave entre a consulta e o commit. A releitura usa uma
+            // transação de escrita para ir ao primário, pois a réplica pode ainda não ter a linha
+            return new TransactionTemplate(transactionManager)
+                    .execute(status -> activityRepository.findResponseByUserIdAndIdempotencyKey(activityDTO.getUserId(), idempotencyKey))
+                    .map(activity -> new Result(activity, true))
+                    .orElseThrow(() -> e);
+        }
+    }
+
+    // A mesma chave com outros dados é um erro do cliente, não uma repetição
+    private Result replay(HealthActivityDTO activityDTO, HealthActivityResponseDTO original) {
+        boolean sameRequest = Objects.equals(activityDTO.getActivityType(), original.getActivityType())
+                && Objects.equals(activityDTO.getDate(), original.getDate())
+                && Objects.equals(activityDTO.getActivityValue(), original.getActivityValue());
+        if (!sameRequest) {
+            throw new IdempotencyKeyConflictException("Idempotency-Key já utilizada com outros dados");
+        }
+        return new Result(original, true);
+    }
+
+    private HealthActivityResponseDTO await(CompletableFuture<HealthActivityResponseDTO> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void validateKey(String idempotencyKey) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key deve ter entre 1 e " + MAX_KEY_LENGTH + " caracteres");
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.healthflow.healthflow_api.service;
+
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthflow.healthflow_api.DTO.BatchItemResultDTO;
+import com.healthflow.healthflow_api.DTO.HealthActivityDTO;
+import com.healthflow.healthflow_api.DTO.ImportRejectionDTO;
+import com.healthflow.healthflow_api.DTO.ImportReportDTO;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+@Service
+@Timed("healthflow.service")
+public class ActivityImportService {
+
+    public enum Format { NDJSON, CSV }
+
+    @Autowired
+    private HealthActivityService activityService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${healthflow.activities.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${healthflow.activities.import.max-reported-rejections:100}")
+    private int maxReportedRejections;
+
+    // Uma linha sem quebra não pode crescer até esgotar a memória: acima do limite ela é rejeitada
+    @Value("${healthflow.activities.import.max-line-length:8192}")
+    private int maxLineLength;
+
+    // Lê o corpo linha a linha e grava em blocos transacionais de tamanho fixo,
+    // mantendo em memória apenas o bloco corrente
+    public ImportReportDTO importActivities(InputStream body, Format format, long offset) {
+        ImportReportDTO report = new ImportReportDTO();
+        report.setResumeOffset(offset);
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        List<HealthActivityDTO> chunk = new ArrayList<>(chunkSize);
+        List<Long> chunkLines = new ArrayList<>(chunkSize);
+        PendingRejections pending = new PendingRejections();
+        long startNanos = System.nanoTime();
+        long lineNumber = 0;
+
+        try (BoundedLineReader reader = new BoundedLineReader(new InputStreamReader(body, StandardCharsets.UTF_8), maxLineLength)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber <= offset) {
+                    continue;
+                }
+
+                report.setLinesRead(report.getLinesRead() + 1);
+                if (reader.isTruncated()) {
+                    pending.add(lineNumber, "Linha acima de " + maxLineLength + " caracteres");
+                    continue;
+                }
+                if (line.isBlank() || (format == Format.CSV && lineNumber == 1 && isCsvHeader(line))) {
+                    continue;
+                }
+
+                try {
+                    chunk.add(parse(line, format));
+                    chunkLines.add(lineNumber);
+                } catch (IllegalArgumentException e) {
+                    pending.add(lineNumber, e.getMessage());
+                }
+
+                if (chunk.size() >= chunkSize) {
+                    flush(transactionTemplate, chunk, chunkLines, pending, report);
+                    report.setResumeOffset(lineNumber);
+                }
+            }
+
+            flush(transactionTemplate, chunk, chunkLines, pending, report);
+            report.setResumeOffset(lineNumber);
+            report.setCompleted(true);
+        } catch (IOException | RuntimeException e) {
+            report.setError(e.getMessage());
+        }
+
+        double elapsedSeconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+        report.setRowsPerSecond(elapsedSeconds > 0 ? report.getImported() / elapsedSeconds : 0);
+        return report;
+    }
+
+    // As rejeições do bloco só entram no relatório depois do commit, junto com o avanço do
+    // resumeOffset: se a importação cair antes, a retomada relê essas linhas e as rejeita de novo
+    private void flush(TransactionTemplate transactionTemplate, List<HealthActivityDTO> chunk,
+                       List<Long> chunkLines, PendingRejections pending, ImportReportDTO report) {
+        if (!chunk.isEmpty()) {
+            List<BatchItemResultDTO> results = transactionTemplate.execute(status -> {
+                List<BatchItemResultDTO> saved = activityService.saveBatch(chunk);
+                // Descarta as entidades gravadas para que o contexto de persistência não cresça
+                entityManager.flush();
+                entityManager.clear();
+                return saved;
+            });
+
+            for (BatchItemResultDTO result : results) {
+                if (result.isSuccess()) {
+                    report.setImported(report.getImported() + 1);
+                } else {
+                    pending.add(chunkLines.get(result.getIndex()), result.getError());
+                }
+            }
+
+            chunk.clear();
+            chunkLines.clear();
+        }
+
+        report.setRejected(report.getRejected() + pending.count);
+        pending.rejections.sort(Comparator.comparingLong(ImportRejectionDTO::getLine));
+        for (ImportRejectionDTO rejection : pending.rejections) {
+            if (report.getRejections().size() >= maxReportedRejections) {
+                break;
+            }
+            report.getRejections().add(rejection);
+        }
+        pending.clear();
+    }
+
+    private HealthActivityDTO parse(String line, Format format) {
+        return format == Format.CSV ? parseCsv(line) : parseJson(line);
+    }
+
+    private HealthActivityDTO parseJson(String line) {
+        try {
+            return objectMapper.readValue(line, HealthActivityDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("JSON inválido: " + e.getOriginalMessage());
+        }
+    }
+
+    // Colunas: userId,activityType,date,activityValue
+    private HealthActivityDTO parseCsv(String line) {
+        String[] columns = line.split(",", -1);
+        if (columns.length != 4) {
+            throw new IllegalArgumentException("CSV inválido: esperadas 4 colunas, encontradas " + columns.length);
+        }
+
+        try {
+            return new HealthActivityDTO(
+                    columns[0].isBlank() ? null : Long.valueOf(columns[0].trim()),
+                    columns[1].isBlank() ? null : columns[1].trim(),
+                    columns[2].isBlank() ? null : LocalDate.parse(columns[2].trim()),
+                    columns[3].isBlank() ? null : Double.valueOf(columns[3].trim())
+            );
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("CSV inválido: " + e.getMessage());
+        }
+    }
+
+    private boolean isCsvHeader(String line) {
+        String firstColumn = line.split(",", 2)[0].trim();
+        return !firstColumn.isEmpty() && !Character.isDigit(firstColumn.charAt(0));
+    }
+
+    // Rejeições do bloco ainda não gravado; guarda no máximo as que caberiam no relatório
+    private final class PendingRejections {
+        private final List<ImportRejectionDTO> rejections = new ArrayList<>();
+        private long count;
+
+        private void add(long lineNumber, String error) {
+            count++;
+            if (rejections.size() < maxReportedRejections) {
+                rejections.add(new ImportRejectionDTO(lineNumber, error));
+            }
+        }
+
+        private void clear() {
+            rejections.clear();
+            count = 0;
+        }
+    }
+}
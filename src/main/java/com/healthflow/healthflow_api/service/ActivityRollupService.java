@@ -0,0 +1,133 @@
+package com.healthflow.healthflow_api.service;
+
+
+import com.healthflow.healthflow_api.config.CacheConfig;
+import com.healthflow.healthflow_api.model.HealthActivity;
+import com.healthflow.healthflow_api.repository.DailyActivityRollupRepository;
+import com.healthflow.healthflow_api.sharding.ShardRouter;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+@Service
+@Timed("healthflow.service")
+public class ActivityRollupService {
+
+    @Autowired
+    private DailyActivityRollupRepository rollupRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    // Presente apenas com healthflow.sharding.enabled=true
+    @Autowired(required = false)
+    private ShardRouter shardRouter;
+
+    @Transactional
+    public void applyInsert(HealthActivity activity) {
+        double value = activity.getActivityValue();
+        rollupRepository.increment(activity.getUser().getId(), activity.getActivityType(), activity.getDate(),
+                value, 1L, value, value);
+    }
+
+    // Agrupa o lote por (usuário, tipo, dia) para aplicar um único incremento por chave
+    @Transactional
+    public void applyInserts(List<HealthActivity> activities) {
+        Map<RollupKey, RollupDelta> deltas = new HashMap<>();
+        for (HealthActivity activity : activities) {
+            RollupKey key = new RollupKey(activity.getUser().getId(), activity.getActivityType(), activity.getDate());
+            deltas.computeIfAbsent(key, k -> new RollupDelta()).add(activity.getActivityValue());
+        }
+
+        deltas.forEach((key, delta) -> rollupRepository.increment(key.userId(), key.activityType(), key.date(),
+                delta.total, delta.count, delta.min, delta.max));
+    }
+
+    // Mínimo e máximo não podem ser decrementados, então o dia afetado é recalculado
+    @Transactional
+    public void applyDelete(HealthActivity activity) {
+        Long userId = activity.getUser().getId();
+        rollupRepository.deleteDay(userId, activity.getActivityType(), activity.getDate());
+        rollupRepository.rebuildDay(userId, activity.getActivityType(), activity.getDate());
+    }
+
+    @Transactional(readOnly = true)
+    public List<Object[]> findStatistics(Long userId, LocalDate startDate) {
+        return rollupRepository.findStatisticsByUser(userId, startDate);
+    }
+
+    @Transactional
+    public int rebuildUser(Long userId) {
+        rollupRepository.deleteByUser(userId);
+        int rows = rollupRepository.rebuildUser(userId);
+        statisticsCache().evict(userId);
+        return rows;
+    }
+
+    // Reconstrói todos os agregados a partir das atividades brutas (reparo periódico)
+    @Scheduled(cron = "${healthflow.rollups.repair-cron:0 30 3 * * *}")
+    @Transactional
+    public int rebuildAll() {
+        int rows = rebuildAllShards();
+        statisticsCache().clear();
+        return rows;
+    }
+
+    // Mesma reconstrução, executada no executor de @Async para não ocupar a thread da requisição
+    @Async
+    @Transactional
+    public CompletableFuture<Integer> rebuildAllAsync() {
+        int rows = rebuildAllShards();
+        statisticsCache().clear();
+        return CompletableFuture.completedFuture(rows);
+    }
+
+    // Com sharding, cada shard é reconstruído em uma transação própria
+    private int rebuildAllShards() {
+        if (shardRouter == null) {
+            return rebuildAllRollups();
+        }
+        int rows = 0;
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            rows += shardRouter.inTransaction(shard, this::rebuildAllRollups);
+        }
+        return rows;
+    }
+
+    private int rebuildAllRollups() {
+        rollupRepository.deleteAllRollups();
+        return rollupRepository.rebuildAll();
+    }
+
+    // As estatísticas em cache são derivadas dos agregados; a remoção acontece após o commit
+    private TransactionAwareCacheDecorator statisticsCache() {
+        return new TransactionAwareCacheDecorator(cacheManager.getCache(CacheConfig.ACTIVITY_STATISTICS));
+    }
+
+    private record RollupKey(Long userId, String activityType, LocalDate date) {}
+
+    private static final class RollupDelta {
+        private double total;
+        private long count;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+
+        private void add(double value) {
+            total += value;
+            count++;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.healthflow.healthflow_api.service;
+
+
+import com.healthflow.healthflow_api.DTO.ActivitySeriesDTO;
+import com.healthflow.healthflow_api.DTO.SeriesBucketDTO;
+import com.healthflow.healthflow_api.analytics.ActivityPointSink;
+import com.healthflow.healthflow_api.analytics.ColumnarActivityStore;
+import com.healthflow.healthflow_api.repository.ActivityPoint;
+import com.healthflow.healthflow_api.repository.HealthActivityRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+@Service
+@Timed("healthflow.service")
+public class ActivitySeriesService {
+
+    public enum Bucket {
+        DAY, WEEK, MONTH;
+
+        LocalDate startOf(LocalDate date) {
+            return switch (this) {
+                case DAY -> date;
+                case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH -> date.withDayOfMonth(1);
+            };
+        }
+
+        LocalDate next(LocalDate start) {
+            return switch (this) {
+                case DAY -> start.plusDays(1);
+                case WEEK -> start.plusWeeks(1);
+                case MONTH -> start.plusMonths(1);
+            };
+        }
+    }
+
+    @Autowired
+    private HealthActivityRepository activityRepository;
+
+    // Presente apenas com healthflow.analytics.columnar-store.enabled=true
+    @Autowired(required = false)
+    private ColumnarActivityStore columnarStore;
+
+    // Percorre o intervalo uma única vez em ordem de data: cada tipo mantém só o intervalo
+    // corrente em acumuladores primitivos, emitido assim que a data passa para o próximo
+    @Transactional(readOnly = true)
+    public List<ActivitySeriesDTO> findSeries(Long userId, String type, LocalDate from, LocalDate to, Bucket bucket) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Data inicial posterior à data final");
+        }
+
+        SeriesBuilder builder = new SeriesBuilder(bucket);
+        if (columnarStore != null) {
+            columnarStore.scan(userId, type, from, to, builder);
+        } else {
+            try (Stream<ActivityPoint> points = type == null
+                    ? activityRepository.streamPointsByUser(userId, from, to)
+                    : activityRepository.streamPointsByUserAndType(userId, type, from, to)) {
+                points.forEach(point -> builder.accept(point.activityType(), (int) point.date().toEpochDay(),
+                        point.activityValue()));
+            }
+        }
+        return builder.build();
+    }
+
+    private static final class SeriesBuilder implements ActivityPointSink {
+        private final Bucket bucket;
+        private final Map<String, TypeSeries> series = new HashMap<>();
+
+        private SeriesBuilder(Bucket bucket) {
+            this.bucket = bucket;
+        }
+
+        @Override
+        public void accept(String activityType, int epochDay, double activityValue) {
+            series.computeIfAbsent(activityType, TypeSeries::new).add(bucket, epochDay, activityValue);
+        }
+
+        private List<ActivitySeriesDTO> build() {
+            List<ActivitySeriesDTO> result = new ArrayList<>(series.size());
+            series.values().stream()
+                    .sorted((a, b) -> a.series.getActivityType().compareTo(b.series.getActivityType()))
+                    .forEach(typeSeries -> result.add(typeSeries.finish()));
+            return result;
+        }
+    }
+
+    private static final class TypeSeries {
+        private final ActivitySeriesDTO series;
+        private BucketAccumulator current;
+
+        private TypeSeries(String activityType) {
+            this.series = new ActivitySeriesDTO(activityType);
+        }
+
+        // Os dias chegam em ordem crescente, então basta comparar com o fim do intervalo corrente
+        private void add(Bucket bucket, int epochDay, double value) {
+            if (current == null || epochDay >= current.endEpochDay) {
+                if (current != null) {
+                    series.getBuckets().add(current.toDTO());
+                }
+                LocalDate start = bucket.startOf(LocalDate.ofEpochDay(epochDay));
+                current = new BucketAccumulator(start, (int) bucket.next(start).toEpochDay());
+            }
+            current.add(value);
+        }
+
+        private ActivitySeriesDTO finish() {
+            if (current != null) {
+                series.getBuckets().add(current.toDTO());
+            }
+            return series;
+        }
+    }
+
+    private static final class BucketAccumulator {
+        private final LocalDate start;
+        private final int endEpochDay;
+        private final P2QuantileEstimator p50 = new P2QuantileEstimator(0.5);
+        private final P2QuantileEstimator p95 = new P2QuantileEstimator(0.95);
+        private long count;
+        private double sum;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+
+        private BucketAccumulator(LocalDate start, int endEpochDay) {
+            this.start = start;
+            this.endEpochDay = endEpochDay;
+        }
+
+        private void add(double value) {
+            count++;
+            sum += value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            p50.add(value);
+            p95.add(value);
+        }
+
+        private SeriesBucketDTO toDTO() {
+            return new SeriesBucketDTO(start, count, sum, min, max, p50.estimate(), p95.estimate());
+        }
+    }
+}
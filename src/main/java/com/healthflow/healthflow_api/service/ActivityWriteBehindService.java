@@ -0,0 +1,246 @@
+package com.healthflow.healthflow_api.service;
+
+
+import com.healthflow.healthflow_api.DTO.BatchItemResultDTO;
+import com.healthflow.healthflow_api.DTO.HealthActivityDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Ingestão assíncrona: as atividades aceitas entram em uma fila sem travas e uma única thread
+// as grava com saveBatch, em commits de até batch-size itens ou a cada max-delay. Um commit que
+// falha é repetido até retry-attempts vezes; se continuar falhando, o lote é dividido ao meio até
+// isolar os itens que não podem ser gravados
+@Service
+@ConditionalOnProperty(name = "healthflow.activities.write-behind.enabled", havingValue = "true")
+public class ActivityWriteBehindService {
+
+    private static final Logger log = LoggerFactory.getLogger(ActivityWriteBehindService.class);
+
+    @Autowired
+    private HealthActivityService activityService;
+
+    @Autowired
+    private UserService userService;
+
+    // Bit de desligamento na palavra de estado
+    private static final long STOPPED = 1L << 62;
+
+    private final ConcurrentLinkedQueue<HealthActivityDTO> queue = new ConcurrentLinkedQueue<>();
+
+    // Desligamento (bit STOPPED) e tamanho da fila em uma só palavra: ConcurrentLinkedQueue.size()
+    // percorre a fila inteira, e aceitar uma atividade e desligar disputam o mesmo CAS, então nada é
+    // aceito depois que a thread de gravação encontrou a fila desligada e vazia
+    private final AtomicLong state = new AtomicLong();
+
+    private final AtomicLong written = new AtomicLong();
+
+    private final AtomicLong failed = new AtomicLong();
+
+    private final int capacity;
+
+    private final int batchSize;
+
+    private final Duration maxDelay;
+
+    private final Duration shutdownTimeout;
+
+    private final int retryAttempts;
+
+    private final Duration retryBackoff;
+
+    private final Counter rejected;
+
+    private final Counter retried;
+
+    private final Timer flushTimer;
+
+    private Thread writer;
+
+    public ActivityWriteBehindService(@Value("${healthflow.activities.write-behind.capacity:50000}") int capacity,
+                                      @Value("${healthflow.activities.write-behind.batch-size:500}") int batchSize,
+                                      @Value("${healthflow.activities.write-behind.max-delay:200ms}") Duration maxDelay,
+                                      @Value("${healthflow.activities.write-behind.shutdown-timeout:30s}") Duration shutdownTimeout,
+                                      @Value("${healthflow.activities.write-behind.retry-attempts:3}") int retryAttempts,
+                                      @Value("${healthflow.activities.write-behind.retry-backoff:500ms}") Duration retryBackoff,
+                                      MeterRegistry registry) {
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.maxDelay = maxDelay;
+        this.shutdownTimeout = shutdownTimeout;
+        this.retryAttempts = Math.max(1, retryAttempts);
+        this.retryBackoff = retryBackoff;
+
+        Gauge.builder("healthflow.ingestion.queue.depth", this, ActivityWriteBehindService::getQueueDepth)
+                .description("Atividades aceitas aguardando gravação")
+                .register(registry);
+        FunctionCounter.builder("healthflow.ingestion.written", written, AtomicLong::get)
+                .description("Atividades gravadas pela fila")
+                .register(registry);
+        FunctionCounter.builder("healthflow.ingestion.failed", failed, AtomicLong::get)
+                .description("Atividades descartadas por erro na gravação")
+                .register(registry);
+        this.retried = Counter.builder("healthflow.ingestion.retried")
+                .description("Commits em grupo repetidos após uma falha")
+                .register(registry);
+        this.rejected = Counter.builder("healthflow.ingestion.rejected")
+                .description("Atividades recusadas com a fila cheia")
+                .register(registry);
+        this.flushTimer = Timer.builder("healthflow.ingestion.flush")
+                .description("Duração de cada commit em grupo")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    @PostConstruct
+    public void start() {
+        writer = new Thread(this::runWriter, "activity-write-behind");
+        writer.start();
+    }
+
+    // Para de aceitar novas atividades e espera a fila ser gravada por completo
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        state.getAndUpdate(current -> current | STOPPED);
+        LockSupport.unpark(writer);
+        writer.join(shutdownTimeout.toMillis());
+        if (writer.isAlive()) {
+            log.warn("Fila de ingestão não esvaziou em {}; {} atividades não foram gravadas", shutdownTimeout, getQueueDepth());
+        }
+    }
+
+    // Retorna false quando a fila está cheia ou em desligamento; o usuário é validado aqui
+    // (pelo cache de usuários, com o primário quando ele não está lá) para que o erro chegue ao
+    // cliente em vez de ser descartado na gravação
+    public boolean enqueue(HealthActivityDTO activityDTO) {
+        if (userService.findById(activityDTO.getUserId()).isEmpty() && !userService.existsById(activityDTO.getUserId())) {
+            throw new RuntimeException("Usuário não encontrado");
+        }
+        long current;
+        do {
+            current = state.get();
+            if ((current & STOPPED) != 0) {
+                return false;
+            }
+            if (current >= capacity) {
+                rejected.increment();
+                return false;
+            }
+        } while (!state.compareAndSet(current, current + 1));
+
+        queue.offer(activityDTO);
+        if (current + 1 == batchSize) {
+            LockSupport.unpark(writer);
+        }
+        return true;
+    }
+
+    public int getQueueDepth() {
+        return (int) (state.get() & ~STOPPED);
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    // Sugestão de espera para o cliente quando a fila está cheia, em segundos
+    public long getRetryAfterSeconds() {
+        return Math.max(1, (maxDelay.toMillis() + 999) / 1000);
+    }
+
+    private void runWriter() {
+        long maxDelayNanos = maxDelay.toNanos();
+        List<HealthActivityDTO> batch = new ArrayList<>(batchSize);
+
+        while (true) {
+            if (!isStopping() && getQueueDepth() < batchSize) {
+                LockSupport.parkNanos(this, maxDelayNanos);
+            }
+
+            HealthActivityDTO activityDTO;
+            while (batch.size() < batchSize && (activityDTO = queue.poll()) != null) {
+                batch.add(activityDTO);
+            }
+
+            if (batch.isEmpty()) {
+                if (state.get() == STOPPED) {
+                    return;
+                }
+                // Desligando com atividades contadas, mas ainda não colocadas na fila
+                Thread.onSpinWait();
+                continue;
+            }
+
+            flush(batch);
+            state.addAndGet(-batch.size());
+            batch.clear();
+        }
+    }
+
+    private boolean isStopping() {
+        return (state.get() & STOPPED) != 0;
+    }
+
+    private void flush(List<HealthActivityDTO> batch) {
+        long start = System.nanoTime();
+        try {
+            for (List<HealthActivityDTO> group : activityService.transactionGroups(batch)) {
+                write(group, retryAttempts);
+            }
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Cada grupo é uma transação, então uma falha não deixa nada gravado e o grupo pode ser repetido.
+    // As repetições com espera crescente cobrem falhas passageiras do banco; depois delas, as metades
+    // têm uma tentativa cada, para que um item problemático não descarte o lote inteiro
+    private void write(List<HealthActivityDTO> group, int attempts) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                List<BatchItemResultDTO> results = activityService.saveBatch(group);
+                long saved = results.stream().filter(BatchItemResultDTO::isSuccess).count();
+                written.addAndGet(saved);
+                failed.addAndGet(group.size() - saved);
+                return;
+            } catch (RuntimeException e) {
+                if (attempt < attempts) {
+                    retried.increment();
+                    log.warn("Falha ao gravar {} atividades da fila de ingestão (tentativa {} de {})",
+                            group.size(), attempt, attempts, e);
+                    LockSupport.parkNanos(this, retryBackoff.toNanos() * attempt);
+                    continue;
+                }
+                if (group.size() > 1) {
+                    int half = group.size() / 2;
+                    write(group.subList(0, half), 1);
+                    write(group.subList(half, group.size()), 1);
+                    return;
+                }
+                HealthActivityDTO activityDTO = group.get(0);
+                failed.incrementAndGet();
+                log.error("Atividade {} de {} do usuário {} descartada após falha na gravação",
+                        activityDTO.getActivityType(), activityDTO.getDate(), activityDTO.getUserId(), e);
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.healthflow.healthflow_api.service;
+
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+// Leitura linha a linha com tamanho máximo: ao contrário de BufferedReader.readLine, uma linha
+// sem quebra não é acumulada inteira em memória. Aceita \n, \r e \r\n como fim de linha
+final class BoundedLineReader implements Closeable {
+
+    private final Reader in;
+    private final int maxLength;
+    private final char[] buffer = new char[8192];
+    private final StringBuilder line = new StringBuilder();
+    private int position;
+    private int limit;
+    private boolean skipLineFeed;
+    private boolean truncated;
+
+    BoundedLineReader(Reader in, int maxLength) {
+        this.in = in;
+        this.maxLength = maxLength;
+    }
+
+    // Próxima linha, ou null no fim do corpo. Uma linha acima do limite é descartada até a
+    // quebra seguinte; o retorno traz só os primeiros maxLength caracteres e isTruncated() fica true
+    String readLine() throws IOException {
+        line.setLength(0);
+        truncated = false;
+        boolean read = false;
+
+        while (true) {
+            if (position == limit) {
+                limit = in.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return read ? line.toString() : null;
+                }
+            }
+
+            if (skipLineFeed) {
+                skipLineFeed = false;
+                if (buffer[position] == '\n') {
+                    position++;
+                    continue;
+                }
+            }
+
+            int start = position;
+            while (position < limit && buffer[position] != '\n' && buffer[position] != '\r') {
+                position++;
+            }
+            append(start, position);
+            read = true;
+
+            if (position < limit) {
+                skipLineFeed = buffer[position] == '\r';
+                position++;
+                return line.toString();
+            }
+        }
+    }
+
+    boolean isTruncated() {
+        return truncated;
+    }
+
+    private void append(int start, int end) {
+        int room = maxLength - line.length();
+        if (end - start > room) {
+            truncated = true;
+            end = start + Math.max(room, 0);
+        }
+        line.append(buffer, start, end - start);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
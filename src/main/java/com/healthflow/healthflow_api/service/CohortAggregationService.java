@@ -0,0 +1,206 @@
+package com.healthflow.healthflow_api.service;
+
+
+import com.healthflow.healthflow_api.DTO.CohortEntryDTO;
+import com.healthflow.healthflow_api.DTO.CohortStatisticsDTO;
+import com.healthflow.healthflow_api.repository.DailyActivityRollupRepository;
+import com.healthflow.healthflow_api.repository.UserIdRange;
+import com.healthflow.healthflow_api.repository.UserTypeTotal;
+import com.healthflow.healthflow_api.sharding.ShardContext;
+import com.healthflow.healthflow_api.sharding.ShardDirectory;
+import com.healthflow.healthflow_api.sharding.ShardRouter;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+@Service
+@Timed("healthflow.service")
+public class CohortAggregationService {
+
+    // Ordem "pior primeiro": a cabeça do heap é a entrada a ser descartada
+    private static final Comparator<CohortEntryDTO> WORST_FIRST = Comparator
+            .comparingDouble(CohortEntryDTO::getTotalValue)
+            .thenComparing(Comparator.comparingLong(CohortEntryDTO::getUserId).reversed());
+
+    @Autowired
+    private DailyActivityRollupRepository rollupRepository;
+
+    // Presente apenas com healthflow.sharding.enabled=true
+    @Autowired(required = false)
+    private ShardRouter shardRouter;
+
+    @Value("${healthflow.cohort.users-per-task:500}")
+    private int usersPerTask;
+
+    @Value("${healthflow.cohort.max-top:100}")
+    private int maxTop;
+
+    private final ForkJoinPool pool;
+
+    public CohortAggregationService(@Value("${healthflow.cohort.parallelism:0}") int parallelism) {
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    // Divide cada faixa de ids de usuários ao meio até o tamanho de tarefa configurado; cada folha
+    // soma os agregados diários da sua faixa e os parciais são combinados no join, sem estado compartilhado.
+    // Com sharding, as faixas de cada shard são processadas naquele shard e os parciais, somados no fim
+    public List<CohortStatisticsDTO> aggregate(String type, LocalDate from, LocalDate to, int top) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Data inicial posterior à data final");
+        }
+
+        int topSize = Math.max(1, Math.min(top, maxTop));
+        CohortPartial result = new CohortPartial(topSize);
+        int shards = shardRouter == null ? 1 : shardRouter.getShardCount();
+        for (int i = 0; i < shards; i++) {
+            Integer shard = shardRouter == null ? null : i;
+            List<UserIdRange> ranges = onShard(shard, () -> rollupRepository.findUserIdRanges(ShardDirectory.ID_BLOCK_SIZE));
+            for (UserIdRange range : ranges) {
+                result.merge(pool.invoke(new UserRangeTask(shard, range.firstUserId(), range.lastUserId(), type, from, to, topSize)));
+            }
+        }
+        return result.toDTOs();
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    private static <T> T onShard(Integer shard, Supplier<T> query) {
+        return shard == null ? query.get() : ShardContext.on(shard, query);
+    }
+
+    private final class UserRangeTask extends RecursiveTask<CohortPartial> {
+        private final Integer shard;
+        private final long firstUserId;
+        private final long lastUserId;
+        private final String type;
+        private final LocalDate from;
+        private final LocalDate to;
+        private final int topSize;
+
+        private UserRangeTask(Integer shard, long firstUserId, long lastUserId, String type, LocalDate from, LocalDate to, int topSize) {
+            this.shard = shard;
+            this.firstUserId = firstUserId;
+            this.lastUserId = lastUserId;
+            this.type = type;
+            this.from = from;
+            this.to = to;
+            this.topSize = topSize;
+        }
+
+        @Override
+        protected CohortPartial compute() {
+            if (lastUserId - firstUserId < usersPerTask) {
+                return leaf();
+            }
+
+            long middle = firstUserId + (lastUserId - firstUserId) / 2;
+            UserRangeTask left = new UserRangeTask(shard, firstUserId, middle, type, from, to, topSize);
+            UserRangeTask right = new UserRangeTask(shard, middle + 1, lastUserId, type, from, to, topSize);
+            left.fork();
+            CohortPartial rightResult = right.compute();
+            return left.join().merge(rightResult);
+        }
+
+        private CohortPartial leaf() {
+            List<UserTypeTotal> totals = onShard(shard, () -> type == null
+                    ? rollupRepository.findTotalsByUserRange(firstUserId, lastUserId, from, to)
+                    : rollupRepository.findTotalsByUserRangeAndType(firstUserId, lastUserId, type, from, to));
+
+            CohortPartial partial = new CohortPartial(topSize);
+            for (UserTypeTotal total : totals) {
+                partial.add(total);
+            }
+            return partial;
+        }
+    }
+
+    private static final class CohortPartial {
+        private final int topSize;
+        private final Map<String, TypeAccumulator> byType = new HashMap<>();
+
+        private CohortPartial(int topSize) {
+            this.topSize = topSize;
+        }
+
+        private void add(UserTypeTotal total) {
+            byType.computeIfAbsent(total.activityType(), type -> new TypeAccumulator(topSize))
+                    .add(total.userId(), total.totalValue(), total.activityCount());
+        }
+
+        private CohortPartial merge(CohortPartial other) {
+            other.byType.forEach((type, accumulator) -> byType.merge(type, accumulator, TypeAccumulator::merge));
+            return this;
+        }
+
+        private List<CohortStatisticsDTO> toDTOs() {
+            List<CohortStatisticsDTO> result = new ArrayList<>(byType.size());
+            byType.entrySet().stream()
+                    .sorted(Map.Entry.comparingByKey())
+                    .forEach(entry -> result.add(entry.getValue().toDTO(entry.getKey())));
+            return result;
+        }
+    }
+
+    private static final class TypeAccumulator {
+        private final int topSize;
+        private final PriorityQueue<CohortEntryDTO> top;
+        private long users;
+        private long activityCount;
+        private double totalValue;
+
+        private TypeAccumulator(int topSize) {
+            this.topSize = topSize;
+            this.top = new PriorityQueue<>(topSize + 1, WORST_FIRST);
+        }
+
+        private void add(long userId, double total, long count) {
+            users++;
+            activityCount += count;
+            totalValue += total;
+            offer(new CohortEntryDTO(userId, total, count));
+        }
+
+        private void offer(CohortEntryDTO entry) {
+            if (top.size() < topSize) {
+                top.add(entry);
+            } else if (WORST_FIRST.compare(entry, top.peek()) > 0) {
+                top.poll();
+                top.add(entry);
+            }
+        }
+
+        private TypeAccumulator merge(TypeAccumulator other) {
+            users += other.users;
+            activityCount += other.activityCount;
+            totalValue += other.totalValue;
+            other.top.forEach(this::offer);
+            return this;
+        }
+
+        private CohortStatisticsDTO toDTO(String activityType) {
+            List<CohortEntryDTO> ranking = new ArrayList<>(top);
+            ranking.sort(WORST_FIRST.reversed());
+            return new CohortStatisticsDTO(activityType, users, activityCount, totalValue, ranking);
+        }
+    }
+}
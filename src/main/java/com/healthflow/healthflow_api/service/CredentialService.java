@@ -0,0 +1,58 @@
+package com.healthflow.healthflow_api.service;
+
+import com.healthflow.healthflow_api.model.User;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+// Cadastro e login com o bcrypt no PasswordHashingService. A thread web só faz as consultas; o hash
+// e a gravação que depende dele rodam na thread do pool que calculou o hash. Ambos lançam
+// RejectedExecutionException quando a fila do pool está cheia
+@Service
+@Timed("healthflow.service")
+public class CredentialService {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PasswordHashingService hashingService;
+
+    private final Counter rehashed;
+
+    public CredentialService(MeterRegistry registry) {
+        this.rehashed = Counter.builder("healthflow.credentials.rehashed")
+                .description("Hashes recalculados no login por custo diferente ou senha em texto puro")
+                .register(registry);
+    }
+
+    // A senha em texto puro não fica no usuário devolvido (nem no cache)
+    public CompletableFuture<User> register(User user) {
+        return hashingService.hash(user.getPassword()).thenApply(passwordHash -> {
+            user.setPassword(null);
+            return userService.create(user, passwordHash);
+        });
+    }
+
+    // Vazio quando o email não existe ou a senha não confere, sem distinguir os dois casos
+    public CompletableFuture<Optional<User>> authenticate(String email, String password) {
+        Optional<User> user = userService.findByEmail(email);
+        String storedHash = user.flatMap(found -> userService.findPasswordHash(found.getId())).orElse(null);
+
+        return hashingService.verify(password, storedHash).thenApply(verification -> {
+            if (!verification.matches()) {
+                return Optional.empty();
+            }
+            if (verification.upgradedHash() != null
+                    && userService.replacePasswordHash(user.get().getId(), storedHash, verification.upgradedHash())) {
+                rehashed.increment();
+            }
+            return user;
+        });
+    }
+}
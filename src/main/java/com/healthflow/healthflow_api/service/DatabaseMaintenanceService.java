@@ -0,0 +1,74 @@
+package com.healthflow.healthflow_api.service;
+
+
+import com.healthflow.healthflow_api.DTO.DatabaseCheckpointDTO;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+@Service
+public class DatabaseMaintenanceService {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${healthflow.database.compact-on-shutdown:false}")
+    private boolean compactOnShutdown;
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    @Value("${spring.datasource.username:}")
+    private String username;
+
+    @Value("${spring.datasource.password:}")
+    private String password;
+
+    // Grava em disco as alterações pendentes (WRITE_DELAY) e sincroniza o arquivo
+    public DatabaseCheckpointDTO checkpoint() {
+        Long sizeBefore = databaseFileSize();
+        long startNanos = System.nanoTime();
+        jdbcTemplate.execute("CHECKPOINT SYNC");
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        return new DatabaseCheckpointDTO(sizeBefore, databaseFileSize(), elapsedMillis);
+    }
+
+    // O H2 só reescreve o arquivo por completo ao fechar o banco, então a compactação
+    // acontece no encerramento da aplicação. Usa uma conexão fora do pool para que o
+    // Hikari não tente reaproveitá-la depois que o banco for fechado.
+    @PreDestroy
+    public void compactOnShutdown() throws SQLException {
+        if (!compactOnShutdown || databaseFileSize() == null) {
+            return;
+        }
+
+        try (Connection connection = DriverManager.getConnection(url, username, password);
+             Statement statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN COMPACT");
+        }
+    }
+
+    // DATABASE_PATH() é nulo para bancos em memória
+    private Long databaseFileSize() {
+        String path = jdbcTemplate.queryForObject("SELECT DATABASE_PATH()", String.class);
+        if (path == null) {
+            return null;
+        }
+
+        try {
+            return Files.size(Path.of(path + ".mv.db"));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
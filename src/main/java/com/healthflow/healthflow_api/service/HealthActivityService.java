@@ -1,22 +1,60 @@
 package com.healthflow.healthflow_api.service;
 
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthflow.healthflow_api.config.CacheConfig;
+import com.healthflow.healthflow_api.DTO.ActivityPageDTO;
+import com.healthflow.healthflow_api.DTO.BatchItemResultDTO;
 import com.healthflow.healthflow_api.DTO.HealthActivityDTO;
 import com.healthflow.healthflow_api.DTO.HealthActivityResponseDTO;
+import com.healthflow.healthflow_api.analytics.ColumnarActivityStore;
+import com.healthflow.healthflow_api.datasource.ReplicaLagMonitor;
+import com.healthflow.healthflow_api.event.ActivityChangeEvent;
 import com.healthflow.healthflow_api.model.HealthActivity;
 import com.healthflow.healthflow_api.model.User;
 import com.healthflow.healthflow_api.repository.HealthActivityRepository;
 import com.healthflow.healthflow_api.repository.UserRepository;
+import com.healthflow.healthflow_api.sharding.ShardRouter;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 
 @Service
+@Timed("healthflow.service")
 public class HealthActivityService {
 
     @Autowired
@@ -25,46 +63,324 @@ public class HealthActivityService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ActivityRollupService rollupService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private UserVersionService versionService;
+
+    // Presente apenas com healthflow.analytics.columnar-store.enabled=true
+    @Autowired(required = false)
+    private ColumnarActivityStore columnarStore;
+
+    // Presente apenas com healthflow.datasource.replica.enabled=true
+    @Autowired(required = false)
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    // Presente apenas com healthflow.sharding.enabled=true
+    @Autowired(required = false)
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${healthflow.activities.page.default-size:100}")
+    private int defaultPageSize;
+
+    @Value("${healthflow.activities.page.max-size:1000}")
+    private int maxPageSize;
+
+    @Value("${healthflow.cache.statistics.max-dates-per-user:32}")
+    private int maxStatisticsDatesPerUser;
+
+    @Transactional(readOnly = true)
     public List<HealthActivityResponseDTO> findAllByUserId(Long userId) {
-        List<HealthActivity> activities = activityRepository.findByUserId(userId);
-        return activities.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return activityRepository.findResponsesByUserId(userId);
+    }
+
+    // Paginação por cursor sobre (date, id): cada página custa o mesmo, independente da posição
+    @Transactional(readOnly = true)
+    public ActivityPageDTO findPageByUserId(Long userId, String type, String cursor, Integer size) {
+        int pageSize = size == null || size <= 0 ? defaultPageSize : Math.min(size, maxPageSize);
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<HealthActivityResponseDTO> activities;
+        if (cursor == null || cursor.isBlank()) {
+            activities = type == null
+                    ? activityRepository.findFirstPageByUser(userId, limit)
+                    : activityRepository.findFirstPageByUserAndType(userId, type, limit);
+        } else {
+            PageCursor after = decodeCursor(cursor);
+            activities = type == null
+                    ? activityRepository.findPageByUserAfter(userId, after.date(), after.id(), limit)
+                    : activityRepository.findPageByUserAndTypeAfter(userId, type, after.date(), after.id(), limit);
+        }
+
+        boolean hasMore = activities.size() > pageSize;
+        List<HealthActivityResponseDTO> items = hasMore ? new ArrayList<>(activities.subList(0, pageSize)) : activities;
+        String nextCursor = hasMore ? encodeCursor(items.get(items.size() - 1)) : null;
+        return new ActivityPageDTO(items, nextCursor, pageSize);
+    }
+
+    // Escreve um array JSON conforme as linhas chegam do cursor, sem materializar a lista
+    public void streamByUserId(Long userId, String type, OutputStream outputStream) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<HealthActivityResponseDTO> activities = type == null
+                    ? activityRepository.streamByUser(userId)
+                    : activityRepository.streamByUserAndType(userId, type);
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)
+                         .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+                generator.writeStartArray();
+                for (HealthActivityResponseDTO activity : (Iterable<HealthActivityResponseDTO>) activities::iterator) {
+                    generator.writeObject(activity);
+                }
+                generator.writeEndArray();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<HealthActivityResponseDTO> findResponseById(Long id) {
+        return activityRepository.findResponseById(id);
     }
 
     public Optional<HealthActivity> findById(Long id) {
         return activityRepository.findById(id);
     }
 
+    @Transactional
     public HealthActivityResponseDTO save(HealthActivityDTO activityDTO) {
-        Optional<User> user = userRepository.findById(activityDTO.getUserId());
+        return save(activityDTO, null);
+    }
+
+    @Transactional
+    public HealthActivityResponseDTO save(HealthActivityDTO activityDTO, String idempotencyKey) {
+        Optional<User> user = userService.findById(activityDTO.getUserId());
         if (user.isEmpty()) {
             throw new RuntimeException("Usuário não encontrado");
         }
 
-        HealthActivity activity = new HealthActivity();
-        activity.setUser(user.get());
-        activity.setActivityType(activityDTO.getActivityType());
-        activity.setDate(activityDTO.getDate());
-        activity.setActivityValue(activityDTO.getActivityValue());
-
+        HealthActivity activity = toEntity(activityDTO, user.get());
+        activity.setIdempotencyKey(idempotencyKey);
         HealthActivity savedActivity = activityRepository.save(activity);
-        return convertToDTO(savedActivity);
+        rollupService.applyInsert(savedActivity);
+        HealthActivityResponseDTO response = convertToDTO(savedActivity);
+        eventPublisher.publishEvent(ActivityChangeEvent.created(List.of(response)));
+        invalidateUser(savedActivity.getUser().getId());
+        return response;
+    }
+
+    // Grava um lote com uma única consulta de usuários e INSERTs agrupados em lotes JDBC.
+    // Com sharding, os itens são agrupados por shard e cada grupo é gravado em uma transação própria
+    // naquele shard: uma falha em um grupo não desfaz os grupos já gravados em outros shards
+    @Transactional
+    public List<BatchItemResultDTO> saveBatch(List<HealthActivityDTO> activityDTOs) {
+        if (shardRouter == null) {
+            return saveBatchOnShard(activityDTOs);
+        }
+
+        Map<Integer, List<Integer>> positionsByShard = new TreeMap<>();
+        for (int i = 0; i < activityDTOs.size(); i++) {
+            HealthActivityDTO activityDTO = activityDTOs.get(i);
+            int shard = shardRouter.shardOf(activityDTO == null ? null : activityDTO.getUserId());
+            positionsByShard.computeIfAbsent(shard, key -> new ArrayList<>()).add(i);
+        }
+
+        BatchItemResultDTO[] results = new BatchItemResultDTO[activityDTOs.size()];
+        positionsByShard.forEach((shard, positions) -> {
+            List<HealthActivityDTO> items = positions.stream().map(activityDTOs::get).toList();
+            for (BatchItemResultDTO result : shardRouter.inTransaction(shard, () -> saveBatchOnShard(items))) {
+                int position = positions.get(result.getIndex());
+                results[position] = result.isSuccess()
+                        ? BatchItemResultDTO.success(position, result.getActivity())
+                        : BatchItemResultDTO.failure(position, result.getError());
+            }
+        });
+        return Arrays.asList(results);
     }
 
+    // Partes do lote que saveBatch grava, cada uma, em uma única transação: o lote inteiro sem
+    // sharding, ou os itens de cada shard. Repetir uma parte que falhou nunca grava de novo itens
+    // já confirmados em outra
+    public Collection<List<HealthActivityDTO>> transactionGroups(List<HealthActivityDTO> activityDTOs) {
+        if (shardRouter == null) {
+            return List.of(activityDTOs);
+        }
+
+        Map<Integer, List<HealthActivityDTO>> groups = new TreeMap<>();
+        for (HealthActivityDTO activityDTO : activityDTOs) {
+            int shard = shardRouter.shardOf(activityDTO == null ? null : activityDTO.getUserId());
+            groups.computeIfAbsent(shard, key -> new ArrayList<>()).add(activityDTO);
+        }
+        return groups.values();
+    }
+
+    private List<BatchItemResultDTO> saveBatchOnShard(List<HealthActivityDTO> activityDTOs) {
+        Set<Long> userIds = activityDTOs.stream()
+                .map(HealthActivityDTO::getUserId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, User> users = userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        BatchItemResultDTO[] results = new BatchItemResultDTO[activityDTOs.size()];
+        List<HealthActivity> activities = new ArrayList<>(activityDTOs.size());
+        List<Integer> positions = new ArrayList<>(activityDTOs.size());
+
+        for (int i = 0; i < activityDTOs.size(); i++) {
+            HealthActivityDTO activityDTO = activityDTOs.get(i);
+            String violations = validate(activityDTO);
+            if (violations != null) {
+                results[i] = BatchItemResultDTO.failure(i, violations);
+                continue;
+            }
+
+            User user = users.get(activityDTO.getUserId());
+            if (user == null) {
+                results[i] = BatchItemResultDTO.failure(i, "Usuário não encontrado");
+                continue;
+            }
+
+            activities.add(toEntity(activityDTO, user));
+            positions.add(i);
+        }
+
+        List<HealthActivity> savedActivities = activityRepository.saveAll(activities);
+        rollupService.applyInserts(savedActivities);
+        List<HealthActivityResponseDTO> saved = new ArrayList<>(savedActivities.size());
+        for (int i = 0; i < savedActivities.size(); i++) {
+            int position = positions.get(i);
+            HealthActivityResponseDTO response = convertToDTO(savedActivities.get(i));
+            saved.add(response);
+            results[position] = BatchItemResultDTO.success(position, response);
+        }
+
+        if (!saved.isEmpty()) {
+            eventPublisher.publishEvent(ActivityChangeEvent.created(saved));
+        }
+        saved.stream()
+                .map(HealthActivityResponseDTO::getUserId)
+                .distinct()
+                .forEach(this::invalidateUser);
+
+        return Arrays.asList(results);
+    }
+
+    @Transactional
     public void deleteById(Long id) {
-        activityRepository.deleteById(id);
+        Optional<HealthActivity> activity = activityRepository.findById(id);
+        if (activity.isEmpty()) {
+            return;
+        }
+
+        activityRepository.delete(activity.get());
+        activityRepository.flush();
+        rollupService.applyDelete(activity.get());
+        eventPublisher.publishEvent(ActivityChangeEvent.deleted(convertToDTO(activity.get())));
+        invalidateUser(activity.get().getUser().getId());
     }
 
+    @Transactional(readOnly = true)
     public List<HealthActivityResponseDTO> findByUserIdAndType(Long userId, String type) {
-        List<HealthActivity> activities = activityRepository.findByUserIdAndActivityType(userId, type);
-        return activities.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return activityRepository.findResponsesByUserIdAndActivityType(userId, type);
     }
 
+    // Cache por usuário com um resultado por startDate, para que uma escrita invalide
+    // todas as datas consultadas daquele usuário de uma só vez
     public List<Object[]> getStatistics(Long userId, LocalDate startDate) {
-        return activityRepository.findStatisticsByUser(userId, startDate);
+        Cache cache = cacheManager.getCache(CacheConfig.ACTIVITY_STATISTICS);
+        Map<LocalDate, List<Object[]>> byStartDate = cache.get(userId, ConcurrentHashMap::new);
+
+        List<Object[]> statistics = byStartDate.get(startDate);
+        if (statistics == null) {
+            statistics = columnarStore != null
+                    ? columnarStore.statistics(userId, startDate)
+                    : rollupService.findStatistics(userId, startDate);
+            if (byStartDate.size() >= maxStatisticsDatesPerUser) {
+                byStartDate.clear();
+            }
+            byStartDate.put(startDate, statistics);
+        }
+        return statistics;
+    }
+
+    // Executado após o commit quando há transação ativa, para que uma leitura concorrente
+    // não volte a guardar o valor anterior à escrita. Chamado depois de publicar o evento,
+    // para que o armazenamento colunar já esteja atualizado quando a entrada for removida.
+    // A versão do ETag muda por último, depois de removidas as estatísticas em cache.
+    // Com réplica de leitura, a invalidação se repete quando a réplica já tiver a escrita, pois
+    // uma leitura atrasada pode ter guardado estatísticas antigas ou servido o ETag novo com dados antigos
+    private void invalidateUser(Long userId) {
+        evictUser(userId);
+        if (replicaLagMonitor != null) {
+            replicaLagMonitor.afterCatchUp(() -> evictUser(userId));
+        }
+    }
+
+    private void evictUser(Long userId) {
+        new TransactionAwareCacheDecorator(cacheManager.getCache(CacheConfig.ACTIVITY_STATISTICS)).evict(userId);
+        versionService.bump(userId);
+    }
+
+    private String encodeCursor(HealthActivityResponseDTO activity) {
+        String raw = activity.getDate() + "|" + activity.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private PageCursor decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 2);
+            return new PageCursor(LocalDate.parse(parts[0]), Long.valueOf(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+
+    private record PageCursor(LocalDate date, Long id) {}
+
+    private String validate(HealthActivityDTO activityDTO) {
+        if (activityDTO == null) {
+            return "Atividade não informada";
+        }
+
+        Set<ConstraintViolation<HealthActivityDTO>> violations = validator.validate(activityDTO);
+        if (violations.isEmpty()) {
+            return null;
+        }
+
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private HealthActivity toEntity(HealthActivityDTO activityDTO, User user) {
+        HealthActivity activity = new HealthActivity();
+        activity.setUser(user);
+        activity.setActivityType(activityDTO.getActivityType());
+        activity.setDate(activityDTO.getDate());
+        activity.setActivityValue(activityDTO.getActivityValue());
+        return activity;
     }
 
     private HealthActivityResponseDTO convertToDTO(HealthActivity activity) {
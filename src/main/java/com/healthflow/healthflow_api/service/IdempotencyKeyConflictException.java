@@ -0,0 +1,9 @@
+package com.healthflow.healthflow_api.service;
+
+// A Idempotency-Key já foi usada pelo mesmo usuário com outros dados; o controller responde 409
+public class IdempotencyKeyConflictException extends RuntimeException {
+
+    public IdempotencyKeyConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,102 @@
+package com.healthflow.healthflow_api.service;
+
+
+import java.util.Arrays;
+
+// Estimador P² (Jain e Chlamtac, 1985): aproxima um quantil em uma única passada
+// com cinco marcadores, sem guardar as amostras
+final class P2QuantileEstimator {
+
+    private final double quantile;
+    private final double[] heights = new double[5];
+    private final double[] positions = new double[5];
+    private final double[] desired = new double[5];
+    private final double[] increments;
+    private long count;
+
+    P2QuantileEstimator(double quantile) {
+        this.quantile = quantile;
+        this.increments = new double[]{0, quantile / 2, quantile, (1 + quantile) / 2, 1};
+    }
+
+    void add(double value) {
+        if (count < 5) {
+            heights[(int) count++] = value;
+            if (count == 5) {
+                Arrays.sort(heights);
+                for (int i = 0; i < 5; i++) {
+                    positions[i] = i;
+                }
+                desired[0] = 0;
+                desired[1] = 2 * quantile;
+                desired[2] = 4 * quantile;
+                desired[3] = 2 + 2 * quantile;
+                desired[4] = 4;
+            }
+            return;
+        }
+        count++;
+
+        int cell;
+        if (value < heights[0]) {
+            heights[0] = value;
+            cell = 0;
+        } else if (value >= heights[4]) {
+            heights[4] = value;
+            cell = 3;
+        } else {
+            cell = 0;
+            while (cell < 3 && value >= heights[cell + 1]) {
+                cell++;
+            }
+        }
+
+        for (int i = cell + 1; i < 5; i++) {
+            positions[i]++;
+        }
+        for (int i = 0; i < 5; i++) {
+            desired[i] += increments[i];
+        }
+
+        for (int i = 1; i <= 3; i++) {
+            double offset = desired[i] - positions[i];
+            if ((offset >= 1 && positions[i + 1] - positions[i] > 1)
+                    || (offset <= -1 && positions[i - 1] - positions[i] < -1)) {
+                int direction = offset >= 0 ? 1 : -1;
+                double candidate = parabolic(i, direction);
+                heights[i] = heights[i - 1] < candidate && candidate < heights[i + 1]
+                        ? candidate
+                        : linear(i, direction);
+                positions[i] += direction;
+            }
+        }
+    }
+
+    // Com até cinco amostras o valor é exato (interpolação entre as amostras ordenadas): o marcador
+    // central só passa a seguir o quantil a partir da sexta amostra, antes disso ele é a mediana
+    double estimate() {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (count > 5) {
+            return heights[2];
+        }
+
+        int size = (int) count;
+        Arrays.sort(heights, 0, size);
+        double rank = quantile * (size - 1);
+        int lower = (int) Math.floor(rank);
+        int upper = Math.min(lower + 1, size - 1);
+        return heights[lower] + (rank - lower) * (heights[upper] - heights[lower]);
+    }
+
+    private double parabolic(int i, int direction) {
+        return heights[i] + direction / (positions[i + 1] - positions[i - 1])
+                * ((positions[i] - positions[i - 1] + direction) * (heights[i + 1] - heights[i]) / (positions[i + 1] - positions[i])
+                + (positions[i + 1] - positions[i] - direction) * (heights[i] - heights[i - 1]) / (positions[i] - positions[i - 1]));
+    }
+
+    private double linear(int i, int direction) {
+        return heights[i] + direction * (heights[i + direction] - heights[i]) / (positions[i + direction] - positions[i]);
+    }
+}
@@ -0,0 +1,138 @@
+package com.healthflow.healthflow_api.service;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Cálculo de hashes bcrypt fora das threads web: um pool fixo de hashing-threads com fila de até
+// queue-capacity senhas. Com a fila cheia, hash e verify lançam RejectedExecutionException na hora
+// (o controller responde 503), em vez de acumular trabalho de CPU que o servidor não vai vencer.
+// Um hash com custo diferente de bcrypt-cost, ou uma senha antiga em texto puro ({noop}), é
+// recalculado na própria verificação bem-sucedida
+@Service
+@Timed("healthflow.service")
+public class PasswordHashingService {
+
+    static final String LEGACY_PREFIX = "{noop}";
+
+    private final BCryptPasswordEncoder encoder;
+
+    private final int cost;
+
+    private final ThreadPoolExecutor executor;
+
+    // Verificado quando o email não existe, para que a resposta leve o mesmo tempo
+    private final String dummyHash;
+
+    private final Timer hashTimer;
+
+    private final Counter rejected;
+
+    public PasswordHashingService(@Value("${healthflow.credentials.bcrypt-cost:10}") int cost,
+                                  @Value("${healthflow.credentials.hashing-threads:0}") int hashingThreads,
+                                  @Value("${healthflow.credentials.queue-capacity:100}") int queueCapacity,
+                                  MeterRegistry registry) {
+        this.cost = cost;
+        this.encoder = new BCryptPasswordEncoder(cost);
+        int threads = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "password-hasher-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.dummyHash = encoder.encode(UUID.randomUUID().toString());
+
+        BlockingQueue<Runnable> queue = executor.getQueue();
+        Gauge.builder("healthflow.credentials.hashing.queued", queue, BlockingQueue::size)
+                .description("Senhas aguardando o pool de hashing")
+                .register(registry);
+        this.hashTimer = Timer.builder("healthflow.credentials.hashing")
+                .description("Duração de cada hash ou verificação bcrypt no pool")
+                .register(registry);
+        this.rejected = Counter.builder("healthflow.credentials.hashing.rejected")
+                .description("Senhas recusadas com a fila do pool de hashing cheia")
+                .register(registry);
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    public CompletableFuture<String> hash(String rawPassword) {
+        return submit(() -> encoder.encode(rawPassword));
+    }
+
+    // storedHash nulo (usuário inexistente) nunca confere, mas custa uma verificação bcrypt
+    public CompletableFuture<Verification> verify(String rawPassword, String storedHash) {
+        return submit(() -> {
+            if (storedHash == null) {
+                encoder.matches(rawPassword, dummyHash);
+                return Verification.FAILED;
+            }
+            if (!matches(rawPassword, storedHash)) {
+                return Verification.FAILED;
+            }
+            return new Verification(true, needsRehash(storedHash) ? encoder.encode(rawPassword) : null);
+        });
+    }
+
+    public boolean needsRehash(String storedHash) {
+        return storedHash.startsWith(LEGACY_PREFIX) || costOf(storedHash) != cost;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private boolean matches(String rawPassword, String storedHash) {
+        if (storedHash.startsWith(LEGACY_PREFIX)) {
+            return MessageDigest.isEqual(rawPassword.getBytes(StandardCharsets.UTF_8),
+                    storedHash.substring(LEGACY_PREFIX.length()).getBytes(StandardCharsets.UTF_8));
+        }
+        return encoder.matches(rawPassword, storedHash);
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> work) {
+        try {
+            return CompletableFuture.supplyAsync(() -> hashTimer.record(work), executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+    }
+
+    // Formato $2a$<custo>$<sal e hash>; um hash ilegível conta como custo diferente
+    private static int costOf(String storedHash) {
+        try {
+            return Integer.parseInt(storedHash.substring(4, 6));
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+
+    // upgradedHash: novo hash a gravar, quando a senha confere mas o hash está desatualizado
+    public record Verification(boolean matches, String upgradedHash) {
+        static final Verification FAILED = new Verification(false, null);
+    }
+}
@@ -1,41 +1,229 @@
 package com.healthflow.healthflow_api.service;
 
 
+import com.healthflow.healthflow_api.DTO.UserPageDTO;
+import com.healthflow.healthflow_api.DTO.UserResponseDTO;
+import com.healthflow.healthflow_api.config.CacheConfig;
+import com.healthflow.healthflow_api.datasource.ReplicaLagMonitor;
 import com.healthflow.healthflow_api.model.User;
+import com.healthflow.healthflow_api.model.UserCredential;
+import com.healthflow.healthflow_api.repository.UserCredentialRepository;
 import com.healthflow.healthflow_api.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
 @Service
+@Timed("healthflow.service")
 public class UserService {
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserCredentialRepository credentialRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private UserVersionService versionService;
+
+    // Presente apenas com healthflow.datasource.replica.enabled=true
+    @Autowired(required = false)
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Value("${healthflow.users.page.default-size:100}")
+    private int defaultPageSize;
+
+    @Value("${healthflow.users.page.max-size:1000}")
+    private int maxPageSize;
+
+    @Transactional(readOnly = true)
     public List<User> findAll() {
         return userRepository.findAll();
     }
 
+    // Paginação por cursor sobre o id, ou sobre o email quando há prefixo: cada página custa o mesmo,
+    // independente da posição. Com sharding, cada shard devolve até size + 1 linhas e a ordenação
+    // abaixo monta a página a partir da junção delas
+    @Transactional(readOnly = true)
+    public UserPageDTO findPage(String emailPrefix, String cursor, Integer size) {
+        int pageSize = size == null || size <= 0 ? defaultPageSize : Math.min(size, maxPageSize);
+        Limit limit = Limit.of(pageSize + 1);
+        boolean byEmail = emailPrefix != null && !emailPrefix.isBlank();
+        boolean first = cursor == null || cursor.isBlank();
+
+        List<UserResponseDTO> users;
+        if (byEmail) {
+            String prefixEnd = emailPrefix + Character.MAX_VALUE;
+            users = first
+                    ? userRepository.findFirstPageByEmailPrefix(emailPrefix, prefixEnd, limit)
+                    : userRepository.findPageByEmailPrefixAfter(decodeEmailCursor(cursor, emailPrefix), prefixEnd, limit);
+        } else {
+            users = first
+                    ? userRepository.findFirstPage(limit)
+                    : userRepository.findPageAfter(decodeIdCursor(cursor), limit);
+        }
+
+        users = new ArrayList<>(users);
+        users.sort(byEmail ? Comparator.comparing(UserResponseDTO::getEmail) : Comparator.comparing(UserResponseDTO::getId));
+        boolean hasMore = users.size() > pageSize;
+        List<UserResponseDTO> items = hasMore ? new ArrayList<>(users.subList(0, pageSize)) : users;
+        String nextCursor = null;
+        if (hasMore) {
+            UserResponseDTO last = items.get(items.size() - 1);
+            nextCursor = encodeCursor(byEmail ? last.getEmail() : String.valueOf(last.getId()));
+        }
+        return new UserPageDTO(items, nextCursor, pageSize);
+    }
+
+    public UserResponseDTO convertEntityToDTO(User user) {
+        return new UserResponseDTO(user.getId(), user.getName(), user.getEmail());
+    }
+
+    @Cacheable(cacheNames = CacheConfig.USERS, key = "#id", unless = "#result == null")
+    @Transactional(readOnly = true)
     public Optional<User> findById(Long id) {
         return userRepository.findById(id);
     }
 
+    @Cacheable(cacheNames = CacheConfig.USERS_BY_EMAIL, key = "#email", unless = "#result == null")
+    @Transactional(readOnly = true)
     public Optional<User> findByEmail(String email) {
         return userRepository.findByEmail(email);
     }
 
+    // O email anterior é lido na própria transação: uma atualização que troca o email precisa
+    // remover também a entrada antiga de usersByEmail
+    @Transactional
     public User save(User user) {
-        return userRepository.save(user);
+        String previousEmail = user.getId() == null ? null
+                : userRepository.findById(user.getId()).map(User::getEmail).orElse(null);
+        User savedUser = userRepository.save(user);
+        invalidate(savedUser.getId(), previousEmail, savedUser.getEmail());
+        return savedUser;
+    }
+
+    // Altera uma cópia carregada na transação de escrita, nunca o objeto do cache users, que é
+    // compartilhado com as leituras: se a gravação falhar (email duplicado, por exemplo), o cache
+    // continua com os dados gravados. O flush antecipa a violação do índice único para dentro do método
+    @Transactional
+    public Optional<User> update(Long id, String name, String email) {
+        return userRepository.findById(id).map(user -> {
+            String previousEmail = user.getEmail();
+            user.setName(name);
+            user.setEmail(email);
+            User savedUser = userRepository.saveAndFlush(user);
+            invalidate(id, previousEmail, email);
+            return savedUser;
+        });
+    }
+
+    // Usuário e hash da senha na mesma transação (o hash já vem calculado pelo CredentialService)
+    @Transactional
+    public User create(User user, String passwordHash) {
+        User savedUser = userRepository.save(user);
+        credentialRepository.save(new UserCredential(savedUser.getId(), passwordHash));
+        invalidate(savedUser.getId(), savedUser.getEmail());
+        return savedUser;
     }
 
+    @Transactional
     public void deleteById(Long id) {
+        String email = userRepository.findById(id).map(User::getEmail).orElse(null);
+        credentialRepository.deleteById(id);
         userRepository.deleteById(id);
+        invalidate(id, email);
     }
 
+    // No primário, como existsByEmail: o login logo após o cadastro precisa encontrar o hash
+    @Transactional
+    public Optional<String> findPasswordHash(Long userId) {
+        return credentialRepository.findPasswordHash(userId);
+    }
+
+    @Transactional
+    public boolean replacePasswordHash(Long userId, String expected, String replacement) {
+        return credentialRepository.replacePasswordHash(userId, expected, replacement) == 1;
+    }
+
+    // Consulta no primário, mesmo com réplica: a verificação antecede o cadastro e não pode
+    // deixar passar um email gravado há pouco
+    @Transactional
     public boolean existsByEmail(String email) {
         return userRepository.existsByEmail(email);
     }
+
+    // Também no primário: para quem acabou de ser cadastrado, a réplica ou o cache podem ainda não ter o usuário
+    @Transactional
+    public boolean existsById(Long id) {
+        return userRepository.existsById(id);
+    }
+
+    private static String encodeCursor(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeCursor(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+
+    private static Long decodeIdCursor(String cursor) {
+        try {
+            return Long.valueOf(decodeCursor(cursor));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+
+    // O cursor da busca é o último email da página, que precisa ter o prefixo pedido
+    private static String decodeEmailCursor(String cursor, String emailPrefix) {
+        String email = decodeCursor(cursor);
+        if (!email.startsWith(emailPrefix)) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+        return email;
+    }
+
+    // Com réplica de leitura, repete a remoção quando a réplica já tiver a escrita, para descartar
+    // um usuário antigo que uma leitura atrasada tenha colocado de volta no cache
+    private void invalidate(Long id, String... emails) {
+        evict(id, emails);
+        if (replicaLagMonitor != null) {
+            replicaLagMonitor.afterCatchUp(() -> evict(id, emails));
+        }
+    }
+
+    // Remove o usuário dos dois caches após o commit. Quem chama informa os emails afetados (o
+    // anterior e o novo, numa troca de email), então a remoção não percorre o cache usersByEmail.
+    // O nome do usuário também aparece nas atividades, então a versão usada nos ETags muda junto.
+    private void evict(Long id, String... emails) {
+        new TransactionAwareCacheDecorator(cacheManager.getCache(CacheConfig.USERS)).evict(id);
+        Cache usersByEmail = new TransactionAwareCacheDecorator(cacheManager.getCache(CacheConfig.USERS_BY_EMAIL));
+        for (String email : emails) {
+            if (email != null) {
+                usersByEmail.evict(email);
+            }
+        }
+        versionService.bump(id);
+    }
 }
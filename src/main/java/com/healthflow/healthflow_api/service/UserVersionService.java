@@ -0,0 +1,46 @@
+package com.healthflow.healthflow_api.service;
+
+
+import com.healthflow.healthflow_api.config.CacheConfig;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Versão por usuário usada nos ETags do usuário, das suas atividades e das suas estatísticas.
+// Os ETags são fracos (W/), que bastam para If-None-Match: o Tomcat não comprime respostas com
+// ETag forte, já que o corpo gzip seria outra representação.
+// As versões vêm de um contador global e nunca se repetem; o prefixo sorteado na inicialização
+// impede que um ETag emitido antes de um reinício coincida com um novo. A versão vale apenas
+// para esta instância da aplicação.
+@Service
+@Timed("healthflow.service")
+public class UserVersionService {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private final AtomicLong counter = new AtomicLong();
+
+    private final String bootNonce = Long.toString(new SecureRandom().nextLong() & Long.MAX_VALUE, 36);
+
+    // Um usuário fora do cache recebe uma versão nova, nunca emitida antes. O variant distingue
+    // as representações da mesma versão (null para JSON).
+    public String etag(Long userId, String variant) {
+        Long version = cacheManager.getCache(CacheConfig.USER_VERSIONS).get(userId, counter::incrementAndGet);
+        String tag = bootNonce + "-" + Long.toString(version, 36);
+        return "W/\"" + (variant == null ? tag : tag + "-" + variant) + "\"";
+    }
+
+    // Executado após o commit quando há transação ativa, e depois das invalidações de cache já
+    // registradas na mesma transação, para que a nova versão nunca acompanhe dados antigos
+    public void bump(Long userId) {
+        Cache versions = cacheManager.getCache(CacheConfig.USER_VERSIONS);
+        new TransactionAwareCacheDecorator(versions).put(userId, counter.incrementAndGet());
+    }
+}
@@ -0,0 +1,68 @@
+package com.healthflow.healthflow_api.sharding;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+
+// Shard da transação atual: definido pela primeira operação com usuário e mantido até o fim da
+// transação, junto com os bloqueios de leitura dos usuários tocados, que impedem que a migração
+// de um desses usuários aconteça no meio dela
+final class ShardBinding implements TransactionSynchronization {
+
+    private final int shard;
+
+    private final List<Lock> locks = new ArrayList<>();
+
+    private ShardBinding(int shard) {
+        this.shard = shard;
+    }
+
+    static ShardBinding current() {
+        return (ShardBinding) TransactionSynchronizationManager.getResource(ShardBinding.class);
+    }
+
+    // Disponível apenas com uma transação real e sincronização ativa
+    static ShardBinding bind(int shard) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        ShardBinding binding = new ShardBinding(shard);
+        TransactionSynchronizationManager.bindResource(ShardBinding.class, binding);
+        TransactionSynchronizationManager.registerSynchronization(binding);
+        return binding;
+    }
+
+    int getShard() {
+        return shard;
+    }
+
+    boolean holds(Lock lock) {
+        return locks.stream().anyMatch(held -> held == lock);
+    }
+
+    // O bloqueio já foi obtido; é liberado quando a transação termina
+    void hold(Lock lock) {
+        locks.add(lock);
+    }
+
+    @Override
+    public void suspend() {
+        TransactionSynchronizationManager.unbindResource(ShardBinding.class);
+    }
+
+    @Override
+    public void resume() {
+        TransactionSynchronizationManager.bindResource(ShardBinding.class, this);
+    }
+
+    @Override
+    public void afterCompletion(int status) {
+        TransactionSynchronizationManager.unbindResourceIfPossible(ShardBinding.class);
+        locks.forEach(Lock::unlock);
+        locks.clear();
+    }
+}
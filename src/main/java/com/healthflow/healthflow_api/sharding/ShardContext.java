@@ -0,0 +1,39 @@
+package com.healthflow.healthflow_api.sharding;
+
+import java.util.function.Supplier;
+
+// Shard escolhido explicitamente para o código executado na thread atual. Tem precedência sobre o
+// shard vinculado à transação; usado pelos serviços que percorrem todos os shards
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {}
+
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    public static <T> T on(int shard, Supplier<T> work) {
+        Integer previous = enter(shard);
+        try {
+            return work.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    static Integer enter(int shard) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        return previous;
+    }
+
+    static void restore(Integer previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.healthflow.healthflow_api.sharding;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Localização dos dados de cada usuário. Cada shard emite ids de usuários e de atividades em um
+// bloco próprio de ID_BLOCK_SIZE ids, então o shard de origem de um usuário sai do próprio id e os
+// ids continuam únicos entre shards. Usuários migrados ficam registrados em user_shard_moves no
+// shard 0, que também guarda os dados anteriores ao sharding. Usuários novos vão para o shard dado
+// pelo hash consistente (jump hash) do email, que também é o destino de um rebalanceamento
+public class ShardDirectory {
+
+    public static final long ID_BLOCK_SIZE = 1L << 40;
+
+    private final List<DataSource> shards;
+
+    private final JdbcTemplate catalog;
+
+    private final Map<Long, Integer> moves = new ConcurrentHashMap<>();
+
+    public ShardDirectory(List<DataSource> shards) {
+        this.shards = List.copyOf(shards);
+        this.catalog = new JdbcTemplate(shards.get(0));
+        catalog.query("SELECT user_id, shard FROM user_shard_moves",
+                row -> {
+                    moves.put(row.getLong("user_id"), row.getInt("shard"));
+                });
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    public DataSource getDataSource(int shard) {
+        return shards.get(shard);
+    }
+
+    public int shardOf(long userId) {
+        Integer moved = moves.get(userId);
+        return moved != null ? moved : homeShard(userId);
+    }
+
+    // Shard que emitiu o id; ids fora dos blocos conhecidos não existem em nenhum shard e vão para o 0
+    public int homeShard(long userId) {
+        long block = Math.floorDiv(userId - 1, ID_BLOCK_SIZE);
+        return block >= 0 && block < shards.size() ? (int) block : 0;
+    }
+
+    public int placement(String email) {
+        long key = email.toLowerCase(Locale.ROOT).hashCode() * 0x9E3779B97F4A7C15L;
+        return jumpHash(key, shards.size());
+    }
+
+    // Dono de uma atividade a partir do id (as atividades não carregam o shard no id): uma consulta
+    // pela chave primária em cada shard
+    public Optional<Long> locateActivityOwner(long activityId) {
+        for (DataSource shard : shards) {
+            List<Long> owner = new JdbcTemplate(shard).queryForList(
+                    "SELECT user_id FROM health_activities WHERE id = ?", Long.class, activityId);
+            if (!owner.isEmpty()) {
+                return Optional.of(owner.get(0));
+            }
+        }
+        return Optional.empty();
+    }
+
+    void recordMove(long userId, int shard) {
+        if (shard == homeShard(userId)) {
+            catalog.update("DELETE FROM user_shard_moves WHERE user_id = ?", userId);
+            moves.remove(userId);
+        } else {
+            catalog.update("MERGE INTO user_shard_moves (user_id, shard) KEY (user_id) VALUES (?, ?)", userId, shard);
+            moves.put(userId, shard);
+        }
+    }
+
+    // Posiciona a identidade de users e a sequência das atividades no início do bloco do shard;
+    // um shard que já emitiu ids no seu bloco não é alterado. A sequência usa o otimizador pooled do
+    // Hibernate (incremento 50): o primeiro valor lido cobre os ids de valor - 49 até valor
+    public static void reserveIdBlock(DataSource shard, int index) {
+        JdbcTemplate jdbc = new JdbcTemplate(shard);
+        long blockStart = index * ID_BLOCK_SIZE + 1;
+
+        Long userBase = jdbc.queryForObject("SELECT IDENTITY_BASE FROM INFORMATION_SCHEMA.COLUMNS "
+                + "WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_NAME = 'USERS' AND COLUMN_NAME = 'ID'", Long.class);
+        if (userBase == null || userBase < blockStart) {
+            jdbc.execute("ALTER TABLE users ALTER COLUMN id RESTART WITH " + blockStart);
+        }
+
+        Long sequenceBase = jdbc.queryForObject("SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES "
+                + "WHERE SEQUENCE_SCHEMA = 'PUBLIC' AND SEQUENCE_NAME = 'HEALTH_ACTIVITIES_SEQ'", Long.class);
+        if (sequenceBase == null || sequenceBase < blockStart) {
+            jdbc.execute("ALTER SEQUENCE health_activities_seq RESTART WITH " + (blockStart + 49));
+        }
+    }
+
+    // Lamping e Veach, "A Fast, Minimal Memory, Consistent Hash Algorithm": ao passar de n para
+    // n + 1 shards, só 1/(n + 1) das chaves muda de shard
+    static int jumpHash(long key, int buckets) {
+        long bucket = -1;
+        long next = 0;
+        while (next < buckets) {
+            bucket = next;
+            key = key * 2862933555777941757L + 1;
+            next = (long) ((bucket + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) bucket;
+    }
+}
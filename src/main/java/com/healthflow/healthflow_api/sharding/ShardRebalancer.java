@@ -0,0 +1,198 @@
+package com.healthflow.healthflow_api.sharding;
+
+import com.healthflow.healthflow_api.DTO.ShardStatusDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+// Migração online de usuários entre shards. Com o bloqueio de escrita do usuário (que espera as
+// transações em andamento com ele e barra as novas), as linhas de users, user_credentials e
+// health_activities são copiadas para o destino em uma transação, os agregados são recalculados lá,
+// o diretório passa a apontar para o destino e só então as linhas são removidas dos outros shards.
+// Uma migração interrompida é retomada repetindo a chamada: a cópia substitui o que já estiver no destino
+public class ShardRebalancer {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardRebalancer.class);
+
+    private static final String REBUILD_ROLLUPS =
+            "INSERT INTO daily_activity_rollups (user_id, activity_type, date, total_value, activity_count, min_value, max_value) "
+                    + "SELECT user_id, activity_type, date, SUM(activity_value), COUNT(*), MIN(activity_value), MAX(activity_value) "
+                    + "FROM health_activities WHERE user_id = ? GROUP BY user_id, activity_type, date";
+
+    private final ShardDirectory directory;
+
+    private final ShardRouter router;
+
+    private final long lockTimeoutMillis;
+
+    public ShardRebalancer(ShardDirectory directory, ShardRouter router, Duration lockTimeout) {
+        this.directory = directory;
+        this.router = router;
+        this.lockTimeoutMillis = lockTimeout.toMillis();
+    }
+
+    public int getShardCount() {
+        return directory.getShardCount();
+    }
+
+    // Usuários e atividades em cada shard
+    public List<ShardStatusDTO> status() {
+        List<ShardStatusDTO> shards = new ArrayList<>();
+        for (int shard = 0; shard < directory.getShardCount(); shard++) {
+            JdbcTemplate jdbc = new JdbcTemplate(directory.getDataSource(shard));
+            shards.add(new ShardStatusDTO(shard,
+                    jdbc.queryForObject("SELECT COUNT(*) FROM users", Long.class),
+                    jdbc.queryForObject("SELECT COUNT(*) FROM health_activities", Long.class)));
+        }
+        return shards;
+    }
+
+    public synchronized void moveUser(long userId, int target) {
+        if (target < 0 || target >= directory.getShardCount()) {
+            throw new IllegalArgumentException("Shard inexistente: " + target);
+        }
+
+        Lock lock = router.userLock(userId).writeLock();
+        try {
+            if (!lock.tryLock(lockTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Usuário " + userId + " em uso; tente novamente");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Migração interrompida", e);
+        }
+
+        try {
+            int source = directory.shardOf(userId);
+            if (source != target) {
+                copy(userId, directory.getDataSource(source), directory.getDataSource(target));
+                directory.recordMove(userId, target);
+                log.info("Usuário {} migrado do shard {} para o shard {}", userId, source, target);
+            }
+            for (int shard = 0; shard < directory.getShardCount(); shard++) {
+                if (shard != target) {
+                    purge(userId, directory.getDataSource(shard));
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Migra até maxUsers usuários que não estão no shard indicado pelo email; devolve quantos migrou
+    public int rebalance(int maxUsers) {
+        int moved = 0;
+        for (int shard = 0; shard < directory.getShardCount() && moved < maxUsers; shard++) {
+            List<Map<String, Object>> users = new JdbcTemplate(directory.getDataSource(shard))
+                    .queryForList("SELECT id, email FROM users ORDER BY id");
+            for (Map<String, Object> user : users) {
+                if (moved >= maxUsers) {
+                    break;
+                }
+                long userId = ((Number) user.get("ID")).longValue();
+                int target = directory.placement((String) user.get("EMAIL"));
+                if (directory.shardOf(userId) == shard && target != shard) {
+                    moveUser(userId, target);
+                    moved++;
+                }
+            }
+        }
+        return moved;
+    }
+
+    private static void copy(long userId, DataSource source, DataSource target) {
+        try (Connection from = source.getConnection(); Connection to = target.getConnection()) {
+            to.setAutoCommit(false);
+            try {
+                delete(to, userId);
+                if (copyRows(from, to, "users", "id", userId) == 0) {
+                    throw new IllegalArgumentException("Usuário não encontrado");
+                }
+                copyRows(from, to, "user_credentials", "user_id", userId);
+                copyRows(from, to, "health_activities", "user_id", userId);
+                try (PreparedStatement rebuild = to.prepareStatement(REBUILD_ROLLUPS)) {
+                    rebuild.setLong(1, userId);
+                    rebuild.executeUpdate();
+                }
+                to.commit();
+            } catch (SQLException | RuntimeException e) {
+                to.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Falha ao migrar o usuário " + userId, e);
+        }
+    }
+
+    private static void purge(long userId, DataSource shard) {
+        try (Connection connection = shard.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                delete(connection, userId);
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Falha ao remover o usuário " + userId + " do shard de origem", e);
+        }
+    }
+
+    private static void delete(Connection connection, long userId) throws SQLException {
+        for (String statement : List.of("DELETE FROM daily_activity_rollups WHERE user_id = ?",
+                "DELETE FROM health_activities WHERE user_id = ?",
+                "DELETE FROM user_credentials WHERE user_id = ?",
+                "DELETE FROM users WHERE id = ?")) {
+            try (PreparedStatement delete = connection.prepareStatement(statement)) {
+                delete.setLong(1, userId);
+                delete.executeUpdate();
+            }
+        }
+    }
+
+    // Colunas nomeadas no INSERT: a ordem física pode variar entre shards
+    private static int copyRows(Connection from, Connection to, String table, String userColumn, long userId) throws SQLException {
+        try (PreparedStatement select = from.prepareStatement("SELECT * FROM " + table + " WHERE " + userColumn + " = ?")) {
+            select.setLong(1, userId);
+            try (ResultSet rows = select.executeQuery()) {
+                ResultSetMetaData metaData = rows.getMetaData();
+                List<String> columns = new ArrayList<>();
+                for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                    columns.add("\"" + metaData.getColumnName(i) + "\"");
+                }
+                String insert = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+                        + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")";
+
+                int copied = 0;
+                try (PreparedStatement statement = to.prepareStatement(insert)) {
+                    while (rows.next()) {
+                        for (int i = 1; i <= columns.size(); i++) {
+                            statement.setObject(i, rows.getObject(i));
+                        }
+                        statement.addBatch();
+                        if (++copied % 1000 == 0) {
+                            statement.executeBatch();
+                        }
+                    }
+                    statement.executeBatch();
+                }
+                return copied;
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.healthflow.healthflow_api.sharding;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+// Execução em shards: um shard específico (com ou sem transação própria) ou todos em paralelo.
+// Também guarda os bloqueios por usuário: operações com usuário seguram o bloqueio de leitura e a
+// migração de um usuário, o de escrita (distribuídos em faixas fixas pelo id)
+public class ShardRouter {
+
+    private static final int LOCK_STRIPES = 1024;
+
+    private final ShardDirectory directory;
+
+    private final TransactionTemplate newTransaction;
+
+    private final ExecutorService executor;
+
+    private final ReadWriteLock[] userLocks = new ReadWriteLock[LOCK_STRIPES];
+
+    public ShardRouter(ShardDirectory directory, PlatformTransactionManager transactionManager) {
+        this.directory = directory;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(2, directory.getShardCount() * 2), runnable -> {
+            Thread thread = new Thread(runnable, "shard-scatter-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            userLocks[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    public ShardDirectory getDirectory() {
+        return directory;
+    }
+
+    public int getShardCount() {
+        return directory.getShardCount();
+    }
+
+    // Usuário nulo (item inválido de um lote, por exemplo) fica no shard 0
+    public int shardOf(Long userId) {
+        return userId == null ? 0 : directory.shardOf(userId);
+    }
+
+    // Transação própria no shard; a transação externa, se houver, fica suspensa
+    public <T> T inTransaction(int shard, Supplier<T> work) {
+        return ShardContext.on(shard, () -> newTransaction.execute(status -> work.get()));
+    }
+
+    // Executa em todos os shards em paralelo e devolve os resultados na ordem dos shards
+    public <T> List<T> scatter(IntFunction<T> work) {
+        List<Future<T>> futures = new ArrayList<>(getShardCount());
+        for (int shard = 0; shard < getShardCount(); shard++) {
+            int target = shard;
+            futures.add(executor.submit(() -> ShardContext.on(target, () -> work.apply(target))));
+        }
+
+        List<T> results = new ArrayList<>(futures.size());
+        for (Future<T> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Consulta nos shards interrompida", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw new IllegalStateException("Falha na consulta aos shards", e.getCause());
+            }
+        }
+        return results;
+    }
+
+    public ReadWriteLock userLock(long userId) {
+        return userLocks[(Long.hashCode(userId) & Integer.MAX_VALUE) % LOCK_STRIPES];
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
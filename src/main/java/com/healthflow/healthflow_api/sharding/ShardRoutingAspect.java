@@ -0,0 +1,225 @@
+package com.healthflow.healthflow_api.sharding;
+
+import com.healthflow.healthflow_api.model.DailyActivityRollup;
+import com.healthflow.healthflow_api.model.HealthActivity;
+import com.healthflow.healthflow_api.model.User;
+import com.healthflow.healthflow_api.model.UserCredential;
+import com.healthflow.healthflow_api.repository.HealthActivityRepository;
+import com.healthflow.healthflow_api.repository.UserCredentialRepository;
+import com.healthflow.healthflow_api.repository.UserRepository;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.repository.query.Param;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Stream;
+
+// Roteia cada chamada dos repositórios para um shard:
+// - com usuário (parâmetro userId, id de usuário, de credencial ou de atividade, entidade gravada): o
+//   shard do usuário, que passa a valer para o resto da transação; outro shard na mesma transação é um erro
+// - sem usuário: o shard escolhido em ShardContext ou o da transação; sem nenhum dos dois, a consulta
+//   roda em todos os shards em paralelo e os resultados são combinados (listas concatenadas, Optional
+//   do primeiro shard que encontrar, contagens somadas). Escritas e Streams sem usuário são recusados
+@Aspect
+public class ShardRoutingAspect {
+
+    private static final Set<String> BY_ID = Set.of("findById", "existsById", "deleteById", "getReferenceById");
+
+    private final ShardRouter router;
+
+    // Posição do parâmetro userId de cada método, ou -1
+    private final ConcurrentMap<Method, Integer> userIdParameters = new ConcurrentHashMap<>();
+
+    private final long lockTimeoutMillis;
+
+    public ShardRoutingAspect(ShardRouter router, long lockTimeoutMillis) {
+        this.router = router;
+        this.lockTimeoutMillis = lockTimeoutMillis;
+    }
+
+    @Around("target(com.healthflow.healthflow_api.repository.UserRepository)"
+            + " || target(com.healthflow.healthflow_api.repository.HealthActivityRepository)"
+            + " || target(com.healthflow.healthflow_api.repository.DailyActivityRollupRepository)"
+            + " || target(com.healthflow.healthflow_api.repository.UserCredentialRepository)")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        if (method.getDeclaringClass() == Object.class || method.getName().equals("flush")) {
+            return joinPoint.proceed();
+        }
+
+        Set<Long> userIds = new TreeSet<>();
+        Integer shard = resolve(joinPoint.getTarget(), method, joinPoint.getArgs(), userIds);
+        ShardBinding binding = ShardBinding.current();
+        if (shard == null) {
+            shard = ShardContext.current() != null ? ShardContext.current()
+                    : binding != null ? Integer.valueOf(binding.getShard()) : null;
+            if (shard == null) {
+                return scatter(joinPoint, method);
+            }
+        } else if (binding != null && binding.getShard() != shard) {
+            throw new IllegalStateException("Transação iniciada no shard " + binding.getShard()
+                    + " não pode acessar o shard " + shard);
+        }
+
+        if (binding == null && !userIds.isEmpty()) {
+            binding = ShardBinding.bind(shard);
+        }
+        List<Lock> callLocks = lockUsers(userIds, binding);
+        Integer previous = ShardContext.enter(shard);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ShardContext.restore(previous);
+            callLocks.forEach(Lock::unlock);
+        }
+    }
+
+    // Shard da chamada, ou null quando ela não identifica um usuário
+    private Integer resolve(Object repository, Method method, Object[] args, Set<Long> userIds) {
+        String name = method.getName();
+        if (BY_ID.contains(name) && (repository instanceof UserRepository || repository instanceof UserCredentialRepository)) {
+            return userShard((Long) args[0], userIds);
+        }
+        if ((BY_ID.contains(name) || name.equals("findResponseById")) && repository instanceof HealthActivityRepository) {
+            Long owner = args[0] == null ? null : router.getDirectory().locateActivityOwner((Long) args[0]).orElse(null);
+            return owner == null ? Integer.valueOf(0) : userShard(owner, userIds);
+        }
+
+        int userIdArg = userIdParameters.computeIfAbsent(method, ShardRoutingAspect::userIdParameter);
+        if (userIdArg >= 0) {
+            return userShard((Long) args[userIdArg], userIds);
+        }
+
+        if (args.length == 1 && (name.startsWith("save") || name.startsWith("delete"))) {
+            if (args[0] instanceof Iterable<?> entities) {
+                Integer shard = null;
+                for (Object entity : entities) {
+                    int entityShard = entityShard(entity, userIds);
+                    if (shard != null && shard != entityShard) {
+                        throw new IllegalStateException("Lote com usuários em shards diferentes");
+                    }
+                    shard = entityShard;
+                }
+                return shard;
+            }
+            if (isEntity(args[0])) {
+                return entityShard(args[0], userIds);
+            }
+        }
+        return null;
+    }
+
+    private static int userIdParameter(Method method) {
+        Parameter[] parameters = method.getParameters();
+        for (int i = 0; i < parameters.length; i++) {
+            Param param = parameters[i].getAnnotation(Param.class);
+            if (param != null ? param.value().equals("userId") : parameters[i].getName().equals("userId")) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isEntity(Object arg) {
+        return arg instanceof User || arg instanceof HealthActivity || arg instanceof DailyActivityRollup
+                || arg instanceof UserCredential;
+    }
+
+    // Usuário ainda sem id é gravado no shard definido pelo email
+    private int entityShard(Object entity, Set<Long> userIds) {
+        if (entity instanceof User user) {
+            return user.getId() == null ? router.getDirectory().placement(user.getEmail()) : userShard(user.getId(), userIds);
+        }
+        if (entity instanceof HealthActivity activity) {
+            return userShard(activity.getUser().getId(), userIds);
+        }
+        if (entity instanceof DailyActivityRollup rollup) {
+            return userShard(rollup.getUserId(), userIds);
+        }
+        if (entity instanceof UserCredential credential) {
+            return userShard(credential.getUserId(), userIds);
+        }
+        throw new IllegalStateException("Entidade sem shard definido: " + entity.getClass().getSimpleName());
+    }
+
+    private int userShard(Long userId, Set<Long> userIds) {
+        if (userId != null) {
+            userIds.add(userId);
+        }
+        return router.shardOf(userId);
+    }
+
+    // Bloqueios de leitura dos usuários: ficam com a transação, se houver, ou só durante a chamada
+    private List<Lock> lockUsers(Set<Long> userIds, ShardBinding binding) throws InterruptedException {
+        List<Lock> callLocks = new ArrayList<>();
+        for (Long userId : userIds) {
+            Lock lock = router.userLock(userId).readLock();
+            if (binding != null && binding.holds(lock) || callLocks.contains(lock)) {
+                continue;
+            }
+            if (!lock.tryLock(lockTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                callLocks.forEach(Lock::unlock);
+                throw new UserMigrationInProgressException(userId);
+            }
+            if (binding != null) {
+                binding.hold(lock);
+            } else {
+                callLocks.add(lock);
+            }
+        }
+        return callLocks;
+    }
+
+    private Object scatter(ProceedingJoinPoint joinPoint, Method method) {
+        Class<?> returnType = method.getReturnType();
+        if (AnnotatedElementUtils.hasAnnotation(method, Modifying.class) || method.getName().startsWith("save")
+                || method.getName().startsWith("delete") || Stream.class.isAssignableFrom(returnType)) {
+            throw new IllegalStateException("Operação " + method.getName() + " sem usuário exige um shard definido");
+        }
+
+        List<Object> results = router.scatter(shard -> {
+            try {
+                return joinPoint.proceed();
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new UndeclaredThrowableException(e);
+            }
+        });
+        return merge(method, returnType, results);
+    }
+
+    private static Object merge(Method method, Class<?> returnType, List<Object> results) {
+        if (Collection.class.isAssignableFrom(returnType)) {
+            List<Object> merged = new ArrayList<>();
+            results.forEach(result -> merged.addAll((Collection<?>) result));
+            return merged;
+        }
+        if (returnType == Optional.class) {
+            return results.stream().map(Optional.class::cast).filter(Optional::isPresent).findFirst().orElse(Optional.empty());
+        }
+        if (returnType == boolean.class || returnType == Boolean.class) {
+            return results.stream().anyMatch(Boolean.TRUE::equals);
+        }
+        if (returnType == long.class || returnType == Long.class) {
+            return results.stream().mapToLong(result -> result == null ? 0 : (Long) result).sum();
+        }
+        throw new IllegalStateException("Consulta " + method.getName() + " sem usuário não pode ser combinada entre shards");
+    }
+}
@@ -0,0 +1,31 @@
+package com.healthflow.healthflow_api.sharding;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Conexão do shard escolhido em ShardContext ou, na falta dele, do shard vinculado à transação
+// (o flush do commit acontece fora das chamadas aos repositórios); sem nenhum dos dois, o shard 0
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    public ShardRoutingDataSource(ShardDirectory directory) {
+        Map<Object, Object> shards = new HashMap<>();
+        for (int shard = 0; shard < directory.getShardCount(); shard++) {
+            shards.put(shard, directory.getDataSource(shard));
+        }
+        setTargetDataSources(shards);
+        setDefaultTargetDataSource(directory.getDataSource(0));
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Integer shard = ShardContext.current();
+        if (shard != null) {
+            return shard;
+        }
+        ShardBinding binding = ShardBinding.current();
+        return binding != null ? binding.getShard() : 0;
+    }
+}
@@ -0,0 +1,10 @@
+package com.healthflow.healthflow_api.sharding;
+
+// O usuário está sendo movido entre shards e a espera pelo bloqueio esgotou. A operação não foi
+// executada e pode ser repetida; os controllers respondem 503 com Retry-After
+public class UserMigrationInProgressException extends RuntimeException {
+
+    public UserMigrationInProgressException(Long userId) {
+        super("Usuário " + userId + " em migração entre shards; tente novamente");
+    }
+}
@@ -0,0 +1,41 @@
+-- Esquema inicial do HealthFlow (equivalente ao gerado pelo Hibernate a partir das entidades)
+
+CREATE TABLE users (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name        VARCHAR(255) NOT NULL,
+    email       VARCHAR(255) NOT NULL,
+    password    VARCHAR(255) NOT NULL,
+    created_at  TIMESTAMP(6),
+    updated_at  TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE SEQUENCE health_activities_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE health_activities (
+    id              BIGINT NOT NULL,
+    user_id         BIGINT NOT NULL,
+    activity_type   VARCHAR(20) NOT NULL,
+    date            DATE NOT NULL,
+    activity_value  FLOAT(53) NOT NULL CHECK (activity_value >= 0),
+    created_at      TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_activity_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE INDEX idx_activity_user_date ON health_activities (user_id, date);
+CREATE INDEX idx_activity_user_type_date ON health_activities (user_id, activity_type, date);
+
+CREATE TABLE daily_activity_rollups (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    user_id         BIGINT NOT NULL,
+    activity_type   VARCHAR(20) NOT NULL,
+    date            DATE NOT NULL,
+    total_value     FLOAT(53) NOT NULL,
+    activity_count  BIGINT NOT NULL,
+    min_value       FLOAT(53) NOT NULL,
+    max_value       FLOAT(53) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_rollup_user_type_date UNIQUE (user_id, activity_type, date)
+);
@@ -0,0 +1,6 @@
+-- Chave de idempotência enviada pelo cliente; várias linhas podem ter a chave nula
+
+ALTER TABLE health_activities ADD COLUMN idempotency_key VARCHAR(64);
+
+ALTER TABLE health_activities
+    ADD CONSTRAINT uk_activity_user_idempotency_key UNIQUE (user_id, idempotency_key);
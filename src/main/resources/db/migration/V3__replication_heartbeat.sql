@@ -0,0 +1,7 @@
+-- Heartbeat gravado no primário e lido na réplica para medir o atraso da replicação
+
+CREATE TABLE replication_heartbeat (
+    id           BIGINT NOT NULL,
+    beat_millis  BIGINT NOT NULL,
+    PRIMARY KEY (id)
+);
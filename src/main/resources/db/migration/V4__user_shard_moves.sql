@@ -0,0 +1,7 @@
+-- Usuários migrados para um shard diferente daquele que emitiu o id (lida apenas no shard 0)
+
+CREATE TABLE user_shard_moves (
+    user_id  BIGINT NOT NULL,
+    shard    INTEGER NOT NULL,
+    PRIMARY KEY (user_id)
+);
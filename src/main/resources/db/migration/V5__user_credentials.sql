@@ -0,0 +1,15 @@
+-- Senhas fora de users, apenas como hash. As senhas anteriores (texto puro) são marcadas com {noop}
+-- e trocadas por um hash bcrypt no primeiro login bem-sucedido
+
+CREATE TABLE user_credentials (
+    user_id        BIGINT NOT NULL,
+    password_hash  VARCHAR(255) NOT NULL,
+    updated_at     TIMESTAMP(6),
+    PRIMARY KEY (user_id),
+    CONSTRAINT fk_credential_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+INSERT INTO user_credentials (user_id, password_hash, updated_at)
+    SELECT id, '{noop}' || password, updated_at FROM users;
+
+ALTER TABLE users DROP COLUMN password;
@@ -0,0 +1,32 @@
+package com.healthflow.healthflow_api;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Sobe com as migrações do Flyway e ddl-auto=validate, como no perfil "prod":
+// falha se o esquema versionado divergir das entidades
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:migrationtests",
+		"spring.flyway.enabled=true",
+		"spring.jpa.hibernate.ddl-auto=validate",
+		"spring.jpa.show-sql=false"
+})
+class SchemaMigrationTests {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void migrationsMatchTheEntityMappings() {
+		List<String> applied = jdbcTemplate.queryForList(
+				"SELECT \"version\" FROM \"flyway_schema_history\" WHERE \"version\" IS NOT NULL AND \"success\""
+						+ " ORDER BY \"installed_rank\"", String.class);
+		assertEquals(List.of("1", "2", "3", "4", "5"), applied);
+	}
+}
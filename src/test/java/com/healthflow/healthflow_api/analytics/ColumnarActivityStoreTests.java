@@ -0,0 +1,175 @@
+package com.healthflow.healthflow_api.analytics;
+
+import com.healthflow.healthflow_api.DTO.BatchItemResultDTO;
+import com.healthflow.healthflow_api.DTO.HealthActivityDTO;
+import com.healthflow.healthflow_api.DTO.HealthActivityResponseDTO;
+import com.healthflow.healthflow_api.event.ActivityChangeEvent;
+import com.healthflow.healthflow_api.model.User;
+import com.healthflow.healthflow_api.repository.ActivityPoint;
+import com.healthflow.healthflow_api.repository.HealthActivityRepository;
+import com.healthflow.healthflow_api.repository.UserRepository;
+import com.healthflow.healthflow_api.service.ActivityRollupService;
+import com.healthflow.healthflow_api.service.HealthActivityService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:columnartests",
+		"healthflow.analytics.columnar-store.enabled=true"
+})
+class ColumnarActivityStoreTests {
+
+	private static final String[] TYPES = {"WALKING", "WATER", "SLEEP"};
+	private static final LocalDate FIRST_DAY = LocalDate.of(2025, 5, 1);
+
+	@Autowired
+	private ColumnarActivityStore columnarStore;
+
+	@Autowired
+	private HealthActivityService activityService;
+
+	@Autowired
+	private ActivityRollupService rollupService;
+
+	@Autowired
+	private HealthActivityRepository activityRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void loadedSegmentFollowsInsertsDuplicatesAndDeletes() {
+		Long userId = userRepository.save(new User("Usuário Teste", UUID.randomUUID() + "@email.com", "senha")).getId();
+		Random random = new Random(11);
+		List<HealthActivityResponseDTO> saved = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			saved.add(activityService.save(randomActivity(userId, random)));
+		}
+
+		// Carrega o segmento; daqui em diante ele só muda pelos eventos após o commit
+		columnarStore.statistics(userId, FIRST_DAY);
+		long loadedRows = columnarStore.rowCount();
+		assertEquals(20, loadedRows);
+
+		for (int i = 0; i < 15; i++) {
+			saved.add(activityService.save(randomActivity(userId, random)));
+		}
+		List<HealthActivityDTO> batch = new ArrayList<>();
+		for (int i = 0; i < 30; i++) {
+			batch.add(randomActivity(userId, random));
+		}
+		for (BatchItemResultDTO result : activityService.saveBatch(batch)) {
+			saved.add(result.getActivity());
+		}
+		assertEquals(65, columnarStore.rowCount());
+
+		// O mesmo evento entregue de novo não duplica linhas
+		columnarStore.onActivityChange(ActivityChangeEvent.created(saved.subList(10, 30)));
+		assertEquals(65, columnarStore.rowCount());
+
+		for (int i = 0; i < saved.size(); i += 3) {
+			activityService.deleteById(saved.get(i).getId());
+		}
+		assertEquals(65 - 22, columnarStore.rowCount());
+
+		for (LocalDate startDate : List.of(FIRST_DAY, FIRST_DAY.plusDays(6), FIRST_DAY.plusDays(30))) {
+			assertEquals(byType(rollupService.findStatistics(userId, startDate)), byType(columnarStore.statistics(userId, startDate)));
+		}
+		for (String type : new String[]{null, "WATER", "RUNNING"}) {
+			LocalDate from = FIRST_DAY.plusDays(2);
+			LocalDate to = FIRST_DAY.plusDays(9);
+			assertEquals(databasePoints(userId, type, from, to), scannedPoints(userId, type, from, to));
+		}
+
+		// Um segmento relido do banco é idêntico ao mantido pelos eventos
+		List<String> incremental = scannedPoints(userId, null, FIRST_DAY, FIRST_DAY.plusDays(30));
+		columnarStore.clear();
+		assertEquals(incremental, scannedPoints(userId, null, FIRST_DAY, FIRST_DAY.plusDays(30)));
+	}
+
+	@Test
+	void mergeKeepsDayAndIdOrderAndIgnoresKnownIds() {
+		UserActivityColumns.Builder existing = new UserActivityColumns.Builder(4);
+		existing.add(1, 10, (short) 0, 1.0);
+		existing.add(5, 10, (short) 0, 5.0);
+		existing.add(3, 12, (short) 1, 3.0);
+		UserActivityColumns columns = existing.build();
+
+		UserActivityColumns.Builder rows = new UserActivityColumns.Builder(4);
+		rows.add(7, 12, (short) 0, 7.0);
+		rows.add(5, 10, (short) 0, 5.0);
+		rows.add(2, 10, (short) 1, 2.0);
+		rows.add(9, 8, (short) 1, 9.0);
+		UserActivityColumns merged = columns.withInserted(rows.sorted());
+
+		assertArrayEquals(new long[]{9, 1, 2, 5, 3, 7}, merged.ids);
+		assertArrayEquals(new int[]{8, 10, 10, 10, 12, 12}, merged.epochDays);
+		assertArrayEquals(new double[]{9.0, 1.0, 2.0, 5.0, 3.0, 7.0}, merged.values);
+		assertEquals(3, columns.size(), "O segmento original não muda");
+
+		UserActivityColumns removed = merged.withRemoved(Set.of(1L, 7L, 42L));
+		assertArrayEquals(new long[]{9, 2, 5, 3}, removed.ids);
+		assertSame(removed, removed.withRemoved(Set.of(42L)));
+		assertTrue(removed.contains(5, 10));
+		assertEquals(1, removed.lowerBound(10));
+	}
+
+	private static HealthActivityDTO randomActivity(Long userId, Random random) {
+		return new HealthActivityDTO(userId, TYPES[random.nextInt(TYPES.length)],
+				FIRST_DAY.plusDays(random.nextInt(12)), (double) random.nextInt(100));
+	}
+
+	// Soma e média por tipo, arredondadas para absorver diferenças de ordem na soma
+	private static Map<String, List<Long>> byType(List<Object[]> statistics) {
+		Map<String, List<Long>> byType = new TreeMap<>();
+		for (Object[] row : statistics) {
+			byType.put((String) row[0], List.of(Math.round(((Number) row[1]).doubleValue() * 1e6),
+					Math.round(((Number) row[2]).doubleValue() * 1e6)));
+		}
+		return byType;
+	}
+
+	private List<String> scannedPoints(Long userId, String type, LocalDate from, LocalDate to) {
+		List<String> points = new ArrayList<>();
+		columnarStore.scan(userId, type, from, to, (activityType, epochDay, value) ->
+				points.add(activityType + " " + LocalDate.ofEpochDay(epochDay) + " " + value));
+		return points;
+	}
+
+	// Mesma ordem do armazenamento colunar: (dia, id)
+	private List<String> databasePoints(Long userId, String type, LocalDate from, LocalDate to) {
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		transaction.setReadOnly(true);
+		return transaction.execute(status -> {
+			try (Stream<ActivityPoint> points = type == null
+					? activityRepository.streamPointsByUser(userId, from, to)
+					: activityRepository.streamPointsByUserAndType(userId, type, from, to)) {
+				return points.sorted(Comparator.comparing(ActivityPoint::date).thenComparing(ActivityPoint::id))
+						.map(point -> point.activityType() + " " + point.date() + " " + point.activityValue())
+						.toList();
+			}
+		});
+	}
+}
@@ -0,0 +1,101 @@
+package com.healthflow.healthflow_api.controller;
+
+import com.healthflow.healthflow_api.DTO.HealthActivityDTO;
+import com.healthflow.healthflow_api.model.User;
+import com.healthflow.healthflow_api.repository.UserRepository;
+import com.healthflow.healthflow_api.service.HealthActivityService;
+import com.healthflow.healthflow_api.sharding.UserMigrationInProgressException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+
+// Só a chave reutilizada vira 409; o usuário em migração é 503 e os demais erros de estado não são conflito
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = "spring.datasource.url=jdbc:h2:mem:activityerrorstatustests")
+class ActivityErrorStatusTests {
+
+	@LocalServerPort
+	private int port;
+
+	@MockitoSpyBean
+	private HealthActivityService activityService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	private Long userId;
+
+	@BeforeEach
+	void setUp() {
+		reset(activityService);
+		userId = userRepository.save(new User("Usuário Teste", UUID.randomUUID() + "@email.com", "senha")).getId();
+	}
+
+	@Test
+	void reusedIdempotencyKeyIsConflict() throws Exception {
+		String key = UUID.randomUUID().toString();
+
+		assertEquals(201, post("/api/activities", activity(30.0), key).statusCode());
+		assertEquals(200, post("/api/activities", activity(30.0), key).statusCode());
+
+		HttpResponse<String> reused = post("/api/activities", activity(45.0), key);
+		assertEquals(409, reused.statusCode());
+		assertEquals("Idempotency-Key já utilizada com outros dados", reused.body());
+	}
+
+	@Test
+	void userMigrationIsRetryable() throws Exception {
+		doThrow(new UserMigrationInProgressException(userId)).when(activityService).save(any(HealthActivityDTO.class));
+		doThrow(new UserMigrationInProgressException(userId)).when(activityService).save(any(HealthActivityDTO.class), any());
+		doThrow(new UserMigrationInProgressException(userId)).when(activityService).saveBatch(anyList());
+
+		for (HttpResponse<String> response : List.of(
+				post("/api/activities", activity(30.0), null),
+				post("/api/activities", activity(30.0), UUID.randomUUID().toString()),
+				post("/api/activities/batch", "[" + activity(30.0) + "]", null))) {
+			assertEquals(503, response.statusCode());
+			assertEquals("1", response.headers().firstValue("Retry-After").orElse(null));
+			assertEquals("Usuário " + userId + " em migração entre shards; tente novamente", response.body());
+		}
+	}
+
+	@Test
+	void otherStateErrorsAreNotConflicts() throws Exception {
+		doThrow(new IllegalStateException("Entidade sem shard definido")).when(activityService).save(any(HealthActivityDTO.class));
+
+		HttpResponse<String> response = post("/api/activities", activity(30.0), null);
+		assertEquals(400, response.statusCode());
+	}
+
+	private String activity(double value) {
+		return "{\"userId\":" + userId + ",\"activityType\":\"WALKING\",\"date\":\"2025-01-01\",\"activityValue\":" + value + "}";
+	}
+
+	private HttpResponse<String> post(String path, String json, String idempotencyKey) throws Exception {
+		HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(json));
+		if (idempotencyKey != null) {
+			request.header("Idempotency-Key", idempotencyKey);
+		}
+		return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+	}
+}
@@ -0,0 +1,104 @@
+package com.healthflow.healthflow_api.controller;
+
+import com.healthflow.healthflow_api.DTO.HealthActivityDTO;
+import com.healthflow.healthflow_api.model.User;
+import com.healthflow.healthflow_api.repository.UserRepository;
+import com.healthflow.healthflow_api.service.HealthActivityService;
+import com.healthflow.healthflow_api.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ConditionalGetTests {
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private HealthActivityService activityService;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	private Long userId;
+
+	@BeforeEach
+	void setUp() {
+		userId = userRepository.save(new User("Usuário Teste", UUID.randomUUID() + "@email.com", "senha")).getId();
+		activityService.save(new HealthActivityDTO(userId, "WALKING", LocalDate.of(2025, 1, 1), 30.0));
+	}
+
+	@Test
+	void unchangedActivitiesReturnNotModifiedWithoutQuery() throws Exception {
+		String path = "/api/activities/user/" + userId;
+		HttpResponse<String> first = get(path, null);
+		String etag = first.headers().firstValue("ETag").orElse(null);
+		assertEquals(200, first.statusCode());
+		assertNotNull(etag);
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		HttpResponse<String> revalidated = get(path, etag);
+		assertEquals(304, revalidated.statusCode());
+		assertEquals("", revalidated.body());
+		assertEquals(0, statistics.getPrepareStatementCount());
+
+		activityService.save(new HealthActivityDTO(userId, "WATER", LocalDate.of(2025, 1, 2), 2.0));
+		HttpResponse<String> changed = get(path, etag);
+		assertEquals(200, changed.statusCode());
+		assertNotEquals(etag, changed.headers().firstValue("ETag").orElse(null));
+	}
+
+	@Test
+	void statisticsAndUserChangeWithTheirData() throws Exception {
+		String statisticsPath = "/api/activities/user/" + userId + "/statistics?startDate=2025-01-01";
+		String statisticsEtag = get(statisticsPath, null).headers().firstValue("ETag").orElseThrow();
+		assertEquals(304, get(statisticsPath, statisticsEtag).statusCode());
+
+		activityService.save(new HealthActivityDTO(userId, "WALKING", LocalDate.of(2025, 1, 3), 45.0));
+		HttpResponse<String> changed = get(statisticsPath, statisticsEtag);
+		assertEquals(200, changed.statusCode());
+		assertEquals("[[\"WALKING\",75.0,37.5]]", changed.body());
+
+		String userPath = "/api/users/" + userId;
+		String userEtag = get(userPath, null).headers().firstValue("ETag").orElseThrow();
+		assertEquals(304, get(userPath, userEtag).statusCode());
+
+		User user = userService.findById(userId).orElseThrow();
+		userService.update(userId, "Nome Alterado", user.getEmail());
+		assertEquals(200, get(userPath, userEtag).statusCode());
+	}
+
+	private HttpResponse<String> get(String path, String ifNoneMatch) throws Exception {
+		HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+		if (ifNoneMatch != null) {
+			request.header("If-None-Match", ifNoneMatch);
+		}
+		return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+	}
+}
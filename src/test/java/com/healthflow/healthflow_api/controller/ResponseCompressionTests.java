@@ -0,0 +1,85 @@
+package com.healthflow.healthflow_api.controller;
+
+import com.healthflow.healthflow_api.DTO.HealthActivityDTO;
+import com.healthflow.healthflow_api.model.User;
+import com.healthflow.healthflow_api.repository.UserRepository;
+import com.healthflow.healthflow_api.service.HealthActivityService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ResponseCompressionTests {
+
+	private static final int ACTIVITIES = 200;
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private HealthActivityService activityService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	private Long userId;
+
+	@BeforeEach
+	void setUp() {
+		userId = userRepository.save(new User("Usuário Teste", UUID.randomUUID() + "@email.com", "senha")).getId();
+		List<HealthActivityDTO> activities = new ArrayList<>();
+		for (int i = 0; i < ACTIVITIES; i++) {
+			activities.add(new HealthActivityDTO(userId, i % 2 == 0 ? "WALKING" : "WATER", LocalDate.of(2025, 1, 1).plusDays(i), (double) i));
+		}
+		activityService.saveBatch(activities);
+	}
+
+	@Test
+	void largeListingIsCompressedAndMatchesIdentityBody() throws Exception {
+		String path = "/api/activities/user/" + userId;
+		HttpResponse<byte[]> identity = get(path, "identity");
+		HttpResponse<byte[]> gzip = get(path, "gzip");
+
+		assertEquals(String.valueOf(identity.body().length), identity.headers().firstValue("Content-Length").orElseThrow());
+		assertEquals("gzip", gzip.headers().firstValue("Content-Encoding").orElseThrow());
+		assertTrue(gzip.body().length < identity.body().length / 4);
+		try (GZIPInputStream inflated = new GZIPInputStream(new ByteArrayInputStream(gzip.body()))) {
+			assertArrayEquals(identity.body(), inflated.readAllBytes());
+		}
+	}
+
+	@Test
+	void smallResponseIsSentWithoutCompression() throws Exception {
+		HttpResponse<byte[]> statistics = get("/api/activities/user/" + userId + "/statistics?startDate=2025-01-01", "gzip");
+
+		assertEquals(200, statistics.statusCode());
+		assertTrue(statistics.headers().firstValue("Content-Encoding").isEmpty());
+		assertEquals(String.valueOf(statistics.body().length), statistics.headers().firstValue("Content-Length").orElseThrow());
+	}
+
+	private HttpResponse<byte[]> get(String path, String acceptEncoding) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+				.header("Accept-Encoding", acceptEncoding)
+				.build();
+		return client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+	}
+}
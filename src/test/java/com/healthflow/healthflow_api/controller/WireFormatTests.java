@@ -0,0 +1,97 @@
+package com.healthflow.healthflow_api.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.healthflow.healthflow_api.DTO.HealthActivityDTO;
+import com.healthflow.healthflow_api.model.User;
+import com.healthflow.healthflow_api.repository.UserRepository;
+import com.healthflow.healthflow_api.service.HealthActivityService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class WireFormatTests {
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private HealthActivityService activityService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	private String path;
+
+	@BeforeEach
+	void setUp() {
+		Long userId = userRepository.save(new User("Usuário Teste", UUID.randomUUID() + "@email.com", "senha")).getId();
+		activityService.save(new HealthActivityDTO(userId, "WALKING", LocalDate.of(2025, 1, 1), 30.0));
+		activityService.save(new HealthActivityDTO(userId, "WATER", LocalDate.of(2025, 1, 2), 2.0));
+		path = "/api/activities/user/" + userId;
+	}
+
+	@Test
+	void binaryFormatsCarryTheSameDataAsJson() throws Exception {
+		HttpResponse<byte[]> json = get(path, "*/*");
+		HttpResponse<byte[]> cbor = get(path, "application/cbor");
+		HttpResponse<byte[]> smile = get(path, "application/x-jackson-smile");
+
+		assertEquals("application/json", json.headers().firstValue("Content-Type").orElseThrow());
+		assertEquals("application/cbor", cbor.headers().firstValue("Content-Type").orElseThrow());
+		assertEquals("application/x-jackson-smile", smile.headers().firstValue("Content-Type").orElseThrow());
+
+		JsonNode expected = new ObjectMapper().readTree(json.body());
+		assertEquals(expected, new CBORMapper().readTree(cbor.body()));
+		assertEquals(expected, new SmileMapper().readTree(smile.body()));
+		assertEquals("2025-01-01", expected.get(0).get("date").asText());
+		assertTrue(cbor.body().length < json.body().length);
+	}
+
+	@Test
+	void etagIdentifiesTheRepresentation() throws Exception {
+		HttpResponse<byte[]> json = get(path, "application/json");
+		HttpResponse<byte[]> cbor = get(path, "application/cbor");
+		String jsonEtag = json.headers().firstValue("ETag").orElseThrow();
+		String cborEtag = cbor.headers().firstValue("ETag").orElseThrow();
+
+		assertNotEquals(jsonEtag, cborEtag);
+		assertTrue(cbor.headers().allValues("Vary").stream()
+				.flatMap(vary -> Arrays.stream(vary.split(",")))
+				.anyMatch(field -> field.trim().equalsIgnoreCase("Accept")));
+		assertEquals(304, get(path, "application/cbor", cborEtag).statusCode());
+		assertEquals(200, get(path, "application/cbor", jsonEtag).statusCode());
+	}
+
+	private HttpResponse<byte[]> get(String path, String accept) throws Exception {
+		return get(path, accept, null);
+	}
+
+	private HttpResponse<byte[]> get(String path, String accept, String ifNoneMatch) throws Exception {
+		HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+				.header("Accept", accept);
+		if (ifNoneMatch != null) {
+			request.header("If-None-Match", ifNoneMatch);
+		}
+		return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+	}
+}
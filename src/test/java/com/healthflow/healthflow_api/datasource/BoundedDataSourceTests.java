@@ -0,0 +1,86 @@
+package com.healthflow.healthflow_api.datasource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Duas permissões e espera curta: qualquer permissão perdida faz a abertura seguinte esgotar o tempo
+class BoundedDataSourceTests {
+
+	private static final int PERMITS = 2;
+
+	@Test
+	void closingReleasesThePermitOnce() throws SQLException {
+		BoundedDataSource dataSource = new BoundedDataSource(h2(), PERMITS, 50);
+
+		for (int round = 0; round < 5; round++) {
+			List<Connection> open = new ArrayList<>();
+			for (int i = 0; i < PERMITS; i++) {
+				open.add(dataSource.getConnection());
+			}
+			assertEquals(0, dataSource.getAvailablePermits());
+			assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+
+			for (Connection connection : open) {
+				connection.close();
+				// Fechar de novo não devolve uma segunda permissão
+				connection.close();
+			}
+			assertEquals(PERMITS, dataSource.getAvailablePermits());
+		}
+	}
+
+	@Test
+	void failedOpenReleasesThePermit() throws SQLException {
+		DataSource target = mock(DataSource.class);
+		when(target.getConnection()).thenThrow(new SQLException("Banco indisponível"));
+		when(target.getConnection(anyString(), anyString())).thenThrow(new IllegalStateException("Pool encerrado"));
+		BoundedDataSource dataSource = new BoundedDataSource(target, PERMITS, 50);
+
+		// Cada falha tem que chegar ao banco, e não esgotar o tempo por falta de permissão
+		for (int i = 0; i < PERMITS * 3; i++) {
+			SQLException failure = assertThrows(SQLException.class, dataSource::getConnection);
+			assertEquals("Banco indisponível", failure.getMessage());
+			assertThrows(IllegalStateException.class, () -> dataSource.getConnection("sa", ""));
+		}
+		assertEquals(PERMITS, dataSource.getAvailablePermits());
+	}
+
+	@Test
+	void failedCloseReleasesThePermit() throws SQLException {
+		Connection broken = mock(Connection.class);
+		doThrow(new SQLException("Conexão perdida")).when(broken).close();
+		DataSource target = mock(DataSource.class);
+		when(target.getConnection()).thenReturn(broken);
+		BoundedDataSource dataSource = new BoundedDataSource(target, PERMITS, 50);
+
+		for (int i = 0; i < PERMITS * 3; i++) {
+			Connection connection = dataSource.getConnection();
+			assertNotSame(broken, connection);
+			assertThrows(SQLException.class, connection::close);
+		}
+		assertEquals(PERMITS, dataSource.getAvailablePermits());
+		assertEquals(0, dataSource.getQueueLength());
+	}
+
+	private static DataSource h2() {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:boundeddatasourcetests");
+		dataSource.setUser("sa");
+		return dataSource;
+	}
+}
@@ -0,0 +1,141 @@
+package com.healthflow.healthflow_api.datasource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Replicação de teste entre dois bancos H2: a primeira sincronização copia o esquema (SCRIPT NODATA);
+// cada sincronização copia todas as linhas de um mesmo snapshot do primário e as substitui na réplica
+// em uma única transação, então as leituras na réplica nunca veem uma cópia pela metade.
+// O atraso da réplica é o tempo desde a última sincronização
+public class H2ReplicaReplicator implements AutoCloseable {
+
+    private final DataSource primary;
+
+    private final DataSource replica;
+
+    private boolean schemaCopied;
+
+    private ScheduledExecutorService executor;
+
+    public H2ReplicaReplicator(DataSource primary, DataSource replica) {
+        this.primary = primary;
+        this.replica = replica;
+    }
+
+    public synchronized void sync() {
+        try (Connection source = primary.getConnection(); Connection target = replica.getConnection()) {
+            if (!schemaCopied) {
+                copySchema(source, target);
+                schemaCopied = true;
+            }
+
+            source.setAutoCommit(false);
+            source.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            target.setAutoCommit(false);
+            try {
+                List<String> tables = tables(source);
+                try (Statement statement = target.createStatement()) {
+                    for (String table : tables) {
+                        statement.execute("DELETE FROM \"" + table + "\"");
+                    }
+                }
+                for (String table : tables) {
+                    copyRows(source, target, table);
+                }
+                target.commit();
+            } catch (SQLException | RuntimeException e) {
+                target.rollback();
+                throw e;
+            } finally {
+                source.rollback();
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Falha ao replicar", e);
+        }
+    }
+
+    // Sincroniza periodicamente em segundo plano até close()
+    public synchronized void start(Duration interval) {
+        sync();
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "h2-replicator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::sync, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    // As chaves estrangeiras ficam desligadas na réplica, que só recebe linhas do primário
+    private static void copySchema(Connection source, Connection target) throws SQLException {
+        List<String> script = new ArrayList<>();
+        try (Statement statement = source.createStatement();
+             ResultSet rows = statement.executeQuery("SCRIPT NODATA")) {
+            while (rows.next()) {
+                script.add(rows.getString(1));
+            }
+        }
+        try (Statement statement = target.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            for (String command : script) {
+                statement.execute(command);
+            }
+            statement.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        }
+    }
+
+    private static List<String> tables(Connection source) throws SQLException {
+        List<String> tables = new ArrayList<>();
+        try (Statement statement = source.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES"
+                     + " WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_TYPE = 'BASE TABLE'")) {
+            while (rows.next()) {
+                tables.add(rows.getString(1));
+            }
+        }
+        return tables;
+    }
+
+    private static void copyRows(Connection source, Connection target, String table) throws SQLException {
+        try (Statement select = source.createStatement();
+             ResultSet rows = select.executeQuery("SELECT * FROM \"" + table + "\"")) {
+            int columns = rows.getMetaData().getColumnCount();
+            String placeholders = String.join(", ", Collections.nCopies(columns, "?"));
+            try (PreparedStatement insert = target.prepareStatement(
+                    "INSERT INTO \"" + table + "\" VALUES (" + placeholders + ")")) {
+                int pending = 0;
+                while (rows.next()) {
+                    for (int i = 1; i <= columns; i++) {
+                        insert.setObject(i, rows.getObject(i));
+                    }
+                    insert.addBatch();
+                    if (++pending == 1000) {
+                        insert.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    insert.executeBatch();
+                }
+            }
+        }
+    }
+}
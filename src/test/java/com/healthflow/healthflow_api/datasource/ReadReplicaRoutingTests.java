@@ -0,0 +1,136 @@
+package com.healthflow.healthflow_api.datasource;
+
+import com.healthflow.healthflow_api.DTO.HealthActivityDTO;
+import com.healthflow.healthflow_api.model.User;
+import com.healthflow.healthflow_api.repository.UserRepository;
+import com.healthflow.healthflow_api.service.ActivityFeedService;
+import com.healthflow.healthflow_api.service.ActivityWriteBehindService;
+import com.healthflow.healthflow_api.service.HealthActivityService;
+import com.healthflow.healthflow_api.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Dois bancos H2 em memória; a réplica só recebe dados quando o teste chama o replicador
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:replicatests-primary",
+		"healthflow.datasource.replica.enabled=true",
+		"healthflow.datasource.replica.url=jdbc:h2:mem:replicatests-replica;DB_CLOSE_DELAY=-1",
+		"healthflow.datasource.replica.username=sa",
+		"healthflow.datasource.replica.max-lag=2s",
+		"healthflow.datasource.replica.heartbeat-interval=100ms",
+		"healthflow.activities.write-behind.enabled=true"
+})
+@DirtiesContext
+class ReadReplicaRoutingTests {
+
+	@Autowired
+	@Qualifier("primaryDataSource")
+	private DataSource primary;
+
+	@Autowired
+	@Qualifier("replicaDataSource")
+	private DataSource replica;
+
+	@Autowired
+	private ReplicaLagMonitor monitor;
+
+	@Autowired
+	private HealthActivityService activityService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private ActivityWriteBehindService writeBehindService;
+
+	@Autowired
+	private ActivityFeedService feedService;
+
+	private H2ReplicaReplicator replicator;
+
+	private Long userId;
+
+	@BeforeEach
+	void setUp() {
+		replicator = new H2ReplicaReplicator(primary, replica);
+		userId = userRepository.save(new User("Usuário Teste", UUID.randomUUID() + "@email.com", "senha")).getId();
+		activityService.save(new HealthActivityDTO(userId, "WALKING", LocalDate.of(2025, 1, 1), 30.0));
+	}
+
+	@Test
+	void readOnlyTransactionsAreServedByTheReplica() throws InterruptedException {
+		syncAndAwaitReplica();
+		long replicaReads = monitor.getReplicaReads();
+
+		activityService.save(new HealthActivityDTO(userId, "WATER", LocalDate.of(2025, 1, 2), 2.0));
+		assertEquals(1, activityService.findAllByUserId(userId).size());
+		assertTrue(monitor.getReplicaReads() > replicaReads);
+
+		replicator.sync();
+		assertEquals(2, activityService.findAllByUserId(userId).size());
+	}
+
+	@Test
+	void readsFallBackToThePrimaryWhenTheReplicaLags() throws InterruptedException {
+		syncAndAwaitReplica();
+		activityService.save(new HealthActivityDTO(userId, "WATER", LocalDate.of(2025, 1, 2), 2.0));
+
+		awaitTrue(() -> !monitor.isReplicaUsable());
+		long primaryReads = monitor.getPrimaryReads();
+		assertEquals(2, activityService.findAllByUserId(userId).size());
+		assertTrue(monitor.getPrimaryReads() > primaryReads);
+
+		// De volta à réplica assim que ela alcança o primário
+		syncAndAwaitReplica();
+		long replicaReads = monitor.getReplicaReads();
+		assertEquals(2, activityService.findAllByUserId(userId).size());
+		assertTrue(monitor.getReplicaReads() > replicaReads);
+	}
+
+	@Test
+	void newUserIsFoundOnThePrimaryBeforeReplication() throws InterruptedException {
+		syncAndAwaitReplica();
+		Long newUserId = userRepository.save(new User("Usuário Novo", UUID.randomUUID() + "@email.com", "senha")).getId();
+		assertTrue(userService.findById(newUserId).isEmpty(), "A réplica ainda não tem o usuário");
+
+		assertTrue(writeBehindService.enqueue(new HealthActivityDTO(newUserId, "WALKING", LocalDate.of(2025, 1, 3), 1.0)));
+		SseEmitter emitter = feedService.subscribe(newUserId);
+		assertNotNull(emitter);
+		emitter.complete();
+
+		assertThrows(RuntimeException.class, () -> writeBehindService.enqueue(
+				new HealthActivityDTO(Long.MAX_VALUE, "WALKING", LocalDate.of(2025, 1, 3), 1.0)));
+		assertThrows(RuntimeException.class, () -> feedService.subscribe(Long.MAX_VALUE));
+	}
+
+	private void syncAndAwaitReplica() throws InterruptedException {
+		replicator.sync();
+		awaitTrue(monitor::isReplicaUsable);
+	}
+
+	private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + 10_000_000_000L;
+		while (!condition.getAsBoolean()) {
+			assertTrue(System.nanoTime() < deadline, "Tempo de espera esgotado");
+			Thread.sleep(20);
+		}
+	}
+}
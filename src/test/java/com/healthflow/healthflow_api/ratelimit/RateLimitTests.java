@@ -0,0 +1,134 @@
+package com.healthflow.healthflow_api.ratelimit;
+
+import com.healthflow.healthflow_api.model.User;
+import com.healthflow.healthflow_api.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Limites com reposição lenta (um token a cada 100 s), para que nada seja reposto durante o teste
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.datasource.url=jdbc:h2:mem:ratelimittests",
+		"healthflow.rate-limit.enabled=true",
+		"healthflow.rate-limit.client-header=X-Client-Id",
+		"healthflow.rate-limit.expensive-reads.user.per-second=0.01",
+		"healthflow.rate-limit.expensive-reads.user.burst=2",
+		"healthflow.rate-limit.writes.client.per-second=0.01",
+		"healthflow.rate-limit.writes.client.burst=3",
+		"healthflow.rate-limit.writes.user.per-second=0.01",
+		"healthflow.rate-limit.writes.user.burst=2"
+})
+class RateLimitTests {
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private RateLimiter rateLimiter;
+
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	@Test
+	void userReadsAreLimitedPerUserAndBudget() throws Exception {
+		Long userId = createUser();
+		Long otherUserId = createUser();
+		String path = "/api/activities/user/" + userId;
+
+		assertEquals(200, get(path, "leitor").statusCode());
+		assertEquals(200, get(path, "leitor").statusCode());
+		HttpResponse<String> rejected = get(path, "leitor");
+		assertEquals(429, rejected.statusCode());
+		long retryAfter = Long.parseLong(rejected.headers().firstValue("Retry-After").orElseThrow());
+		assertTrue(retryAfter > 0 && retryAfter <= 100, "Retry-After: " + retryAfter);
+		assertTrue(rateLimiter.getRejections(RateLimitBudget.EXPENSIVE_READS, RateLimiter.Scope.USER) >= 1);
+
+		// Outro usuário, pelo mesmo cliente, e gravações do mesmo usuário têm baldes próprios
+		assertEquals(200, get("/api/activities/user/" + otherUserId, "leitor").statusCode());
+		assertEquals(201, post(userId, "leitor").statusCode());
+	}
+
+	@Test
+	void writesAreLimitedPerClient() throws Exception {
+		for (int i = 0; i < 3; i++) {
+			assertEquals(201, post(createUser(), "importador").statusCode());
+		}
+		HttpResponse<String> rejected = post(createUser(), "importador");
+		assertEquals(429, rejected.statusCode());
+		assertTrue(rejected.headers().firstValue("Retry-After").isPresent());
+		assertTrue(rateLimiter.getRejections(RateLimitBudget.WRITES, RateLimiter.Scope.CLIENT) >= 1);
+
+		assertEquals(201, post(createUser(), "outro-cliente").statusCode());
+	}
+
+	// Cada requisição por um cliente diferente, para que só o limite do usuário do corpo atue
+	@Test
+	void writesAreLimitedPerUserFromTheBody() throws Exception {
+		Long userId = createUser();
+		Long otherUserId = createUser();
+		Long thirdUserId = createUser();
+		long userRejections = rateLimiter.getRejections(RateLimitBudget.WRITES, RateLimiter.Scope.USER);
+
+		assertEquals(201, post(userId, "dispositivo-1").statusCode());
+		assertEquals(201, post(userId, "dispositivo-2").statusCode());
+		HttpResponse<String> rejected = post(userId, "dispositivo-3");
+		assertEquals(429, rejected.statusCode());
+		long retryAfter = Long.parseLong(rejected.headers().firstValue("Retry-After").orElseThrow());
+		assertTrue(retryAfter > 0 && retryAfter <= 100, "Retry-After: " + retryAfter);
+		assertEquals(userRejections + 1, rateLimiter.getRejections(RateLimitBudget.WRITES, RateLimiter.Scope.USER));
+
+		// Um lote consome um token por usuário distinto; com um usuário no limite, nada é gravado
+		assertEquals(201, postBatch(List.of(otherUserId, otherUserId), "dispositivo-4").statusCode());
+		assertEquals(429, postBatch(List.of(thirdUserId, userId), "dispositivo-5").statusCode());
+		assertEquals(429, post(userId, "dispositivo-6").statusCode());
+		assertEquals(201, post(otherUserId, "dispositivo-7").statusCode());
+		assertEquals(201, post(thirdUserId, "dispositivo-8").statusCode());
+		assertEquals(429, post(thirdUserId, "dispositivo-9").statusCode());
+	}
+
+	private Long createUser() {
+		return userRepository.save(new User("Usuário Teste", UUID.randomUUID() + "@email.com", "senha")).getId();
+	}
+
+	private HttpResponse<String> get(String path, String clientId) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+				.header("X-Client-Id", clientId)
+				.GET()
+				.build();
+		return client.send(request, HttpResponse.BodyHandlers.ofString());
+	}
+
+	private HttpResponse<String> post(Long userId, String clientId) throws Exception {
+		return post("/api/activities", activity(userId), clientId);
+	}
+
+	private HttpResponse<String> postBatch(List<Long> userIds, String clientId) throws Exception {
+		return post("/api/activities/batch", "[" + String.join(",", userIds.stream().map(RateLimitTests::activity).toList()) + "]", clientId);
+	}
+
+	private static String activity(Long userId) {
+		return "{\"userId\":" + userId + ",\"activityType\":\"WALKING\",\"date\":\"2025-01-01\",\"activityValue\":30.0}";
+	}
+
+	private HttpResponse<String> post(String path, String body, String clientId) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+				.header("X-Client-Id", clientId)
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(body))
+				.build();
+		return client.send(request, HttpResponse.BodyHandlers.ofString());
+	}
+}
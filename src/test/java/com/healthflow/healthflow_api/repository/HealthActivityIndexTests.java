@@ -0,0 +1,277 @@
+package com.healthflow.healthflow_api.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// O SQL das consultas é o que o Hibernate gera para os métodos dos repositórios, capturado por
+// RecordingStatementInspector: uma mudança em uma consulta JPQL muda também o plano verificado aqui
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:indextests",
+		"spring.jpa.show-sql=false",
+		"spring.jpa.properties.hibernate.session_factory.statement_inspector="
+				+ "com.healthflow.healthflow_api.repository.RecordingStatementInspector"
+})
+class HealthActivityIndexTests {
+
+	private static final int USERS = 1_000;
+	private static final String[] TYPES = {"EXERCISE", "WATER", "SLEEP", "MEDITATION", "WALKING"};
+	private static final LocalDate FIRST_DAY = LocalDate.of(2020, 1, 1);
+	private static final int PAGE_SIZE = 100;
+	private static final LocalDate EARLIEST_DATE = HealthActivityRepository.EARLIEST_DATE;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private HealthActivityRepository activityRepository;
+
+	@Autowired
+	private DailyActivityRollupRepository rollupRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private UserCredentialRepository credentialRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void everyRepositoryQueryUsesAnIndex() {
+		loadDataset(50_000);
+
+		assertAll(queries(USERS / 2).stream().map(query -> () -> {
+			String sql = capture(query);
+			String plan = explain(sql, query.parameters());
+			assertFalse(plan.contains("tableScan"), () -> "Table scan em " + query.name() + ": " + sql + "\n" + plan);
+			assertTrue(plan.contains(query.index()),
+					() -> "Índice " + query.index() + " não utilizado em " + query.name() + ": " + sql + "\n" + plan);
+			// Com ORDER BY, a ordem tem que vir do índice; senão o banco lê e ordena todas as linhas do filtro
+			assertTrue(!sql.toLowerCase().contains(" order by ") || plan.contains("index sorted"),
+					() -> "Ordenação fora do índice em " + query.name() + ": " + sql + "\n" + plan);
+		}));
+	}
+
+	// Executar com -Dhealthflow.perf=true; os resultados vão para target/perf/query-latency.csv
+	@Test
+	@EnabledIfSystemProperty(named = "healthflow.perf", matches = "true")
+	void recordQueryLatencyByDatasetSize() throws IOException {
+		List<String> lines = new ArrayList<>();
+		lines.add("rows,query,median_micros");
+
+		for (int rows : new int[]{10_000, 100_000, 1_000_000}) {
+			loadDataset(rows);
+			for (RepositoryQuery query : queries(USERS / 2)) {
+				lines.add(rows + "," + query.name() + "," + medianMicros(capture(query), query.parameters()));
+			}
+		}
+
+		Path output = Path.of("target", "perf", "query-latency.csv");
+		Files.createDirectories(output.getParent());
+		Files.write(output, lines);
+	}
+
+	// Consulta de repositório, os valores dos parâmetros JDBC na ordem em que aparecem no SQL gerado
+	// (um parâmetro nomeado usado duas vezes aparece duas vezes; o Limit vira o último) e o índice esperado.
+	// Só as listagens completas sem ordem, filtradas apenas por usuário, ficam com o índice da chave
+	// estrangeira fk_activity_user (user_id)
+	private record RepositoryQuery(String name, Runnable call, List<Object> parameters, String index) {
+	}
+
+	private List<RepositoryQuery> queries(long userId) {
+		LocalDate from = LocalDate.of(2021, 1, 1);
+		LocalDate to = LocalDate.of(2021, 6, 30);
+		LocalDate seriesTo = LocalDate.of(2023, 12, 31);
+		Limit page = Limit.of(PAGE_SIZE);
+		String email = "usuario" + userId + "@email.com";
+
+		List<RepositoryQuery> queries = new ArrayList<>();
+		queries.add(new RepositoryQuery("findByUserId",
+				() -> activityRepository.findByUserId(userId),
+				List.of(userId), "FK_ACTIVITY_USER"));
+		queries.add(new RepositoryQuery("findByUserIdAndActivityType",
+				() -> activityRepository.findByUserIdAndActivityType(userId, "WALKING"),
+				List.of(userId, "WALKING"), "IDX_ACTIVITY_USER_TYPE_DATE"));
+		queries.add(new RepositoryQuery("findByUserIdAndDateBetween",
+				() -> activityRepository.findByUserIdAndDateBetween(userId, from, to),
+				List.of(userId, from, to), "IDX_ACTIVITY_USER_DATE"));
+		queries.add(new RepositoryQuery("findRecentActivitiesByUser",
+				() -> activityRepository.findRecentActivitiesByUser(userId, from),
+				List.of(userId, from), "IDX_ACTIVITY_USER_DATE"));
+		queries.add(new RepositoryQuery("findStatisticsByUser",
+				() -> activityRepository.findStatisticsByUser(userId, from),
+				List.of(userId, from), "IDX_ACTIVITY_USER_DATE"));
+		queries.add(new RepositoryQuery("findResponseById",
+				() -> activityRepository.findResponseById(userId),
+				List.of(userId), "PRIMARY_KEY"));
+		queries.add(new RepositoryQuery("findResponseByUserIdAndIdempotencyKey",
+				() -> activityRepository.findResponseByUserIdAndIdempotencyKey(userId, "chave"),
+				List.of(userId, "chave"), "UK_ACTIVITY_USER_IDEMPOTENCY_KEY"));
+		queries.add(new RepositoryQuery("findResponsesByUserId",
+				() -> activityRepository.findResponsesByUserId(userId),
+				List.of(userId), "FK_ACTIVITY_USER"));
+		queries.add(new RepositoryQuery("findResponsesByUserIdAndActivityType",
+				() -> activityRepository.findResponsesByUserIdAndActivityType(userId, "WALKING"),
+				List.of(userId, "WALKING"), "IDX_ACTIVITY_USER_TYPE_DATE"));
+		queries.add(new RepositoryQuery("findFirstPageByUser",
+				() -> activityRepository.findFirstPageByUser(userId, page),
+				List.of(userId, EARLIEST_DATE, PAGE_SIZE), "IDX_ACTIVITY_USER_DATE"));
+		queries.add(new RepositoryQuery("findPageByUserAfter",
+				() -> activityRepository.findPageByUserAfter(userId, from, 0L, page),
+				List.of(userId, from, from, 0L, PAGE_SIZE), "IDX_ACTIVITY_USER_DATE"));
+		queries.add(new RepositoryQuery("findFirstPageByUserAndType",
+				() -> activityRepository.findFirstPageByUserAndType(userId, "WALKING", page),
+				List.of(userId, "WALKING", PAGE_SIZE), "IDX_ACTIVITY_USER_TYPE_DATE"));
+		queries.add(new RepositoryQuery("findPageByUserAndTypeAfter",
+				() -> activityRepository.findPageByUserAndTypeAfter(userId, "WALKING", from, 0L, page),
+				List.of(userId, "WALKING", from, from, 0L, PAGE_SIZE), "IDX_ACTIVITY_USER_TYPE_DATE"));
+		queries.add(new RepositoryQuery("streamByUser",
+				() -> activityRepository.streamByUser(userId).close(),
+				List.of(userId, EARLIEST_DATE), "IDX_ACTIVITY_USER_DATE"));
+		queries.add(new RepositoryQuery("streamByUserAndType",
+				() -> activityRepository.streamByUserAndType(userId, "WALKING").close(),
+				List.of(userId, "WALKING"), "IDX_ACTIVITY_USER_TYPE_DATE"));
+		queries.add(new RepositoryQuery("streamPointsByUser (intervalo)",
+				() -> activityRepository.streamPointsByUser(userId, from, seriesTo).close(),
+				List.of(userId, from, seriesTo), "IDX_ACTIVITY_USER_DATE"));
+		queries.add(new RepositoryQuery("streamPointsByUserAndType",
+				() -> activityRepository.streamPointsByUserAndType(userId, "WALKING", from, seriesTo).close(),
+				List.of(userId, "WALKING", from, seriesTo), "IDX_ACTIVITY_USER_TYPE_DATE"));
+		queries.add(new RepositoryQuery("streamPointsByUser",
+				() -> activityRepository.streamPointsByUser(userId).close(),
+				List.of(userId, EARLIEST_DATE), "IDX_ACTIVITY_USER_DATE"));
+
+		queries.add(new RepositoryQuery("rollups.findStatisticsByUser",
+				() -> rollupRepository.findStatisticsByUser(userId, from),
+				List.of(userId, from), "UK_ROLLUP_USER_TYPE_DATE"));
+		queries.add(new RepositoryQuery("rollups.findTotalsByUserRange",
+				() -> rollupRepository.findTotalsByUserRange(userId, userId + 99, from, from.plusDays(30)),
+				List.of(userId, userId + 99, from, from.plusDays(30)), "UK_ROLLUP_USER_TYPE_DATE"));
+		queries.add(new RepositoryQuery("rollups.findTotalsByUserRangeAndType",
+				() -> rollupRepository.findTotalsByUserRangeAndType(userId, userId + 99, "WALKING", from, from.plusDays(30)),
+				List.of(userId, userId + 99, "WALKING", from, from.plusDays(30)), "UK_ROLLUP_USER_TYPE_DATE"));
+
+		queries.add(new RepositoryQuery("users.findByEmail",
+				() -> userRepository.findByEmail(email),
+				List.of(email), "UK_USERS_EMAIL"));
+		queries.add(new RepositoryQuery("users.findFirstPage",
+				() -> userRepository.findFirstPage(Limit.of(PAGE_SIZE + 1)),
+				List.of(PAGE_SIZE + 1), "PRIMARY_KEY"));
+		queries.add(new RepositoryQuery("users.findPageAfter",
+				() -> userRepository.findPageAfter(userId, Limit.of(PAGE_SIZE + 1)),
+				List.of(userId, PAGE_SIZE + 1), "PRIMARY_KEY"));
+		queries.add(new RepositoryQuery("users.findFirstPageByEmailPrefix",
+				() -> userRepository.findFirstPageByEmailPrefix("usuario5", "usuario5\uffff", Limit.of(PAGE_SIZE + 1)),
+				List.of("usuario5", "usuario5\uffff", PAGE_SIZE + 1), "UK_USERS_EMAIL"));
+		queries.add(new RepositoryQuery("users.findPageByEmailPrefixAfter",
+				() -> userRepository.findPageByEmailPrefixAfter("usuario50", "usuario5\uffff", Limit.of(PAGE_SIZE + 1)),
+				List.of("usuario50", "usuario5\uffff", PAGE_SIZE + 1), "UK_USERS_EMAIL"));
+		queries.add(new RepositoryQuery("credentials.findPasswordHash",
+				() -> credentialRepository.findPasswordHash(userId),
+				List.of(userId), "PRIMARY_KEY"));
+		return queries;
+	}
+
+	// Executa a chamada e devolve o único SELECT que ela gerou
+	private String capture(RepositoryQuery query) {
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		transaction.setReadOnly(true);
+		RecordingStatementInspector.clear();
+		transaction.executeWithoutResult(status -> query.call().run());
+
+		List<String> selects = RecordingStatementInspector.statements().stream()
+				.filter(sql -> sql.regionMatches(true, 0, "select", 0, 6))
+				.toList();
+		assertEquals(1, selects.size(), () -> query.name() + " gerou " + selects);
+		String sql = selects.get(0);
+		assertEquals(query.parameters().size(), sql.chars().filter(c -> c == '?').count(),
+				() -> "Parâmetros de " + query.name() + " não correspondem ao SQL gerado: " + sql);
+		return sql;
+	}
+
+	private String explain(String sql, List<Object> parameters) {
+		return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, parameters.toArray()));
+	}
+
+	private long medianMicros(String sql, List<Object> parameters) {
+		Object[] args = parameters.toArray();
+		for (int i = 0; i < 20; i++) {
+			jdbcTemplate.queryForList(sql, args);
+		}
+
+		long[] samples = new long[51];
+		for (int i = 0; i < samples.length; i++) {
+			long start = System.nanoTime();
+			jdbcTemplate.queryForList(sql, args);
+			samples[i] = (System.nanoTime() - start) / 1_000;
+		}
+		Arrays.sort(samples);
+		return samples[samples.length / 2];
+	}
+
+	private void loadDataset(int rows) {
+		jdbcTemplate.update("DELETE FROM daily_activity_rollups");
+		jdbcTemplate.update("DELETE FROM health_activities");
+		jdbcTemplate.update("DELETE FROM users");
+
+		List<Object[]> users = new ArrayList<>(USERS);
+		for (long id = 1; id <= USERS; id++) {
+			users.add(new Object[]{id, "Usuário " + id, "usuario" + id + "@email.com"});
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO users (id, name, email, created_at, updated_at)"
+				+ " VALUES (?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", users);
+
+		Random random = new Random(42);
+		List<Object[]> activities = new ArrayList<>(10_000);
+		for (long id = 1; id <= rows; id++) {
+			activities.add(new Object[]{
+					id,
+					1 + random.nextInt(USERS),
+					TYPES[random.nextInt(TYPES.length)],
+					Date.valueOf(FIRST_DAY.plusDays(random.nextInt(5 * 365))),
+					random.nextDouble() * 100
+			});
+			if (activities.size() == 10_000) {
+				insertActivities(activities);
+				activities.clear();
+			}
+		}
+		insertActivities(activities);
+
+		jdbcTemplate.update("INSERT INTO daily_activity_rollups"
+				+ " (user_id, activity_type, date, total_value, activity_count, min_value, max_value)"
+				+ " SELECT user_id, activity_type, date, SUM(activity_value), COUNT(*), MIN(activity_value), MAX(activity_value)"
+				+ " FROM health_activities GROUP BY user_id, activity_type, date");
+		jdbcTemplate.execute("ANALYZE");
+	}
+
+	private void insertActivities(List<Object[]> activities) {
+		if (activities.isEmpty()) {
+			return;
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO health_activities (id, user_id, activity_type, date, activity_value, created_at)"
+				+ " VALUES (?, ?, ?, ?, ?, CURRENT_TIMESTAMP)", activities);
+	}
+}
@@ -0,0 +1,27 @@
+package com.healthflow.healthflow_api.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Guarda o SQL gerado pelo Hibernate, para que os testes rodem EXPLAIN sobre as consultas reais
+// dos repositórios. Registrado por spring.jpa.properties.hibernate.session_factory.statement_inspector
+public class RecordingStatementInspector implements StatementInspector {
+
+	private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+	@Override
+	public String inspect(String sql) {
+		STATEMENTS.add(sql);
+		return sql;
+	}
+
+	static void clear() {
+		STATEMENTS.clear();
+	}
+
+	static List<String> statements() {
+		return List.copyOf(STATEMENTS);
+	}
+}
@@ -0,0 +1,147 @@
+package com.healthflow.healthflow_api.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthflow.healthflow_api.DTO.BatchItemResultDTO;
+import com.healthflow.healthflow_api.DTO.HealthActivityDTO;
+import com.healthflow.healthflow_api.model.User;
+import com.healthflow.healthflow_api.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.datasource.url=jdbc:h2:mem:batchtests",
+		"healthflow.activities.batch.max-size=5"
+})
+class ActivityBatchTests {
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private HealthActivityService activityService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	private Long userId;
+
+	@BeforeEach
+	void setUp() {
+		userId = userRepository.save(new User("Usuário Teste", UUID.randomUUID() + "@email.com", "senha")).getId();
+	}
+
+	@Test
+	void validBatchReturnsCreated() throws Exception {
+		HttpResponse<String> response = postBatch(List.of(activity(userId, "WALKING", 10.0), activity(userId, "WATER", 2.0)));
+
+		assertEquals(201, response.statusCode());
+		JsonNode body = objectMapper.readTree(response.body());
+		assertEquals(2, body.get("saved").asInt());
+		assertEquals(0, body.get("rejected").asInt());
+		assertEquals(2, countActivities());
+	}
+
+	@Test
+	void mixedBatchReturnsMultiStatusWithOneResultPerPosition() throws Exception {
+		List<HealthActivityDTO> batch = List.of(
+				activity(userId, "WALKING", 10.0),
+				activity(userId, null, 1.0),
+				activity(999_999L, "WATER", 1.0),
+				activity(userId, "SLEEP", -1.0),
+				activity(userId, "WATER", 3.0));
+		HttpResponse<String> response = postBatch(batch);
+
+		assertEquals(207, response.statusCode());
+		JsonNode body = objectMapper.readTree(response.body());
+		assertEquals(5, body.get("received").asInt());
+		assertEquals(2, body.get("saved").asInt());
+		assertEquals(3, body.get("rejected").asInt());
+
+		JsonNode items = body.get("items");
+		List<Boolean> success = new ArrayList<>();
+		for (int i = 0; i < items.size(); i++) {
+			assertEquals(i, items.get(i).get("index").asInt());
+			success.add(items.get(i).get("success").asBoolean());
+		}
+		assertEquals(List.of(true, false, false, false, true), success);
+		assertEquals("Usuário não encontrado", items.get(2).get("error").asText());
+		assertEquals("WALKING", items.get(0).get("activity").get("activityType").asText());
+		assertEquals(3.0, items.get(4).get("activity").get("activityValue").asDouble());
+		assertEquals(2, countActivities());
+	}
+
+	@Test
+	void oversizedOrEmptyBatchIsRejected() throws Exception {
+		HealthActivityDTO[] six = new HealthActivityDTO[6];
+		Arrays.fill(six, activity(userId, "WALKING", 1.0));
+
+		HttpResponse<String> oversized = postBatch(Arrays.asList(six));
+		assertEquals(400, oversized.statusCode());
+		assertTrue(oversized.body().contains("tamanho máximo de 5"), oversized.body());
+		assertEquals(400, postBatch(List.of()).statusCode());
+		assertEquals(0, countActivities());
+	}
+
+	// Com o lote dividido internamente (sharding, validação), cada resultado volta na posição de origem
+	@Test
+	void serviceKeepsInputPositions() {
+		List<BatchItemResultDTO> results = activityService.saveBatch(List.of(
+				activity(999_999L, "WALKING", 1.0),
+				activity(userId, "WATER", 4.0),
+				activity(userId, "WATER", -4.0)));
+
+		assertEquals(3, results.size());
+		for (int i = 0; i < results.size(); i++) {
+			assertEquals(i, results.get(i).getIndex());
+		}
+		assertFalse(results.get(0).isSuccess());
+		assertTrue(results.get(1).isSuccess());
+		assertEquals(4.0, results.get(1).getActivity().getActivityValue());
+		assertNull(results.get(1).getError());
+		assertFalse(results.get(2).isSuccess());
+	}
+
+	private static HealthActivityDTO activity(Long userId, String type, double value) {
+		return new HealthActivityDTO(userId, type, LocalDate.of(2025, 2, 1), value);
+	}
+
+	private int countActivities() {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM health_activities WHERE user_id = ?", Integer.class, userId);
+	}
+
+	private HttpResponse<String> postBatch(List<HealthActivityDTO> batch) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/activities/batch"))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(batch)))
+				.build();
+		return client.send(request, HttpResponse.BodyHandlers.ofString());
+	}
+}
@@ -0,0 +1,75 @@
+package com.healthflow.healthflow_api.service;
+
+import com.healthflow.healthflow_api.DTO.HealthActivityDTO;
+import com.healthflow.healthflow_api.model.User;
+import com.healthflow.healthflow_api.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ActivityFeedTests {
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private HealthActivityService activityService;
+
+	@Autowired
+	private ActivityFeedService feedService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Test
+	void subscriberReceivesCommittedActivityAndStatisticsDelta() throws Exception {
+		Long userId = userRepository.save(new User("Usuário Teste", UUID.randomUUID() + "@email.com", "senha")).getId();
+		int subscribersBefore = feedService.getSubscriberCount();
+
+		HttpClient client = HttpClient.newHttpClient();
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/activities/user/" + userId + "/feed")).build();
+		HttpResponse<Stream<String>> response = client.send(request, HttpResponse.BodyHandlers.ofLines());
+		assertEquals(200, response.statusCode());
+		assertEquals(subscribersBefore + 1, feedService.getSubscriberCount());
+
+		activityService.save(new HealthActivityDTO(userId, "WALKING", LocalDate.of(2025, 1, 1), 30.0));
+
+		// Lê até o evento de estatísticas, que vem logo depois do evento da atividade
+		List<String> lines = CompletableFuture.supplyAsync(() -> {
+			List<String> received = new ArrayList<>();
+			Iterator<String> iterator = response.body().iterator();
+			while (iterator.hasNext()) {
+				String line = iterator.next();
+				received.add(line);
+				if (line.startsWith("data:") && received.contains("event:statistics-delta")) {
+					break;
+				}
+			}
+			return received;
+		}).get(10, TimeUnit.SECONDS);
+		response.body().close();
+
+		String events = String.join("\n", lines);
+		assertTrue(events.contains("event:activity-created\ndata:[{"), events);
+		assertTrue(events.contains("\"activityValue\":30.0"), events);
+		assertTrue(events.contains("\"activityCount\":1,\"totalValue\":30.0"), events);
+	}
+}
@@ -0,0 +1,100 @@
+package com.healthflow.healthflow_api.service;
+
+import com.healthflow.healthflow_api.DTO.HealthActivityDTO;
+import com.healthflow.healthflow_api.config.CacheConfig;
+import com.healthflow.healthflow_api.model.User;
+import com.healthflow.healthflow_api.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class ActivityIdempotencyTests {
+
+	private static final int THREADS = 16;
+
+	@Autowired
+	private ActivityIdempotencyService idempotencyService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Long userId;
+
+	@BeforeEach
+	void setUp() {
+		userId = userRepository.save(new User("Usuário Teste", UUID.randomUUID() + "@email.com", "senha")).getId();
+	}
+
+	@Test
+	void concurrentRetriesInsertOnce() throws Exception {
+		String key = UUID.randomUUID().toString();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		List<Future<ActivityIdempotencyService.Result>> futures = new ArrayList<>();
+		try {
+			for (int i = 0; i < THREADS; i++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					return idempotencyService.save(activity(30.0), key);
+				}));
+			}
+			start.countDown();
+
+			List<ActivityIdempotencyService.Result> results = new ArrayList<>();
+			for (Future<ActivityIdempotencyService.Result> future : futures) {
+				results.add(future.get());
+			}
+
+			assertEquals(1, results.stream().filter(result -> !result.replayed()).count());
+			assertEquals(1, results.stream().map(result -> result.activity().getId()).distinct().count());
+			assertEquals(1, countRows(key));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void replayAfterCacheEvictionComesFromDatabase() {
+		String key = UUID.randomUUID().toString();
+		ActivityIdempotencyService.Result first = idempotencyService.save(activity(30.0), key);
+		cacheManager.getCache(CacheConfig.IDEMPOTENCY_KEYS).clear();
+
+		ActivityIdempotencyService.Result replay = idempotencyService.save(activity(30.0), key);
+
+		assertEquals(first.activity().getId(), replay.activity().getId());
+		assertEquals(true, replay.replayed());
+		assertEquals(1, countRows(key));
+		assertThrows(IdempotencyKeyConflictException.class, () -> idempotencyService.save(activity(45.0), key));
+	}
+
+	private HealthActivityDTO activity(double value) {
+		return new HealthActivityDTO(userId, "WALKING", LocalDate.of(2025, 1, 1), value);
+	}
+
+	private int countRows(String key) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM health_activities WHERE user_id = ? AND idempotency_key = ?",
+				Integer.class, userId, key);
+	}
+}
@@ -0,0 +1,177 @@
+package com.healthflow.healthflow_api.service;
+
+import com.healthflow.healthflow_api.DTO.ImportRejectionDTO;
+import com.healthflow.healthflow_api.DTO.ImportReportDTO;
+import com.healthflow.healthflow_api.model.User;
+import com.healthflow.healthflow_api.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Blocos de 4 linhas, para que um arquivo pequeno atravesse vários commits, e linhas de até 200 caracteres
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:importtests",
+		"healthflow.activities.import.chunk-size=4",
+		"healthflow.activities.import.max-line-length=200"
+})
+class ActivityImportTests {
+
+	@Autowired
+	private ActivityImportService importService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void interruptedNdjsonImportResumesFromLastCommittedChunk() {
+		Long userId = newUser();
+		// Linhas 5 e 10 com JSON inválido, no meio do segundo e do terceiro bloco
+		String body = lines(14, line -> line == 5 || line == 10
+				? "{\"userId\": " + userId + ", \"activityType\": "
+				: "{\"userId\":" + userId + ",\"activityType\":\"WALKING\",\"date\":\"2025-04-01\",\"activityValue\":" + line + "}");
+
+		// A conexão cai depois da linha 10: a linha 10 estava no bloco ainda não gravado, e a rejeição
+		// dela só aparece no relatório da retomada
+		ImportReportDTO interrupted = importService.importActivities(
+				failingAfter(lines(body, 10)), ActivityImportService.Format.NDJSON, 0);
+
+		assertFalse(interrupted.isCompleted());
+		assertEquals("Conexão encerrada", interrupted.getError());
+		assertEquals(9, interrupted.getResumeOffset());
+		assertEquals(8, interrupted.getImported());
+		assertEquals(1, interrupted.getRejected());
+		assertEquals(List.of(5L), rejectedLines(interrupted));
+		assertTrue(interrupted.getRejections().get(0).getError().startsWith("JSON inválido"));
+		assertEquals(List.of(1.0, 2.0, 3.0, 4.0, 6.0, 7.0, 8.0, 9.0), values(userId));
+
+		ImportReportDTO resumed = importService.importActivities(stream(body), ActivityImportService.Format.NDJSON,
+				interrupted.getResumeOffset());
+
+		assertTrue(resumed.isCompleted());
+		assertEquals(14, resumed.getResumeOffset());
+		assertEquals(5, resumed.getLinesRead());
+		assertEquals(4, resumed.getImported());
+		assertEquals(1, resumed.getRejected());
+		assertEquals(List.of(10L), rejectedLines(resumed));
+		assertEquals(List.of(1.0, 2.0, 3.0, 4.0, 6.0, 7.0, 8.0, 9.0, 11.0, 12.0, 13.0, 14.0), values(userId));
+	}
+
+	@Test
+	void csvImportReportsRejectedLinesAcrossChunks() {
+		Long userId = newUser();
+		// Cabeçalho na linha 1; linha 6 com colunas a menos e linha 8 com valor negativo (rejeitada na gravação)
+		String body = lines(11, line -> switch (line) {
+			case 1 -> "userId,activityType,date,activityValue";
+			case 6 -> userId + ",WATER,2025-04-02";
+			case 8 -> userId + ",WATER,2025-04-02,-1";
+			default -> userId + ",WATER,2025-04-02," + line;
+		});
+
+		ImportReportDTO report = importService.importActivities(stream(body), ActivityImportService.Format.CSV, 0);
+
+		assertTrue(report.isCompleted());
+		assertEquals(11, report.getLinesRead());
+		assertEquals(11, report.getResumeOffset());
+		assertEquals(8, report.getImported());
+		assertEquals(2, report.getRejected());
+		assertEquals(List.of(6L, 8L), rejectedLines(report));
+		assertEquals(List.of(2.0, 3.0, 4.0, 5.0, 7.0, 9.0, 10.0, 11.0), values(userId));
+	}
+
+	@Test
+	void overLongLineIsRejectedAndReadingResumesAtTheNextLine() {
+		Long userId = newUser();
+		// Linha 3 com 1 MB sem quebra; fins de linha \r\n, como em arquivos gerados no Windows
+		String body = lines(6, line -> line == 3
+				? userId + ",WATER,2025-04-02," + "9".repeat(1 << 20)
+				: userId + ",WATER,2025-04-02," + line).replace("\n", "\r\n");
+
+		ImportReportDTO report = importService.importActivities(stream(body), ActivityImportService.Format.CSV, 0);
+
+		assertTrue(report.isCompleted());
+		assertEquals(6, report.getLinesRead());
+		assertEquals(6, report.getResumeOffset());
+		assertEquals(5, report.getImported());
+		assertEquals(List.of(3L), rejectedLines(report));
+		assertEquals("Linha acima de 200 caracteres", report.getRejections().get(0).getError());
+		assertEquals(List.of(1.0, 2.0, 4.0, 5.0, 6.0), values(userId));
+	}
+
+	private Long newUser() {
+		return userRepository.save(new User("Usuário Teste", UUID.randomUUID() + "@email.com", "senha")).getId();
+	}
+
+	private int countActivities(Long userId) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM health_activities WHERE user_id = ?", Integer.class, userId);
+	}
+
+	private List<Double> values(Long userId) {
+		return jdbcTemplate.queryForList("SELECT activity_value FROM health_activities WHERE user_id = ? ORDER BY activity_value",
+				Double.class, userId);
+	}
+
+	private static List<Long> rejectedLines(ImportReportDTO report) {
+		return report.getRejections().stream().map(ImportRejectionDTO::getLine).toList();
+	}
+
+	private static String lines(int count, IntFunction<String> line) {
+		StringBuilder body = new StringBuilder();
+		IntStream.rangeClosed(1, count).forEach(number -> body.append(line.apply(number)).append('\n'));
+		return body.toString();
+	}
+
+	// As primeiras linhas do corpo, com a quebra de linha final
+	private static String lines(String body, int count) {
+		int end = 0;
+		for (int i = 0; i < count; i++) {
+			end = body.indexOf('\n', end) + 1;
+		}
+		return body.substring(0, end);
+	}
+
+	private static InputStream stream(String body) {
+		return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+	}
+
+	// Entrega o conteúdo e falha na leitura seguinte, como uma conexão encerrada no meio do upload
+	private static InputStream failingAfter(String body) {
+		InputStream content = stream(body);
+		return new InputStream() {
+			@Override
+			public int read() throws IOException {
+				byte[] single = new byte[1];
+				return read(single, 0, 1) < 0 ? -1 : single[0] & 0xff;
+			}
+
+			@Override
+			public int read(byte[] buffer, int offset, int length) throws IOException {
+				if (content.available() == 0) {
+					throw new IOException("Conexão encerrada");
+				}
+				return content.read(buffer, offset, length);
+			}
+
+			@Override
+			public int available() throws IOException {
+				return content.available();
+			}
+		};
+	}
+}
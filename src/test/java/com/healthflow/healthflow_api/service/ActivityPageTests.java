@@ -0,0 +1,185 @@
+package com.healthflow.healthflow_api.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthflow.healthflow_api.DTO.ActivityPageDTO;
+import com.healthflow.healthflow_api.DTO.HealthActivityDTO;
+import com.healthflow.healthflow_api.DTO.HealthActivityResponseDTO;
+import com.healthflow.healthflow_api.model.User;
+import com.healthflow.healthflow_api.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Poucos dias para muitas atividades, gravadas fora de ordem: várias linhas com a mesma data ficam
+// nos dois lados de cada limite de página
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = "spring.datasource.url=jdbc:h2:mem:activitypagetests")
+class ActivityPageTests {
+
+	private static final LocalDate FIRST_DAY = LocalDate.of(2025, 6, 1);
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private HealthActivityService activityService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	private Long userId;
+
+	@BeforeEach
+	void setUp() {
+		userId = newUser();
+		Random random = new Random(5);
+		List<HealthActivityDTO> activities = new ArrayList<>();
+		for (int i = 0; i < 37; i++) {
+			activities.add(new HealthActivityDTO(userId, i % 3 == 0 ? "WATER" : "WALKING",
+					FIRST_DAY.plusDays(random.nextInt(5)), (double) i));
+		}
+		// Exatamente 8 atividades de sono: com páginas de 4, a última página fica cheia
+		for (int i = 0; i < 8; i++) {
+			activities.add(new HealthActivityDTO(userId, "SLEEP", FIRST_DAY.plusDays(i % 2), 7.0 + i));
+		}
+		activityService.saveBatch(activities);
+
+		// Atividades de outro usuário nas mesmas datas não podem aparecer nas páginas
+		Long otherUserId = newUser();
+		activityService.saveBatch(List.of(
+				new HealthActivityDTO(otherUserId, "WALKING", FIRST_DAY, 1.0),
+				new HealthActivityDTO(otherUserId, "SLEEP", FIRST_DAY.plusDays(1), 8.0)));
+	}
+
+	@Test
+	void pagesWalkEveryActivityOnceInDateAndIdOrder() {
+		for (int size : new int[]{1, 4, 7, 45, 100}) {
+			assertEquals(expectedIds(null), walk(null, size), "size " + size);
+		}
+	}
+
+	@Test
+	void typeFilterPagesOnlyThatType() {
+		assertEquals(expectedIds("WATER"), walk("WATER", 4));
+		assertEquals(expectedIds("SLEEP"), walk("SLEEP", 4));
+		assertTrue(walk("RUNNING", 4).isEmpty());
+
+		// A segunda página de 4 atividades de sono é a última e não aponta para uma página vazia
+		ActivityPageDTO first = activityService.findPageByUserId(userId, "SLEEP", null, 4);
+		assertNotNull(first.getNextCursor());
+		ActivityPageDTO last = activityService.findPageByUserId(userId, "SLEEP", first.getNextCursor(), 4);
+		assertEquals(4, last.getItems().size());
+		assertNull(last.getNextCursor());
+	}
+
+	@Test
+	void malformedCursorIsBadRequest() throws Exception {
+		String path = "/api/activities/user/" + userId + "/page?cursor=";
+		for (String raw : new String[]{"abc", "2025-06-01", "2025-06-01|x", "01/06/2025|1"}) {
+			String cursor = Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+			HttpResponse<String> response = get(path + cursor);
+			assertEquals(400, response.statusCode(), raw);
+			assertEquals("Cursor inválido", response.body());
+		}
+		assertEquals(400, get(path + URLEncoder.encode("não-é-base64!", StandardCharsets.UTF_8)).statusCode());
+	}
+
+	@Test
+	void streamIsAJsonArrayMatchingTheList() throws Exception {
+		for (String query : new String[]{"", "?type=WATER"}) {
+			HttpResponse<String> streamed = get("/api/activities/user/" + userId + "/stream" + query);
+			assertEquals(200, streamed.statusCode());
+			assertTrue(streamed.headers().firstValue("Content-Type").orElseThrow().startsWith("application/json"));
+
+			JsonNode array = objectMapper.readTree(streamed.body());
+			assertTrue(array.isArray());
+			List<Long> ids = new ArrayList<>();
+			array.forEach(activity -> ids.add(activity.get("id").asLong()));
+			assertEquals(expectedIds(query.isEmpty() ? null : "WATER"), ids);
+		}
+
+		// Os mesmos objetos da listagem completa, campo a campo
+		JsonNode streamed = objectMapper.readTree(get("/api/activities/user/" + userId + "/stream").body());
+		JsonNode listed = objectMapper.readTree(get("/api/activities/user/" + userId).body());
+		assertEquals(listed.size(), streamed.size());
+		assertEquals(new HashSet<>(toList(listed)), new HashSet<>(toList(streamed)));
+
+		JsonNode empty = objectMapper.readTree(get("/api/activities/user/" + userId + "/stream?type=RUNNING").body());
+		assertTrue(empty.isArray());
+		assertEquals(0, empty.size());
+	}
+
+	private List<Long> walk(String type, int size) {
+		List<Long> ids = new ArrayList<>();
+		String cursor = null;
+		do {
+			ActivityPageDTO page = activityService.findPageByUserId(userId, type, cursor, size);
+			assertTrue(page.getItems().size() <= size);
+			cursor = page.getNextCursor();
+			// Só a última página pode vir incompleta, e nenhuma página vem vazia depois da primeira
+			if (cursor != null) {
+				assertEquals(size, page.getItems().size());
+			}
+			assertFalse(page.getItems().isEmpty() && !ids.isEmpty());
+			for (HealthActivityResponseDTO activity : page.getItems()) {
+				assertEquals(userId, activity.getUserId());
+				ids.add(activity.getId());
+			}
+		} while (cursor != null);
+		return ids;
+	}
+
+	private List<Long> expectedIds(String type) {
+		return type == null
+				? jdbcTemplate.queryForList("SELECT id FROM health_activities WHERE user_id = ? ORDER BY date, id", Long.class, userId)
+				: jdbcTemplate.queryForList("SELECT id FROM health_activities WHERE user_id = ? AND activity_type = ? ORDER BY date, id",
+						Long.class, userId, type);
+	}
+
+	private static List<JsonNode> toList(JsonNode array) {
+		List<JsonNode> items = new ArrayList<>();
+		array.forEach(items::add);
+		return items;
+	}
+
+	private Long newUser() {
+		return userRepository.save(new User("Usuário Teste", UUID.randomUUID() + "@email.com", "senha")).getId();
+	}
+
+	private HttpResponse<String> get(String path) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+		return client.send(request, HttpResponse.BodyHandlers.ofString());
+	}
+}
@@ -0,0 +1,183 @@
+package com.healthflow.healthflow_api.service;
+
+import com.healthflow.healthflow_api.DTO.BatchItemResultDTO;
+import com.healthflow.healthflow_api.DTO.HealthActivityDTO;
+import com.healthflow.healthflow_api.model.User;
+import com.healthflow.healthflow_api.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Agregados diários mantidos a cada gravação comparados com um GROUP BY sobre as atividades brutas
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:rolluptests")
+class ActivityRollupTests {
+
+	private static final String[] TYPES = {"WALKING", "WATER", "SLEEP"};
+	private static final LocalDate FIRST_DAY = LocalDate.of(2025, 3, 1);
+
+	@Autowired
+	private HealthActivityService activityService;
+
+	@Autowired
+	private ActivityRollupService rollupService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void rollupsFollowInsertsBatchesAndDeletes() {
+		Long userId = userRepository.save(new User("Usuário Teste", UUID.randomUUID() + "@email.com", "senha")).getId();
+		Random random = new Random(7);
+		List<Long> ids = new ArrayList<>();
+
+		for (int i = 0; i < 60; i++) {
+			ids.add(activityService.save(randomActivity(userId, random)).getId());
+		}
+		for (int batch = 0; batch < 3; batch++) {
+			List<HealthActivityDTO> items = new ArrayList<>();
+			for (int i = 0; i < 40; i++) {
+				items.add(randomActivity(userId, random));
+			}
+			for (BatchItemResultDTO result : activityService.saveBatch(items)) {
+				assertTrue(result.isSuccess(), result.getError());
+				ids.add(result.getActivity().getId());
+			}
+		}
+
+		// Um dia com uma única atividade, fora do intervalo das demais, excluída em seguida
+		LocalDate loneDay = FIRST_DAY.minusDays(1);
+		Long lone = activityService.save(new HealthActivityDTO(userId, "WALKING", loneDay, 5.0)).getId();
+		assertEquals(1, countRollupRows(userId, loneDay));
+		activityService.deleteById(lone);
+		assertEquals(0, countRollupRows(userId, loneDay));
+
+		Collections.shuffle(ids, random);
+		for (Long id : ids.subList(0, 50)) {
+			activityService.deleteById(id);
+		}
+
+		assertEquals(
+				rows("SELECT activity_type, date, SUM(activity_value), COUNT(*), MIN(activity_value), MAX(activity_value)"
+						+ " FROM health_activities WHERE user_id = ? GROUP BY activity_type, date ORDER BY activity_type, date", userId),
+				rows("SELECT activity_type, date, total_value, activity_count, min_value, max_value"
+						+ " FROM daily_activity_rollups WHERE user_id = ? ORDER BY activity_type, date", userId));
+
+		for (LocalDate startDate : List.of(loneDay, FIRST_DAY.plusDays(4))) {
+			Map<String, double[]> expected = new TreeMap<>();
+			jdbcTemplate.query("SELECT activity_type, SUM(activity_value), AVG(activity_value) FROM health_activities"
+							+ " WHERE user_id = ? AND date >= ? GROUP BY activity_type",
+					rs -> {
+						expected.put(rs.getString(1), new double[]{rs.getDouble(2), rs.getDouble(3)});
+					}, userId, startDate);
+
+			Map<String, double[]> actual = new TreeMap<>();
+			for (Object[] row : rollupService.findStatistics(userId, startDate)) {
+				actual.put((String) row[0], new double[]{((Number) row[1]).doubleValue(), ((Number) row[2]).doubleValue()});
+			}
+
+			assertEquals(expected.keySet(), actual.keySet());
+			expected.forEach((type, values) -> {
+				assertEquals(values[0], actual.get(type)[0], 1e-9, type);
+				assertEquals(values[1], actual.get(type)[1], 1e-9, type);
+			});
+		}
+	}
+
+	// Duas primeiras gravações do mesmo (usuário, tipo, dia) em transações simultâneas: as duas
+	// tentam inserir a linha do agregado, e a segunda só vê a primeira depois do commit dela
+	@Test
+	void concurrentFirstWritesOfTheSameDayBothCommit() throws Exception {
+		Long userId = userRepository.save(new User("Usuário Teste", UUID.randomUUID() + "@email.com", "senha")).getId();
+		LocalDate day = FIRST_DAY.plusDays(40);
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		CountDownLatch firstWritten = new CountDownLatch(1);
+		CountDownLatch releaseFirst = new CountDownLatch(1);
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+
+		Thread first = new Thread(() -> {
+			try {
+				transaction.executeWithoutResult(status -> {
+					activityService.save(new HealthActivityDTO(userId, "WATER", day, 2.0));
+					firstWritten.countDown();
+					await(releaseFirst);
+				});
+			} catch (Throwable e) {
+				failure.compareAndSet(null, e);
+			}
+		});
+		Thread second = new Thread(() -> {
+			try {
+				await(firstWritten);
+				activityService.saveBatch(List.of(new HealthActivityDTO(userId, "WATER", day, 3.0),
+						new HealthActivityDTO(userId, "WATER", day, 1.0)));
+			} catch (Throwable e) {
+				failure.compareAndSet(null, e);
+			}
+		});
+		first.start();
+		second.start();
+
+		// O segundo lote fica esperando a linha ainda não confirmada do primeiro
+		await(firstWritten);
+		Thread.sleep(300);
+		releaseFirst.countDown();
+		first.join();
+		second.join();
+
+		assertNull(failure.get(), () -> "Gravação desfeita: " + failure.get());
+		assertEquals(3, jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM health_activities WHERE user_id = ? AND date = ?", Integer.class, userId, day));
+		assertEquals(List.of("WATER " + day + " 6.0 3 1.0 3.0"),
+				rows("SELECT activity_type, date, total_value, activity_count, min_value, max_value"
+						+ " FROM daily_activity_rollups WHERE user_id = ?", userId));
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			assertTrue(latch.await(30, TimeUnit.SECONDS));
+		} catch (InterruptedException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	// Poucos dias e tipos, para que várias atividades caiam na mesma linha de agregado
+	private static HealthActivityDTO randomActivity(Long userId, Random random) {
+		return new HealthActivityDTO(userId, TYPES[random.nextInt(TYPES.length)],
+				FIRST_DAY.plusDays(random.nextInt(10)), (double) random.nextInt(100));
+	}
+
+	private int countRollupRows(Long userId, LocalDate date) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM daily_activity_rollups WHERE user_id = ? AND date = ?",
+				Integer.class, userId, date);
+	}
+
+	private List<String> rows(String sql, Long userId) {
+		return jdbcTemplate.query(sql, (rs, rowNum) -> rs.getString(1) + " " + rs.getDate(2) + " "
+				+ rs.getDouble(3) + " " + rs.getLong(4) + " " + rs.getDouble(5) + " " + rs.getDouble(6), userId);
+	}
+}
@@ -0,0 +1,76 @@
+package com.healthflow.healthflow_api.service;
+
+import com.healthflow.healthflow_api.DTO.ActivitySeriesDTO;
+import com.healthflow.healthflow_api.DTO.HealthActivityDTO;
+import com.healthflow.healthflow_api.model.User;
+import com.healthflow.healthflow_api.repository.UserRepository;
+import com.healthflow.healthflow_api.service.ActivitySeriesService.Bucket;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:seriestests")
+class ActivitySeriesTests {
+
+	@Autowired
+	private ActivitySeriesService seriesService;
+
+	@Autowired
+	private HealthActivityService activityService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Test
+	void bucketBoundaries() {
+		LocalDate sunday = LocalDate.of(2024, 3, 3);
+		LocalDate monday = LocalDate.of(2024, 3, 4);
+		assertEquals(sunday, Bucket.DAY.startOf(sunday));
+		assertEquals(monday, Bucket.DAY.next(sunday));
+
+		assertEquals(LocalDate.of(2024, 2, 26), Bucket.WEEK.startOf(sunday));
+		assertEquals(monday, Bucket.WEEK.startOf(monday));
+		assertEquals(monday, Bucket.WEEK.next(Bucket.WEEK.startOf(sunday)));
+		// Semana que atravessa a virada do ano
+		assertEquals(LocalDate.of(2024, 12, 30), Bucket.WEEK.startOf(LocalDate.of(2025, 1, 5)));
+
+		assertEquals(LocalDate.of(2024, 2, 1), Bucket.MONTH.startOf(LocalDate.of(2024, 2, 29)));
+		assertEquals(LocalDate.of(2024, 3, 1), Bucket.MONTH.next(LocalDate.of(2024, 2, 1)));
+		assertEquals(LocalDate.of(2025, 1, 1), Bucket.MONTH.next(LocalDate.of(2024, 12, 1)));
+	}
+
+	@Test
+	void activitiesOnEitherSideOfABoundaryFallInDifferentBuckets() {
+		Long userId = userRepository.save(new User("Usuário Teste", UUID.randomUUID() + "@email.com", "senha")).getId();
+		// Domingo, segunda, último dia de fevereiro (ano bissexto) e primeiro de março
+		for (String date : List.of("2024-02-25", "2024-02-26", "2024-02-26", "2024-02-29", "2024-03-01")) {
+			activityService.save(new HealthActivityDTO(userId, "WALKING", LocalDate.parse(date), 10.0));
+		}
+		LocalDate from = LocalDate.of(2024, 2, 1);
+		LocalDate to = LocalDate.of(2024, 3, 31);
+
+		assertEquals(List.of("2024-02-25:1", "2024-02-26:2", "2024-02-29:1", "2024-03-01:1"),
+				buckets(seriesService.findSeries(userId, null, from, to, Bucket.DAY)));
+		assertEquals(List.of("2024-02-19:1", "2024-02-26:4"),
+				buckets(seriesService.findSeries(userId, null, from, to, Bucket.WEEK)));
+		assertEquals(List.of("2024-02-01:4", "2024-03-01:1"),
+				buckets(seriesService.findSeries(userId, null, from, to, Bucket.MONTH)));
+
+		// As datas do intervalo são inclusivas
+		assertEquals(List.of("2024-02-26:2", "2024-02-29:1"),
+				buckets(seriesService.findSeries(userId, "WALKING", LocalDate.of(2024, 2, 26), LocalDate.of(2024, 2, 29), Bucket.DAY)));
+	}
+
+	private static List<String> buckets(List<ActivitySeriesDTO> series) {
+		assertEquals(1, series.size());
+		return series.get(0).getBuckets().stream()
+				.map(bucket -> bucket.getStart() + ":" + bucket.getCount())
+				.toList();
+	}
+}
@@ -0,0 +1,129 @@
+package com.healthflow.healthflow_api.service;
+
+import com.healthflow.healthflow_api.DTO.HealthActivityDTO;
+import com.healthflow.healthflow_api.model.User;
+import com.healthflow.healthflow_api.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+
+// Fila pequena e commits frequentes; cada teste desliga a fila, então cada um tem o seu contexto
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:writebehindrecoverytests",
+		"healthflow.activities.write-behind.enabled=true",
+		"healthflow.activities.write-behind.capacity=2000",
+		"healthflow.activities.write-behind.batch-size=50",
+		"healthflow.activities.write-behind.max-delay=5ms",
+		"healthflow.activities.write-behind.retry-backoff=10ms"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ActivityWriteBehindRecoveryTests {
+
+	@Autowired
+	private ActivityWriteBehindService writeBehindService;
+
+	@MockitoSpyBean
+	private HealthActivityService activityService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void shutdownDuringConcurrentEnqueuesWritesEveryAcceptedActivity() throws Exception {
+		Long userId = newUser();
+		HealthActivityDTO activity = new HealthActivityDTO(userId, "WALKING", LocalDate.of(2025, 1, 1), 1.0);
+		AtomicInteger accepted = new AtomicInteger();
+		AtomicBoolean done = new AtomicBoolean();
+
+		List<Thread> producers = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			Thread producer = new Thread(() -> {
+				while (!done.get()) {
+					if (writeBehindService.enqueue(activity)) {
+						accepted.incrementAndGet();
+					}
+				}
+			});
+			producer.start();
+			producers.add(producer);
+		}
+
+		Thread.sleep(300);
+		writeBehindService.shutdown();
+		done.set(true);
+		for (Thread producer : producers) {
+			producer.join();
+		}
+
+		assertTrue(accepted.get() > 0);
+		assertEquals(0, writeBehindService.getQueueDepth());
+		assertEquals(accepted.get(), countActivities(userId));
+		assertEquals(accepted.get(), writeBehindService.getWrittenCount());
+	}
+
+	@Test
+	void failedCommitIsRetried() throws Exception {
+		doThrow(new TransientDataAccessResourceException("Banco indisponível"))
+				.doCallRealMethod()
+				.when(activityService).saveBatch(anyList());
+		Long userId = newUser();
+
+		for (int i = 0; i < 10; i++) {
+			assertTrue(writeBehindService.enqueue(new HealthActivityDTO(userId, "WALKING", LocalDate.of(2025, 1, 1), 1.0)));
+		}
+		writeBehindService.shutdown();
+
+		assertEquals(10, countActivities(userId));
+		assertEquals(10, writeBehindService.getWrittenCount());
+	}
+
+	@Test
+	void persistentFailureDiscardsOnlyTheFailingActivity() throws Exception {
+		doAnswer(invocation -> {
+			List<HealthActivityDTO> batch = invocation.getArgument(0);
+			if (batch.stream().anyMatch(activityDTO -> activityDTO.getActivityValue() == 13.0)) {
+				throw new DataIntegrityViolationException("Atividade inválida");
+			}
+			return invocation.callRealMethod();
+		}).when(activityService).saveBatch(anyList());
+		Long userId = newUser();
+
+		for (int i = 1; i <= 40; i++) {
+			assertTrue(writeBehindService.enqueue(new HealthActivityDTO(userId, "WALKING", LocalDate.of(2025, 1, 1), (double) i)));
+		}
+		writeBehindService.shutdown();
+
+		assertEquals(39, countActivities(userId));
+		assertEquals(0, jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM health_activities WHERE user_id = ? AND activity_value = 13", Integer.class, userId));
+	}
+
+	private Long newUser() {
+		return userRepository.save(new User("Usuário Teste", UUID.randomUUID() + "@email.com", "senha")).getId();
+	}
+
+	private int countActivities(Long userId) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM health_activities WHERE user_id = ?", Integer.class, userId);
+	}
+}
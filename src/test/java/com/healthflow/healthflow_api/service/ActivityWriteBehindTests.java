@@ -0,0 +1,57 @@
+package com.healthflow.healthflow_api.service;
+
+import com.healthflow.healthflow_api.DTO.HealthActivityDTO;
+import com.healthflow.healthflow_api.model.User;
+import com.healthflow.healthflow_api.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Intervalo longo: só o tamanho do lote ou o desligamento disparam a gravação
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:writebehindtests",
+		"healthflow.activities.write-behind.enabled=true",
+		"healthflow.activities.write-behind.capacity=100",
+		"healthflow.activities.write-behind.batch-size=40",
+		"healthflow.activities.write-behind.max-delay=1h"
+})
+@DirtiesContext
+class ActivityWriteBehindTests {
+
+	@Autowired
+	private ActivityWriteBehindService writeBehindService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void rejectsWhenFullAndDrainsOnShutdown() throws InterruptedException {
+		Long userId = userRepository.save(new User("Usuário Teste", UUID.randomUUID() + "@email.com", "senha")).getId();
+		HealthActivityDTO activity = new HealthActivityDTO(userId, "WALKING", LocalDate.of(2025, 1, 1), 1.0);
+
+		int accepted = 0;
+		while (writeBehindService.enqueue(activity)) {
+			accepted++;
+		}
+		assertTrue(accepted >= 100, "A fila deve aceitar ao menos a capacidade configurada");
+
+		writeBehindService.shutdown();
+
+		assertFalse(writeBehindService.enqueue(activity));
+		assertEquals(0, writeBehindService.getQueueDepth());
+		assertEquals(accepted, jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM health_activities WHERE user_id = ?", Integer.class, userId));
+	}
+}
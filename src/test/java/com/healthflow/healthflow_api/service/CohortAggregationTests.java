@@ -0,0 +1,95 @@
+package com.healthflow.healthflow_api.service;
+
+import com.healthflow.healthflow_api.DTO.CohortStatisticsDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// 20 usuários por tarefa: os 300 usuários passam por várias divisões e junções do fork-join
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:cohorttests",
+		"healthflow.cohort.users-per-task=20",
+		"healthflow.cohort.parallelism=4"
+})
+class CohortAggregationTests {
+
+	private static final int USERS = 300;
+	private static final String[] TYPES = {"WALKING", "WATER"};
+	private static final LocalDate FROM = LocalDate.of(2025, 1, 1);
+	private static final LocalDate TO = LocalDate.of(2025, 1, 31);
+
+	@Autowired
+	private CohortAggregationService cohortService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	// Agregados inseridos direto, com muitos totais repetidos (empates) e dias fora do período
+	@BeforeEach
+	void loadRollups() {
+		jdbcTemplate.update("DELETE FROM daily_activity_rollups");
+		List<Object[]> rows = new ArrayList<>();
+		for (long userId = 1; userId <= USERS; userId++) {
+			for (int t = 0; t < TYPES.length; t++) {
+				if ((userId + t) % 5 == 0) {
+					continue;
+				}
+				double value = (userId * (t + 3)) % 7 * 10.0;
+				rows.add(new Object[]{userId, TYPES[t], Date.valueOf(FROM.plusDays(userId % 28)), value, 2, value / 2, value / 2});
+				rows.add(new Object[]{userId, TYPES[t], Date.valueOf(FROM.plusDays(userId % 3 + 28)), 10.0, 1, 10.0, 10.0});
+				rows.add(new Object[]{userId, TYPES[t], Date.valueOf(TO.plusDays(1)), 1000.0, 1, 1000.0, 1000.0});
+			}
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO daily_activity_rollups"
+				+ " (user_id, activity_type, date, total_value, activity_count, min_value, max_value)"
+				+ " VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+	}
+
+	@Test
+	void totalsAndLeaderboardMatchADirectQuery() {
+		List<CohortStatisticsDTO> statistics = cohortService.aggregate(null, FROM, TO, 15);
+
+		assertEquals(List.of("WALKING", "WATER"), statistics.stream().map(CohortStatisticsDTO::getActivityType).toList());
+		for (CohortStatisticsDTO typeStatistics : statistics) {
+			assertMatchesDatabase(typeStatistics, 15);
+		}
+	}
+
+	@Test
+	void singleTypeAndTopSizeLargerThanTheTies() {
+		List<CohortStatisticsDTO> statistics = cohortService.aggregate("WATER", FROM, TO, 40);
+
+		assertEquals(1, statistics.size());
+		assertMatchesDatabase(statistics.get(0), 40);
+	}
+
+	private void assertMatchesDatabase(CohortStatisticsDTO actual, int top) {
+		String type = actual.getActivityType();
+		Map<String, Object> totals = jdbcTemplate.queryForMap("SELECT COUNT(DISTINCT user_id) AS users,"
+				+ " SUM(activity_count) AS activity_count, SUM(total_value) AS total_value FROM daily_activity_rollups"
+				+ " WHERE activity_type = ? AND date BETWEEN ? AND ?", type, FROM, TO);
+		assertEquals(((Number) totals.get("USERS")).longValue(), actual.getUsers(), type);
+		assertEquals(((Number) totals.get("ACTIVITY_COUNT")).longValue(), actual.getActivityCount(), type);
+		assertEquals(((Number) totals.get("TOTAL_VALUE")).doubleValue(), actual.getTotalValue(), 1e-6, type);
+
+		// Empates na soma ficam em ordem crescente de id
+		List<String> expected = jdbcTemplate.query("SELECT user_id, SUM(total_value), SUM(activity_count)"
+						+ " FROM daily_activity_rollups WHERE activity_type = ? AND date BETWEEN ? AND ?"
+						+ " GROUP BY user_id ORDER BY SUM(total_value) DESC, user_id LIMIT ?",
+				(rs, rowNum) -> rs.getLong(1) + ":" + rs.getDouble(2) + ":" + rs.getLong(3), type, FROM, TO, top);
+		List<String> ranking = actual.getTop().stream()
+				.map(entry -> entry.getUserId() + ":" + entry.getTotalValue() + ":" + entry.getActivityCount())
+				.toList();
+		assertEquals(expected, ranking, type);
+	}
+}
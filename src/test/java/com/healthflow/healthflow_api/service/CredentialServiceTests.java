@@ -0,0 +1,113 @@
+package com.healthflow.healthflow_api.service;
+
+import com.healthflow.healthflow_api.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doReturn;
+
+// Custo 4 (o mínimo do bcrypt) para o teste não gastar CPU à toa
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.datasource.url=jdbc:h2:mem:credentialtests",
+		"healthflow.credentials.bcrypt-cost=4",
+		"healthflow.credentials.hashing-threads=2"
+})
+@DirtiesContext
+class CredentialServiceTests {
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private CredentialService credentialService;
+
+	@MockitoSpyBean
+	private UserService userService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	@Test
+	void signupStoresOnlyTheHashAndLoginChecksIt() throws Exception {
+		String email = UUID.randomUUID() + "@email.com";
+		HttpResponse<String> created = post("/api/users",
+				"{\"name\":\"Usuário Teste\",\"email\":\"" + email + "\",\"password\":\"segredo123\"}");
+		assertEquals(201, created.statusCode());
+		assertFalse(created.body().contains("password"), created.body());
+		assertFalse(created.body().contains("segredo123"), created.body());
+
+		String hash = jdbcTemplate.queryForObject("SELECT c.password_hash FROM user_credentials c "
+				+ "JOIN users u ON u.id = c.user_id WHERE u.email = ?", String.class, email);
+		assertTrue(hash.startsWith("$2a$04$"), hash);
+		assertFalse(get("/api/users").body().contains("$2a$"));
+
+		assertEquals(200, post("/api/users/login", login(email, "segredo123")).statusCode());
+		assertEquals(401, post("/api/users/login", login(email, "errada")).statusCode());
+		assertEquals(401, post("/api/users/login", login("ninguem-" + email, "segredo123")).statusCode());
+	}
+
+	@Test
+	void signupRacingAnotherSignupIsConflict() throws Exception {
+		String email = UUID.randomUUID() + "@email.com";
+		userService.create(new User("Primeiro Cadastro", email, null), "{noop}senha");
+		// Simula o outro cadastro gravado depois da verificação, enquanto o hash era calculado
+		doReturn(false).when(userService).existsByEmail(email);
+
+		HttpResponse<String> duplicate = post("/api/users",
+				"{\"name\":\"Segundo Cadastro\",\"email\":\"" + email + "\",\"password\":\"segredo123\"}");
+		assertEquals(409, duplicate.statusCode());
+		assertEquals("Email já cadastrado", duplicate.body());
+		assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE email = ?", Integer.class, email));
+	}
+
+	@Test
+	void loginRehashesLegacyAndOutdatedHashes() {
+		User legacy = userService.create(new User("Usuário Antigo", UUID.randomUUID() + "@email.com", null), "{noop}senha");
+		assertTrue(credentialService.authenticate(legacy.getEmail(), "senha").join().isPresent());
+		assertTrue(userService.findPasswordHash(legacy.getId()).orElseThrow().startsWith("$2a$04$"));
+
+		String costlier = new BCryptPasswordEncoder(6).encode("senha");
+		User outdated = userService.create(new User("Usuário Custo 6", UUID.randomUUID() + "@email.com", null), costlier);
+		assertTrue(credentialService.authenticate(outdated.getEmail(), "senha").join().isPresent());
+		String rehashed = userService.findPasswordHash(outdated.getId()).orElseThrow();
+		assertTrue(rehashed.startsWith("$2a$04$"), rehashed);
+
+		// Senha errada não altera o hash
+		assertTrue(credentialService.authenticate(outdated.getEmail(), "outra").join().isEmpty());
+		assertEquals(rehashed, userService.findPasswordHash(outdated.getId()).orElseThrow());
+	}
+
+	private static String login(String email, String password) {
+		return "{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}";
+	}
+
+	private HttpResponse<String> get(String path) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+		return client.send(request, HttpResponse.BodyHandlers.ofString());
+	}
+
+	private HttpResponse<String> post(String path, String body) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(body))
+				.build();
+		return client.send(request, HttpResponse.BodyHandlers.ofString());
+	}
+}
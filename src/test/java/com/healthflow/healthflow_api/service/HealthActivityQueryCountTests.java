@@ -0,0 +1,96 @@
+package com.healthflow.healthflow_api.service;
+
+import com.healthflow.healthflow_api.DTO.HealthActivityResponseDTO;
+import com.healthflow.healthflow_api.model.HealthActivity;
+import com.healthflow.healthflow_api.model.User;
+import com.healthflow.healthflow_api.repository.HealthActivityRepository;
+import com.healthflow.healthflow_api.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class HealthActivityQueryCountTests {
+
+	private static final int ACTIVITIES_PER_USER = 25;
+
+	@Autowired
+	private HealthActivityService activityService;
+
+	@Autowired
+	private HealthActivityRepository activityRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	private Long userId;
+
+	@BeforeEach
+	void setUp() {
+		User user = userRepository.save(new User("Usuário Teste", UUID.randomUUID() + "@email.com", "senha"));
+		userId = user.getId();
+
+		List<HealthActivity> activities = new ArrayList<>();
+		for (int i = 0; i < ACTIVITIES_PER_USER; i++) {
+			String type = i % 2 == 0 ? "WALKING" : "WATER";
+			activities.add(new HealthActivity(user, type, LocalDate.of(2025, 1, 1).plusDays(i), (double) i));
+		}
+		activityRepository.saveAll(activities);
+
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void findAllByUserIdRunsSingleStatement() {
+		List<HealthActivityResponseDTO> activities = activityService.findAllByUserId(userId);
+
+		assertEquals(ACTIVITIES_PER_USER, activities.size());
+		assertEquals("Usuário Teste", activities.get(0).getUserName());
+		assertEquals(1, statistics.getPrepareStatementCount());
+		assertEquals(0, statistics.getEntityLoadCount());
+	}
+
+	@Test
+	void findByUserIdAndTypeRunsSingleStatement() {
+		List<HealthActivityResponseDTO> activities = activityService.findByUserIdAndType(userId, "WATER");
+
+		assertEquals(ACTIVITIES_PER_USER / 2, activities.size());
+		assertEquals(1, statistics.getPrepareStatementCount());
+		assertEquals(0, statistics.getEntityLoadCount());
+	}
+
+	@Test
+	void pagedListingRunsSingleStatementPerPage() {
+		String cursor = activityService.findPageByUserId(userId, null, null, 10).getNextCursor();
+		activityService.findPageByUserId(userId, null, cursor, 10);
+
+		assertEquals(2, statistics.getPrepareStatementCount());
+		assertEquals(0, statistics.getEntityLoadCount());
+	}
+
+	@Test
+	void streamedListingRunsSingleStatement() {
+		activityService.streamByUserId(userId, null, new ByteArrayOutputStream());
+
+		assertEquals(1, statistics.getPrepareStatementCount());
+		assertEquals(0, statistics.getEntityLoadCount());
+	}
+}
@@ -0,0 +1,81 @@
+package com.healthflow.healthflow_api.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class P2QuantileEstimatorTests {
+
+	@Test
+	void fiveOrFewerSamplesAreExact() {
+		assertTrue(Double.isNaN(new P2QuantileEstimator(0.5).estimate()));
+
+		P2QuantileEstimator single = new P2QuantileEstimator(0.95);
+		single.add(7);
+		assertEquals(7, single.estimate());
+
+		double[] samples = {40, 10, 50, 20, 30};
+		for (int size = 1; size <= samples.length; size++) {
+			for (double quantile : new double[]{0.5, 0.95}) {
+				P2QuantileEstimator estimator = new P2QuantileEstimator(quantile);
+				for (int i = 0; i < size; i++) {
+					estimator.add(samples[i]);
+				}
+				assertEquals(exact(Arrays.copyOf(samples, size), quantile), estimator.estimate(), 1e-9,
+						size + " amostras, quantil " + quantile);
+			}
+		}
+	}
+
+	@Test
+	void estimateStaysCloseToTheExactQuantile() {
+		Random random = new Random(3);
+		double[] uniform = new double[50_000];
+		double[] normal = new double[50_000];
+		for (int i = 0; i < uniform.length; i++) {
+			uniform[i] = random.nextDouble() * 100;
+			normal[i] = 60 + 15 * random.nextGaussian();
+		}
+
+		for (double quantile : new double[]{0.5, 0.95}) {
+			assertEquals(exact(uniform, quantile), estimate(uniform, quantile), 1.0, "uniforme, quantil " + quantile);
+			assertEquals(exact(normal, quantile), estimate(normal, quantile), 0.5, "normal, quantil " + quantile);
+		}
+
+		// Poucas amostras já depois da inicialização dos marcadores
+		double[] small = Arrays.copyOf(normal, 40);
+		assertEquals(exact(small, 0.5), estimate(small, 0.5), 5.0);
+	}
+
+	@Test
+	void sortedInputIsTracked() {
+		double[] ascending = new double[1_001];
+		for (int i = 0; i < ascending.length; i++) {
+			ascending[i] = i;
+		}
+		assertEquals(500, estimate(ascending, 0.5), 5);
+		assertEquals(950, estimate(ascending, 0.95), 5);
+	}
+
+	private static double estimate(double[] samples, double quantile) {
+		P2QuantileEstimator estimator = new P2QuantileEstimator(quantile);
+		for (double sample : samples) {
+			estimator.add(sample);
+		}
+		return estimator.estimate();
+	}
+
+	// Interpolação entre as amostras ordenadas, a mesma definição usada pelo estimador com poucas amostras
+	private static double exact(double[] samples, double quantile) {
+		double[] sorted = samples.clone();
+		Arrays.sort(sorted);
+		double rank = quantile * (sorted.length - 1);
+		int lower = (int) Math.floor(rank);
+		int upper = Math.min(lower + 1, sorted.length - 1);
+		return sorted[lower] + (rank - lower) * (sorted[upper] - sorted[lower]);
+	}
+}
@@ -0,0 +1,56 @@
+package com.healthflow.healthflow_api.service;
+
+import com.healthflow.healthflow_api.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:usercachetests")
+class UserCacheTests {
+
+	@Autowired
+	private UserService userService;
+
+	@Test
+	void failedUpdateLeavesTheCachedUserUntouched() {
+		User first = userService.save(new User("Primeiro", UUID.randomUUID() + "@email.com", "senha"));
+		User second = userService.save(new User("Segundo", UUID.randomUUID() + "@email.com", "senha"));
+		User cached = userService.findById(first.getId()).orElseThrow();
+
+		assertThrows(DataIntegrityViolationException.class,
+				() -> userService.update(first.getId(), "Nome Alterado", second.getEmail()));
+
+		User afterFailure = userService.findById(first.getId()).orElseThrow();
+		assertSame(cached, afterFailure);
+		assertEquals("Primeiro", afterFailure.getName());
+		assertEquals(first.getEmail(), afterFailure.getEmail());
+		assertEquals(second.getId(), userService.findByEmail(second.getEmail()).orElseThrow().getId());
+	}
+
+	@Test
+	void emailChangeEvictsBothEmails() {
+		String oldEmail = UUID.randomUUID() + "@email.com";
+		String newEmail = UUID.randomUUID() + "@email.com";
+		User user = userService.save(new User("Usuário", oldEmail, "senha"));
+		assertTrue(userService.findByEmail(oldEmail).isPresent());
+		assertTrue(userService.findByEmail(newEmail).isEmpty());
+
+		userService.update(user.getId(), "Usuário", newEmail);
+
+		assertTrue(userService.findByEmail(oldEmail).isEmpty());
+		assertEquals(user.getId(), userService.findByEmail(newEmail).orElseThrow().getId());
+		assertEquals(newEmail, userService.findById(user.getId()).orElseThrow().getEmail());
+
+		userService.deleteById(user.getId());
+		assertTrue(userService.findByEmail(newEmail).isEmpty());
+		assertTrue(userService.findById(user.getId()).isEmpty());
+	}
+}
@@ -0,0 +1,75 @@
+package com.healthflow.healthflow_api.service;
+
+import com.healthflow.healthflow_api.DTO.UserPageDTO;
+import com.healthflow.healthflow_api.DTO.UserResponseDTO;
+import com.healthflow.healthflow_api.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:userpagetests")
+class UserPageTests {
+
+	@Autowired
+	private UserService userService;
+
+	@Test
+	void pagesWalkAllUsersInIdOrder() {
+		for (int i = 0; i < 23; i++) {
+			userService.save(new User("Usuário " + i, UUID.randomUUID() + "@email.com", "senha"));
+		}
+
+		List<UserResponseDTO> walked = walk(null, 10);
+		List<Long> ids = walked.stream().map(UserResponseDTO::getId).toList();
+		assertEquals(ids.stream().sorted().toList(), ids);
+		assertEquals(userService.findAll().size(), ids.size());
+	}
+
+	@Test
+	void emailPrefixSearchPagesInEmailOrder() {
+		String prefix = "busca-" + UUID.randomUUID().toString().substring(0, 8) + "-";
+		for (int i = 24; i >= 0; i--) {
+			userService.save(new User("Usuário " + i, prefix + String.format("%02d", i) + "@email.com", "senha"));
+		}
+		userService.save(new User("Outro", "x" + prefix + "@email.com", "senha"));
+
+		List<UserResponseDTO> found = walk(prefix, 7);
+		assertEquals(25, found.size());
+		assertEquals(prefix + "00@email.com", found.get(0).getEmail());
+		assertEquals(prefix + "24@email.com", found.get(24).getEmail());
+		found.forEach(user -> assertTrue(user.getEmail().startsWith(prefix)));
+
+		UserPageDTO exact = userService.findPage(prefix + "03", null, 10);
+		assertEquals(1, exact.getItems().size());
+		assertNull(exact.getNextCursor());
+	}
+
+	@Test
+	void invalidCursorsAreRejected() {
+		assertThrows(IllegalArgumentException.class, () -> userService.findPage(null, "não-é-base64!", 10));
+		assertThrows(IllegalArgumentException.class, () -> userService.findPage(null, "YWJj", 10));
+		// Cursor de outra busca (email sem o prefixo pedido)
+		assertThrows(IllegalArgumentException.class, () -> userService.findPage("zzz", "YWJj", 10));
+	}
+
+	private List<UserResponseDTO> walk(String emailPrefix, int size) {
+		List<UserResponseDTO> users = new ArrayList<>();
+		String cursor = null;
+		do {
+			UserPageDTO page = userService.findPage(emailPrefix, cursor, size);
+			assertTrue(page.getItems().size() <= size);
+			users.addAll(page.getItems());
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+		return users;
+	}
+}
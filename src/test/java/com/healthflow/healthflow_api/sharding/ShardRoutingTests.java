@@ -0,0 +1,165 @@
+package com.healthflow.healthflow_api.sharding;
+
+import com.healthflow.healthflow_api.DTO.BatchItemResultDTO;
+import com.healthflow.healthflow_api.DTO.CohortStatisticsDTO;
+import com.healthflow.healthflow_api.DTO.HealthActivityDTO;
+import com.healthflow.healthflow_api.DTO.HealthActivityResponseDTO;
+import com.healthflow.healthflow_api.DTO.UserPageDTO;
+import com.healthflow.healthflow_api.model.User;
+import com.healthflow.healthflow_api.service.ActivityRollupService;
+import com.healthflow.healthflow_api.service.CohortAggregationService;
+import com.healthflow.healthflow_api.service.HealthActivityService;
+import com.healthflow.healthflow_api.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Três bancos H2 em memória como shards
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:shardtests-0",
+		"healthflow.sharding.enabled=true",
+		"healthflow.sharding.urls=jdbc:h2:mem:shardtests-1;DB_CLOSE_DELAY=-1,jdbc:h2:mem:shardtests-2;DB_CLOSE_DELAY=-1"
+})
+@DirtiesContext
+class ShardRoutingTests {
+
+	private static final LocalDate DAY = LocalDate.of(2025, 1, 1);
+
+	@Autowired
+	private ShardDirectory directory;
+
+	@Autowired
+	private ShardRebalancer rebalancer;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private HealthActivityService activityService;
+
+	@Autowired
+	private ActivityRollupService rollupService;
+
+	@Autowired
+	private CohortAggregationService cohortService;
+
+	@Test
+	void usersAndActivitiesLiveOnTheirShard() {
+		List<User> users = createUsers(30);
+		for (User user : users) {
+			int shard = directory.placement(user.getEmail());
+			assertEquals(shard, directory.shardOf(user.getId()));
+			assertEquals(1, countUser(shard, user.getId()));
+		}
+		assertEquals(3, users.stream().map(user -> directory.shardOf(user.getId())).distinct().count());
+
+		List<HealthActivityDTO> batch = users.stream()
+				.map(user -> new HealthActivityDTO(user.getId(), "WALKING", DAY, 30.0))
+				.collect(Collectors.toCollection(ArrayList::new));
+		batch.add(new HealthActivityDTO(Long.MAX_VALUE, "WALKING", DAY, 30.0));
+		List<BatchItemResultDTO> results = activityService.saveBatch(batch);
+		for (int i = 0; i < users.size(); i++) {
+			assertTrue(results.get(i).isSuccess());
+			assertEquals(i, results.get(i).getIndex());
+		}
+		assertEquals("Usuário não encontrado", results.get(users.size()).getError());
+
+		User user = users.get(0);
+		HealthActivityResponseDTO saved = activityService.save(new HealthActivityDTO(user.getId(), "WATER", DAY, 2.0));
+		assertEquals(2, activityService.findAllByUserId(user.getId()).size());
+		assertEquals(2, countActivities(directory.shardOf(user.getId()), user.getId()));
+		assertEquals(2.0, activityService.findResponseById(saved.getId()).orElseThrow().getActivityValue());
+		assertEquals(2, activityService.getStatistics(user.getId(), DAY).size());
+
+		activityService.deleteById(saved.getId());
+		assertTrue(activityService.findResponseById(saved.getId()).isEmpty());
+		assertEquals(1, activityService.findAllByUserId(user.getId()).size());
+	}
+
+	@Test
+	void crossUserQueriesGatherAllShards() {
+		List<User> users = createUsers(12);
+		List<Long> ids = userService.findAll().stream().map(User::getId).toList();
+		users.forEach(user -> assertTrue(ids.contains(user.getId())));
+
+		// Páginas por cursor montadas a partir de todos os shards, em ordem de id
+		List<Long> paged = new ArrayList<>();
+		String cursor = null;
+		do {
+			UserPageDTO page = userService.findPage(null, cursor, 5);
+			page.getItems().forEach(item -> paged.add(item.getId()));
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+		assertEquals(ids.stream().sorted().toList(), paged);
+
+		User last = users.get(users.size() - 1);
+		assertEquals(last.getId(), userService.findByEmail(last.getEmail()).orElseThrow().getId());
+		assertTrue(userService.existsByEmail(last.getEmail()));
+		assertFalse(userService.existsByEmail(UUID.randomUUID() + "@email.com"));
+
+		String type = "COHORT" + UUID.randomUUID().toString().substring(0, 8);
+		users.forEach(user -> activityService.save(new HealthActivityDTO(user.getId(), type, DAY, 10.0)));
+		CohortStatisticsDTO cohort = cohortService.aggregate(type, DAY, DAY, 5).get(0);
+		assertEquals(users.size(), cohort.getUsers());
+		assertEquals(10.0 * users.size(), cohort.getTotalValue());
+
+		assertTrue(rollupService.rebuildAll() >= users.size());
+		assertEquals(users.size(), cohortService.aggregate(type, DAY, DAY, 5).get(0).getUsers());
+	}
+
+	@Test
+	void usersMoveBetweenShardsAndRebalanceBack() {
+		User user = createUsers(1).get(0);
+		activityService.save(new HealthActivityDTO(user.getId(), "WALKING", DAY, 30.0));
+		activityService.save(new HealthActivityDTO(user.getId(), "WATER", DAY, 2.0));
+		int home = directory.shardOf(user.getId());
+		int target = (home + 1) % directory.getShardCount();
+
+		rebalancer.moveUser(user.getId(), target);
+		assertEquals(target, directory.shardOf(user.getId()));
+		assertEquals(0, countUser(home, user.getId()));
+		assertEquals(2, countActivities(target, user.getId()));
+		assertEquals(2, activityService.findAllByUserId(user.getId()).size());
+		assertEquals(2, rollupService.findStatistics(user.getId(), DAY).size());
+
+		activityService.save(new HealthActivityDTO(user.getId(), "SLEEP", DAY, 8.0));
+		assertEquals(3, countActivities(target, user.getId()));
+
+		assertTrue(rebalancer.rebalance(100) >= 1);
+		assertEquals(home, directory.shardOf(user.getId()));
+		assertEquals(0, countUser(target, user.getId()));
+		assertEquals(3, activityService.findAllByUserId(user.getId()).size());
+	}
+
+	private List<User> createUsers(int count) {
+		List<User> users = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			users.add(userService.save(new User("Usuário " + i, UUID.randomUUID() + "@email.com", "senha")));
+		}
+		return users;
+	}
+
+	private long countUser(int shard, Long userId) {
+		return jdbc(shard).queryForObject("SELECT COUNT(*) FROM users WHERE id = ?", Long.class, userId);
+	}
+
+	private long countActivities(int shard, Long userId) {
+		return jdbc(shard).queryForObject("SELECT COUNT(*) FROM health_activities WHERE user_id = ?", Long.class, userId);
+	}
+
+	private JdbcTemplate jdbc(int shard) {
+		return new JdbcTemplate(directory.getDataSource(shard));
+	}
+}